@@ -0,0 +1,5 @@
+-- Migration: Index for loading per-task reminders
+-- The in-memory reminder wheel loads the reminders falling in its rolling horizon by time,
+-- so task_reminders needs an index on the reminder column rather than only on task_id.
+
+CREATE INDEX idx_task_reminders_reminder ON task_reminders (reminder);
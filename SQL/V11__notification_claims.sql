@@ -0,0 +1,9 @@
+-- Migration: Database leases for reminder delivery
+-- Every backend instance fires the same reminders from its own in-memory wheel; before sending, a node
+-- leases the rows with a conditional UPDATE so that each reminder is pushed by exactly one node.
+
+ALTER TABLE tasks
+ADD COLUMN notification_claimed_by VARCHAR(64) NULL,
+ADD COLUMN notification_claim_expires DATETIME(6) NULL,
+ADD COLUMN last_reminder_at DATETIME(6) NULL,
+ADD COLUMN last_reminder_claimed_by VARCHAR(64) NULL;
@@ -0,0 +1,20 @@
+-- Migration: Outbox for outgoing email
+-- Registration and password reset emails are queued here and sent by a background worker over a shared
+-- SMTP connection, so those requests no longer wait on the mail server. Every backend instance polls the
+-- outbox; a worker leases the due rows (claimed_by, claim_expires) before sending, so each email is sent from
+-- exactly one instance.
+
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    html BOOLEAN NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    claimed_by VARCHAR(64) NULL,
+    claim_expires DATETIME(6) NULL,
+    INDEX idx_mail_outbox_next_attempt (next_attempt_at, id)
+);
@@ -0,0 +1,11 @@
+-- Migration: Revoked JWTs
+-- Tokens now carry a jti claim; logging out records it here so the token is refused until it expires.
+-- Rows past expires_at are purged by the application.
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
@@ -0,0 +1,17 @@
+-- Migration: Composite indexes and normalised status for task queries
+-- Adds a TINYINT status_code (0 = Pending, 1 = In Progress, 2 = Completed) so status
+-- predicates become index ranges, plus composite indexes matched to the repository queries.
+
+ALTER TABLE tasks ADD COLUMN status_code TINYINT NOT NULL DEFAULT 0;
+
+UPDATE tasks SET status_code = 2 WHERE LOWER(status) IN ('completed', 'complete');
+UPDATE tasks SET status_code = 1 WHERE LOWER(status) = 'in progress';
+
+-- notification_sent is no longer nullable in practice; NULL rows would miss the equality match
+UPDATE tasks SET notification_sent = FALSE WHERE notification_sent IS NULL;
+
+ALTER TABLE tasks
+ADD INDEX idx_task_user_status (user_id, status_code),
+ADD INDEX idx_task_user_notify_scheduled (user_id, notification_sent, scheduled_start),
+ADD INDEX idx_task_user_modified (user_id, last_modified_date),
+ADD INDEX idx_task_status_score (status_code, recommendation_score);
@@ -0,0 +1,13 @@
+-- Migration: Move task ids from AUTO_INCREMENT to a pooled sequence
+-- Hibernate cannot batch inserts for IDENTITY ids. MySQL has no sequences, so Hibernate
+-- emulates task_seq with a single-row table. Run this before deploying, otherwise
+-- ddl-auto would create task_seq starting at 1 and collide with existing ids.
+
+CREATE TABLE IF NOT EXISTS task_seq (
+    next_val BIGINT
+);
+
+-- The pooled optimizer treats the stored value as the top of a 50-id block (allocationSize = 50),
+-- so seed it one block above the current maximum id.
+INSERT INTO task_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM tasks;
@@ -0,0 +1,21 @@
+-- Migration: Transactional outbox for Google Calendar sync
+-- Calendar changes are recorded here in the task transaction and pushed to Google by a background worker,
+-- so task writes no longer wait on (or silently lose) Calendar API calls. Every backend instance polls the
+-- outbox; a worker leases the due rows (claimed_by, claim_expires) before calling Google, so each change is
+-- sent from exactly one instance.
+
+CREATE TABLE IF NOT EXISTS calendar_sync_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    task_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    event_id VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    claimed_by VARCHAR(64) NULL,
+    claim_expires DATETIME(6) NULL,
+    INDEX idx_calendar_sync_next_attempt (next_attempt_at, id),
+    INDEX idx_calendar_sync_user_task (user_id, task_id)
+);
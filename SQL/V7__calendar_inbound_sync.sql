@@ -0,0 +1,8 @@
+-- Migration: Incremental inbound sync from Google Calendar
+-- The per-user sync token lets each pass fetch only the events changed since the previous one,
+-- and the index maps those events back to tasks without scanning the user's tasks.
+
+ALTER TABLE users ADD COLUMN google_calendar_sync_token VARCHAR(1024) NULL;
+
+ALTER TABLE tasks
+ADD INDEX idx_task_user_calendar_event (user_id, google_calendar_event_id);
@@ -0,0 +1,22 @@
+-- Migration: Progress of the initial Google Calendar backfill
+-- When task sync is switched on, existing scheduled tasks are pushed to Google in the background;
+-- this table records how far that has got so the settings page can show it. Every backend instance runs the
+-- backfill job; a worker leases a user's backfill (claimed_by, claim_expires) and renews the lease on each pass,
+-- so each backfill is advanced, and rate limited, by exactly one instance.
+
+CREATE TABLE IF NOT EXISTS calendar_backfill (
+    user_id BIGINT PRIMARY KEY,
+    status VARCHAR(10) NOT NULL,
+    total_tasks BIGINT NOT NULL DEFAULT 0,
+    synced_tasks BIGINT NOT NULL DEFAULT 0,
+    failed_tasks BIGINT NOT NULL DEFAULT 0,
+    last_task_id BIGINT NOT NULL DEFAULT 0,
+    consecutive_failures INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    started_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    claimed_by VARCHAR(64) NULL,
+    claim_expires DATETIME(6) NULL,
+    INDEX idx_calendar_backfill_status (status)
+);
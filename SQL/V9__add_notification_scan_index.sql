@@ -0,0 +1,6 @@
+-- Migration: Index for the set-based reminder scan
+-- The notification scan now looks for due reminders across all users in one query,
+-- so it needs an index that starts with the reminder flag and the scheduled time rather than the user.
+
+ALTER TABLE tasks
+ADD INDEX idx_task_notify_scheduled (notification_sent, scheduled_start);
@@ -0,0 +1,17 @@
+package com.taskvantage.backend.Security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the user ID of the JWT that authenticated the request.
+ * The value is null when the request did not carry a verified token.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AuthenticatedUserId {
+}
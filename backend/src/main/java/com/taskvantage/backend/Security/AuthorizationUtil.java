@@ -27,6 +27,18 @@ public class AuthorizationUtil {
         this.userDetailsService = userDetailsService;
     }
 
+    /**
+     * Reads the user ID from the token, reusing the claims JwtFilter already verified when the token is the
+     * one that authenticated the current request.
+     */
+    private Long userIdFromToken(String token) {
+        VerifiedJwt verified = VerifiedJwt.current();
+        if (verified != null && verified.token().equals(token)) {
+            return verified.userId();
+        }
+        return jwtUtil.getUserIdFromToken(token);
+    }
+
     /**
      * Validates the authorization header format.
      */
@@ -54,7 +66,7 @@ public class AuthorizationUtil {
             return null;
         }
         try {
-            return jwtUtil.getUserIdFromToken(token);
+            return userIdFromToken(token);
         } catch (Exception e) {
             return null;
         }
@@ -76,7 +88,7 @@ public class AuthorizationUtil {
         Long tokenUserId;
 
         try {
-            tokenUserId = jwtUtil.getUserIdFromToken(token);
+            tokenUserId = userIdFromToken(token);
         } catch (ExpiredJwtException e) {
             return createErrorResponse("Unauthorized: Token expired", 401);
         } catch (SignatureException e) {
@@ -110,7 +122,7 @@ public class AuthorizationUtil {
         Long tokenUserId;
 
         try {
-            tokenUserId = jwtUtil.getUserIdFromToken(token);
+            tokenUserId = userIdFromToken(token);
         } catch (ExpiredJwtException e) {
             return createErrorResponse("Unauthorized: Token expired", 401);
         } catch (SignatureException e) {
@@ -141,7 +153,7 @@ public class AuthorizationUtil {
         Long tokenUserId;
 
         try {
-            tokenUserId = jwtUtil.getUserIdFromToken(token);
+            tokenUserId = userIdFromToken(token);
         } catch (ExpiredJwtException e) {
             return createErrorResponse("Unauthorized: Token expired", 401);
         } catch (SignatureException e) {
@@ -156,8 +168,8 @@ public class AuthorizationUtil {
             return createErrorResponse("Unauthorized: Invalid token", 401);
         }
 
-        // Check if user has admin privileges
-        User user = userDetailsService.findUserById(tokenUserId);
+        // Check if user has admin privileges (cached principal; dropped whenever the user row is saved)
+        User user = userDetailsService.loadUserById(tokenUserId).getUser();
         if (user == null) {
             return createErrorResponse("Unauthorized: User not found", 401);
         }
@@ -19,6 +19,7 @@ import org.springframework.security.web.authentication.AuthenticationSuccessHand
 import org.springframework.stereotype.Component;
 import org.springframework.security.core.context.SecurityContextHolder;
 import java.io.IOException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Arrays;
 
@@ -109,6 +110,10 @@ public class GoogleOAuth2SuccessHandler implements AuthenticationSuccessHandler
         OAuth2RefreshToken refreshToken = client.getRefreshToken();
 
         String email = oauthToken.getPrincipal().getAttribute("email");
+        if (!Objects.equals(email, user.getGoogleEmail())) {
+            // A different Google account: the old calendar's sync token means nothing here
+            user.setGoogleCalendarSyncToken(null);
+        }
         user.setGoogleEmail(email);
         user.setGoogleAccessToken(accessToken.getTokenValue());
 
@@ -1,6 +1,7 @@
 package com.taskvantage.backend.Security;
 
 import com.taskvantage.backend.service.CustomUserDetailsService;
+import com.taskvantage.backend.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,6 +29,9 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     // List of paths that should be excluded from JWT validation
     private static final List<String> EXCLUDED_PATHS = List.of(
             "/api/login", "/api/register", "/api/verify-email", "/api/forgot-password",
@@ -54,19 +58,27 @@ public class JwtFilter extends OncePerRequestFilter {
         logger.debug("Authorization header present: {}", authorizationHeader != null);
 
         String username = null;
-        String jwt = null;
+        VerifiedJwt jwt = null;
 
         // Check if the Authorization header contains a valid JWT token
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7); // Extract the token
             try {
-                username = jwtUtil.getUsernameFromToken(jwt);  // Extract username from token
+                // Verified once here; everything later in the request reads these claims
+                jwt = jwtUtil.verify(authorizationHeader.substring(7));
+                username = jwt.username();
                 logger.debug("Token validated successfully");
             } catch (Exception e) {
                 logger.debug("Error extracting data from token: {}", e.getMessage());
                 response.sendError(HttpServletResponse.SC_FORBIDDEN, "Forbidden: Invalid JWT token");
                 return;
             }
+
+            // Answered from memory unless the token id hits the revocation filter
+            if (tokenRevocationService.isRevoked(jwt.tokenId())) {
+                logger.debug("Rejected revoked token");
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized: Token has been revoked");
+                return;
+            }
         } else {
             // Allow access to public resources if no token is provided (e.g., static files)
             if (authorizationHeader == null) {
@@ -90,6 +102,7 @@ public class JwtFilter extends OncePerRequestFilter {
                         userDetails, null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                request.setAttribute(VerifiedJwt.REQUEST_ATTRIBUTE, jwt);
                 logger.debug("User authenticated successfully");
             } else {
                 logger.debug("JWT token validation failed");
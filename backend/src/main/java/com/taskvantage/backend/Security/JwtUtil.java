@@ -1,19 +1,30 @@
 package com.taskvantage.backend.Security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -23,6 +34,20 @@ public class JwtUtil {
     private static final long ACCESS_TOKEN_VALIDITY = 10 * 60 * 60 * 1000; // 10 hours
     private static final long REFRESH_TOKEN_VALIDITY = 30 * 24 * 60 * 60 * 1000; // 30 days
     private static final long PWA_TOKEN_VALIDITY = 90 * 24 * 60 * 60 * 1000; // 90 days
+    // Recently verified tokens, keyed by SHA-256 digest, so a token seen again skips HMAC verification and parsing
+    static final int VERIFIED_CACHE_SIZE = 1024;
+
+    private final JwtParser parser;
+    private final Map<String, Claims> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+            return size() > VERIFIED_CACHE_SIZE;
+        }
+    };
+
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
 
     protected String getEnvVariable(String name) {
         return System.getenv(name);
@@ -37,6 +62,40 @@ public class JwtUtil {
 
         byte[] decodedKey = Base64.getDecoder().decode(secret);
         this.SECRET_KEY = Keys.hmacShaKeyFor(decodedKey);
+        // Thread-safe once built; building one per call was most of the cost of reading a claim
+        this.parser = Jwts.parserBuilder().setSigningKey(SECRET_KEY).build();
+        registerTimers(new SimpleMeterRegistry());
+    }
+
+    // Optional so slice tests without a metrics registry can still build the security configuration
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        registerTimers(meterRegistry);
+    }
+
+    private void registerTimers(MeterRegistry meterRegistry) {
+        this.cachedTimer = verificationTimer(meterRegistry, "cached");
+        this.verifiedTimer = verificationTimer(meterRegistry, "verified");
+        this.rejectedTimer = verificationTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("taskvantage.jwt.verification")
+                .description("Time to verify a JWT and read its claims")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies the token once and returns its claims in a form that can be shared for the rest of the request.
+     *
+     * @throws IllegalArgumentException if the token is invalid or expired
+     */
+    public VerifiedJwt verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedJwt(token, claims.getId(), claims.getSubject(), claims.get("userId", Long.class),
+                claims.get("tokenType", String.class), claims.get("clientType", String.class), claims.getExpiration());
     }
 
     public String getUsernameFromToken(String token) {
@@ -61,16 +120,47 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("Invalid JWT token");
+        }
+        long startedAt = System.nanoTime();
+        String digest = digest(token);
+        Claims cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(digest);
+        }
+        if (cached != null) {
+            if (cached.getExpiration() == null || cached.getExpiration().after(new Date())) {
+                cachedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(digest);
+            }
+        }
+
+        Claims claims;
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(SECRET_KEY)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
+            rejectedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
             logger.debug("Failed to extract claims: {}", e.getMessage());
             throw new IllegalArgumentException("Invalid JWT token");
         }
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(digest, claims);
+        }
+        verifiedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     private Boolean isTokenExpired(String token) {
@@ -79,19 +169,22 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        boolean isValid = username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return validateToken(verify(token), userDetails);
+    }
 
-        if (!isValid) {
-            if (!username.equals(userDetails.getUsername())) {
-                logger.debug("Token username mismatch");
-            }
-            if (isTokenExpired(token)) {
-                logger.debug("Token is expired");
-            }
+    // Checks an already verified token against the user without parsing it again
+    public boolean validateToken(VerifiedJwt jwt, UserDetails userDetails) {
+        boolean usernameMatches = jwt.username() != null && jwt.username().equals(userDetails.getUsername());
+        boolean expired = jwt.expiration() != null && jwt.expiration().before(new Date());
+
+        if (!usernameMatches) {
+            logger.debug("Token username mismatch");
+        }
+        if (expired) {
+            logger.debug("Token is expired");
         }
 
-        return isValid;
+        return usernameMatches && !expired;
     }
 
     public Map<String, String> generateTokens(UserDetails userDetails, Long userId, boolean isPwa) {
@@ -128,6 +221,8 @@ public class JwtUtil {
     private String createToken(Map<String, Object> claims, String subject, long validity) {
         return Jwts.builder()
                 .setClaims(claims)
+                // Token id, so a single token can be revoked (see TokenRevocationService)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + validity))
@@ -0,0 +1,36 @@
+package com.taskvantage.backend.Security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has already been checked. JwtFilter stores one on the request after
+ * authenticating it, so AuthorizationUtil and controller arguments read the caller's identity without
+ * parsing the token again.
+ */
+public record VerifiedJwt(String token, String tokenId, String username, Long userId, String tokenType,
+                          String clientType, Date expiration) {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedJwt.class.getName();
+
+    public static VerifiedJwt from(HttpServletRequest request) {
+        Object attribute = request.getAttribute(REQUEST_ATTRIBUTE);
+        return attribute instanceof VerifiedJwt jwt ? jwt : null;
+    }
+
+    /**
+     * The token verified for the request being handled on this thread, or null outside a request or when the
+     * request was not authenticated with a JWT.
+     */
+    public static VerifiedJwt current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object attribute = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return attribute instanceof VerifiedJwt jwt ? jwt : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskvantage.backend.Security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link VerifiedJwt} parameters and {@link AuthenticatedUserId} parameters from the claims
+ * JwtFilter verified for the request.
+ */
+public class VerifiedJwtArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return VerifiedJwt.class.equals(parameter.getParameterType())
+                || (parameter.hasParameterAnnotation(AuthenticatedUserId.class)
+                        && Long.class.equals(parameter.getParameterType()));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        VerifiedJwt jwt = request != null ? VerifiedJwt.from(request) : null;
+        if (VerifiedJwt.class.equals(parameter.getParameterType())) {
+            return jwt;
+        }
+        return jwt != null ? jwt.userId() : null;
+    }
+}
@@ -1,29 +1,21 @@
 package com.taskvantage.backend.config;
 
-import com.taskvantage.backend.model.Task;
-import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.dto.TaskImportResult;
 import com.taskvantage.backend.model.User;
 import com.taskvantage.backend.repository.TaskRepository;
 import com.taskvantage.backend.repository.UserRepository;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.taskvantage.backend.service.TaskImportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.io.FileReader;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -33,6 +25,7 @@ import org.springframework.core.env.Environment;
 public class DataLoader {
 
     private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
+    private static final String TEST_DATA_CSV = "data/task_test_data.csv";
 
     private final Environment environment;
 
@@ -44,7 +37,8 @@ public class DataLoader {
     }
 
     @Bean
-    public CommandLineRunner loadData(UserRepository userRepository, TaskRepository taskRepository, PasswordEncoder passwordEncoder) {
+    public CommandLineRunner loadData(UserRepository userRepository, TaskRepository taskRepository,
+                                      TaskImportService taskImportService, PasswordEncoder passwordEncoder) {
         return args -> {
             if (!loadTestData) {
                 if (environment.matchesProfiles("dev")) {
@@ -76,59 +70,14 @@ public class DataLoader {
                 logger.info("Test tasks inserted: false");
                 return;
             }
-            String csvFilePath = "./src/main/java/com/taskvantage/backend/data/task_test_data.csv";
-            try (
-                    Reader reader = new FileReader(Paths.get(csvFilePath).toFile());
-                    CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())
-            ) {
-                List<Task> tasks = new ArrayList<>();
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-
-                for (CSVRecord record : csvParser) {
-                    Task task = new Task();
-                    task.setTitle(record.get("title"));
-                    task.setDescription(record.get("description"));
-                    task.setPriority(TaskPriority.valueOf(record.get("priority")));
-                    task.setStatus(normalizeStatus(record.get("status")));
-
-                    // Parse LocalDateTime and convert to ZonedDateTime in UTC
-                    task.setDueDate(LocalDateTime.parse(record.get("due_date"), formatter).atZone(ZoneOffset.UTC));
-                    task.setCreationDate(LocalDateTime.parse(record.get("creation_date"), formatter).atZone(ZoneOffset.UTC));
-                    task.setLastModifiedDate(LocalDateTime.parse(record.get("last_modified_date"), formatter).atZone(ZoneOffset.UTC));
-                    task.setStartDate(LocalDateTime.parse(record.get("actual_start"), formatter).atZone(ZoneOffset.UTC));
-                    task.setScheduledStart(LocalDateTime.parse(record.get("scheduledStart"), formatter).atZone(ZoneOffset.UTC));
-
-                    // Handle optional completionDateTime
-                    String completionDateTime = record.get("completionDateTime");
-                    if (completionDateTime != null && !completionDateTime.isEmpty()) {
-                        task.setCompletionDateTime(LocalDateTime.parse(completionDateTime, formatter).atZone(ZoneOffset.UTC));
-                    }
-
-                    // Set the userId for the task
-                    task.setUserId(user.getId());
-
-                    tasks.add(task);
-                }
-
-                taskRepository.saveAll(tasks);
-                logger.info("Tasks imported from CSV: {} tasks saved", tasks.size());
-                logger.info("Test tasks inserted: true");
+            try (Reader reader = new InputStreamReader(
+                    new ClassPathResource(TEST_DATA_CSV).getInputStream(), StandardCharsets.UTF_8)) {
+                TaskImportResult result = taskImportService.importCsv(reader, user.getId());
+                logger.info("Tasks imported from CSV: {} tasks saved, {} rows rejected", result.getImported(), result.getFailed());
+                logger.info("Test tasks inserted: {}", result.getImported() > 0);
             } catch (Exception e) {
                 logger.error("Error loading tasks from CSV file", e);
             }
         };
     }
-
-    private String normalizeStatus(String status) {
-        if (status == null) {
-            return null;
-        }
-
-        // Normalize any completed status variations to the standard value
-        if ("Complete".equalsIgnoreCase(status) || "Completed".equalsIgnoreCase(status)) {
-            return Task.STATUS_COMPLETED;
-        }
-
-        return status;
-    }
 }
@@ -126,6 +126,8 @@ public class SecurityConfig {
                                 "/oauth2/google/status", "/api/oauth2/google/status",
                                 "/api/set-user-id-cookie").permitAll()
                         .requestMatchers("/api/login", "/api/register", "/api/verify-email", "/api/forgot-password", "/api/reset-password").permitAll()
+                        // Served on the management port only (management.server.port), which is not exposed publicly
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(exceptionHandling -> exceptionHandling
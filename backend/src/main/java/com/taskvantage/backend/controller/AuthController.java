@@ -4,10 +4,17 @@ import com.taskvantage.backend.model.AuthRequest;
 import com.taskvantage.backend.model.User;
 import com.taskvantage.backend.service.CustomUserDetailsService;
 import com.taskvantage.backend.Security.JwtUtil;
+import com.taskvantage.backend.Security.VerifiedJwt;
 import com.taskvantage.backend.service.FirebaseNotificationService;
+import com.taskvantage.backend.service.LoginAdmissionService;
+import com.taskvantage.backend.service.PasswordHashingExecutor;
+import com.taskvantage.backend.service.TokenRevocationService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,10 +23,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
@@ -39,80 +51,142 @@ public class AuthController {
     @Autowired
     private FirebaseNotificationService firebaseNotificationService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // Picks up the login and registration once the hash is done, so the hashing pool only ever runs BCrypt
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor taskExecutor;
+
+    @Autowired
+    private LoginAdmissionService loginAdmissionService;
+
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody AuthRequest authRequest) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@RequestBody AuthRequest authRequest,
+                                                                        HttpServletRequest request) {
         logger.info("Login request received for user: {}", authRequest.getUsername());
 
-        try {
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())
-            );
+        ResponseEntity<Map<String, Object>> limited = admit(request, authRequest.getUsername());
+        if (limited != null) {
+            return CompletableFuture.completedFuture(limited);
+        }
 
-            // Load user details
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(authRequest.getUsername());
-            User user = customUserDetailsService.findUserByUsername(authRequest.getUsername());
+        // Only the BCrypt check runs on the hashing pool; issuing the tokens continues on the task executor,
+        // and this request thread is released while both wait
+        return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())))
+                .thenApplyAsync(authentication -> completeLogin(authRequest), taskExecutor)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof AuthenticationException) {
+                        logger.error("Login failed for user: {}. Error: {}", authRequest.getUsername(), cause.getMessage());
+                        Map<String, Object> errorResponse = new HashMap<>();
+                        errorResponse.put("message", "Login failed: " + cause.getMessage());
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+                    }
+                    return hashingUnavailable(cause);
+                });
+    }
 
-            // Check if email is verified
-            if (!user.isEmailVerified()) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("message", "Your email is not verified. Please verify your email before logging in.");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-            }
+    private ResponseEntity<Map<String, Object>> completeLogin(AuthRequest authRequest) {
+        // Load user details
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername(authRequest.getUsername());
+        User user = customUserDetailsService.findUserByUsername(authRequest.getUsername());
 
-            // Check if this is a PWA request
-            boolean isPwa = authRequest.getIsPwa() != null && authRequest.getIsPwa();
+        // Check if email is verified
+        if (!user.isEmailVerified()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Your email is not verified. Please verify your email before logging in.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
 
-            // Generate tokens
-            Map<String, String> tokens = jwtUtil.generateTokens(userDetails, user.getId(), isPwa);
+        // Check if this is a PWA request
+        boolean isPwa = authRequest.getIsPwa() != null && authRequest.getIsPwa();
 
-            // Store refresh token
-            user.setRefreshToken(tokens.get("refreshToken"));
-            customUserDetailsService.saveUser(user);
+        // Generate tokens
+        Map<String, String> tokens = jwtUtil.generateTokens(userDetails, user.getId(), isPwa);
 
-            // Handle FCM token if provided
-            if (authRequest.getFcmToken() != null && !authRequest.getFcmToken().isEmpty()) {
-                firebaseNotificationService.sendNotification(
-                        authRequest.getFcmToken(),
-                        "Welcome to TaskVantage",
-                        "Thank you for logging in. Enjoy using the app!",
-                        user.getUsername()
-                );
-            }
+        // Store refresh token
+        user.setRefreshToken(tokens.get("refreshToken"));
+        customUserDetailsService.saveUser(user);
 
-            // Prepare response
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Login successful");
-            response.put("username", user.getUsername());
-            response.put("userId", user.getId());
-            response.put("token", tokens.get("accessToken"));
-            response.put("refreshToken", tokens.get("refreshToken"));
-            response.put("isPwa", isPwa);
+        // Handle FCM token if provided
+        if (authRequest.getFcmToken() != null && !authRequest.getFcmToken().isEmpty()) {
+            firebaseNotificationService.sendAsync(
+                    authRequest.getFcmToken(),
+                    "Welcome to TaskVantage",
+                    "Thank you for logging in. Enjoy using the app!"
+            );
+        }
 
-            logger.info("Login successful for user: {}", user.getUsername());
+        // Prepare response
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Login successful");
+        response.put("username", user.getUsername());
+        response.put("userId", user.getId());
+        response.put("token", tokens.get("accessToken"));
+        response.put("refreshToken", tokens.get("refreshToken"));
+        response.put("isPwa", isPwa);
 
-            return ResponseEntity.ok(response);
+        logger.info("Login successful for user: {}", user.getUsername());
 
-        } catch (AuthenticationException e) {
-            logger.error("Login failed for user: {}. Error: {}", authRequest.getUsername(), e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("message", "Login failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-        }
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@RequestBody AuthRequest authRequest) {
-        String result = customUserDetailsService.registerUser(authRequest);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> register(@RequestBody AuthRequest authRequest,
+                                                                           HttpServletRequest request) {
+        ResponseEntity<Map<String, Object>> limited = admit(request, authRequest.getUsername());
+        if (limited != null) {
+            return CompletableFuture.completedFuture(limited);
+        }
+
+        // Only the BCrypt encoding runs on the hashing pool; storing the user and queueing the verification
+        // email continue on the task executor
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(authRequest.getPassword()))
+                .thenApplyAsync(encodedPassword -> customUserDetailsService.registerUser(authRequest, encodedPassword),
+                        taskExecutor)
+                .thenApply(result -> {
+                    Map<String, Object> response = new HashMap<>();
+
+                    if (result.equals("Registration successful. Please check your email to verify your account.")) {
+                        response.put("message", result);
+                        return ResponseEntity.ok(response);
+                    } else {
+                        response.put("message", result);
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                    }
+                })
+                .exceptionally(e -> hashingUnavailable(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+    }
+
+    // Null when the attempt may proceed, otherwise the 429 to send back
+    private ResponseEntity<Map<String, Object>> admit(HttpServletRequest request, String username) {
+        LoginAdmissionService.Decision decision = loginAdmissionService.admit(request.getRemoteAddr(), username);
+        if (decision == LoginAdmissionService.Decision.ADMITTED) {
+            return null;
+        }
         Map<String, Object> response = new HashMap<>();
+        response.put("message", "Too many attempts. Please try again later.");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(loginAdmissionService.retryAfterSeconds(decision)))
+                .body(response);
+    }
 
-        if (result.equals("Registration successful. Please check your email to verify your account.")) {
-            response.put("message", result);
-            return ResponseEntity.ok(response);
-        } else {
-            response.put("message", result);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    private ResponseEntity<Map<String, Object>> hashingUnavailable(Throwable cause) {
+        if (!(cause instanceof RejectedExecutionException)) {
+            throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
         }
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "The server is busy. Please try again shortly.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
     }
 
     @PostMapping("/refresh-token")
@@ -157,14 +231,16 @@ public class AuthController {
 
         try {
             if (token != null && token.startsWith("Bearer ")) {
-                String jwtToken = token.substring(7);
-                String username = jwtUtil.getUsernameFromToken(jwtToken);
-                User user = customUserDetailsService.findUserByUsername(username);
+                VerifiedJwt jwt = jwtUtil.verify(token.substring(7));
+                User user = customUserDetailsService.findUserByUsername(jwt.username());
 
                 // Clear refresh token
                 user.setRefreshToken(null);
                 customUserDetailsService.saveUser(user);
 
+                // The access token itself stays valid for hours (days for PWA clients) unless revoked
+                tokenRevocationService.revoke(jwt);
+
                 response.put("message", "Logout successful");
                 return ResponseEntity.ok(response);
             }
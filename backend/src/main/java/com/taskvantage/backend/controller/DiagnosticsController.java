@@ -0,0 +1,158 @@
+package com.taskvantage.backend.controller;
+
+import com.taskvantage.backend.Security.AuthorizationUtil;
+import com.taskvantage.backend.service.FlightRecordingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiagnosticsController.class);
+
+    private final FlightRecordingService flightRecordingService;
+    private final AuthorizationUtil authorizationUtil;
+
+    @Autowired
+    public DiagnosticsController(FlightRecordingService flightRecordingService, AuthorizationUtil authorizationUtil) {
+        this.flightRecordingService = flightRecordingService;
+        this.authorizationUtil = authorizationUtil;
+    }
+
+    /**
+     * Starts the continuous flight recording, if it is not already running (admin only).
+     * POST /api/diagnostics/recording
+     */
+    @PostMapping("/recording")
+    public ResponseEntity<Map<String, Object>> startRecording(
+            @RequestHeader("Authorization") String authorizationHeader) {
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateAdminAccess(authorizationHeader);
+        if (authError != null) {
+            return authError;
+        }
+
+        try {
+            return ResponseEntity.ok(toResponse(flightRecordingService.start()));
+        } catch (IOException | ParseException e) {
+            logger.error("Could not start flight recording: {}", e.getMessage(), e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Could not start flight recording");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * State of the continuous flight recording (admin only).
+     * GET /api/diagnostics/recording
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<Map<String, Object>> getRecordingStatus(
+            @RequestHeader("Authorization") String authorizationHeader) {
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateAdminAccess(authorizationHeader);
+        if (authError != null) {
+            return authError;
+        }
+
+        return ResponseEntity.ok(toResponse(flightRecordingService.getStatus()));
+    }
+
+    /**
+     * Downloads what the running recording currently holds as a .jfr file, for JDK Mission Control or
+     * {@code jfr print} (admin only).
+     * GET /api/diagnostics/recording/dump
+     */
+    @GetMapping("/recording/dump")
+    public ResponseEntity<?> dumpRecording(@RequestHeader("Authorization") String authorizationHeader) {
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateAdminAccess(authorizationHeader);
+        if (authError != null) {
+            return authError;
+        }
+
+        Path file = null;
+        long size;
+        try {
+            file = flightRecordingService.dump();
+            size = Files.size(file);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (IOException e) {
+            logger.error("Could not dump flight recording: {}", e.getMessage(), e);
+            deleteQuietly(file);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Could not dump flight recording");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+
+        // Dumps can run to the recording's size limit, so the file is copied to the response rather than loaded,
+        // and removed once the copy has finished (or failed)
+        Path dump = file;
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(dump, outputStream);
+            } finally {
+                deleteQuietly(dump);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"taskvantage-" + Instant.now().getEpochSecond() + ".jfr\"")
+                .body(body);
+    }
+
+    /**
+     * Stops the continuous flight recording and discards its data (admin only).
+     * DELETE /api/diagnostics/recording
+     */
+    @DeleteMapping("/recording")
+    public ResponseEntity<Map<String, Object>> stopRecording(
+            @RequestHeader("Authorization") String authorizationHeader) {
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateAdminAccess(authorizationHeader);
+        if (authError != null) {
+            return authError;
+        }
+
+        flightRecordingService.stop();
+        return ResponseEntity.ok(toResponse(flightRecordingService.getStatus()));
+    }
+
+    private static Map<String, Object> toResponse(FlightRecordingService.RecordingStatus status) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("running", status.running());
+        response.put("startedAt", status.startedAt());
+        response.put("maxAgeMinutes", status.maxAge().toMinutes());
+        response.put("maxSizeBytes", status.maxSizeBytes());
+        response.put("recordedBytes", status.recordedBytes());
+        return response;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete flight recording dump {}: {}", file, e.getMessage());
+        }
+    }
+}
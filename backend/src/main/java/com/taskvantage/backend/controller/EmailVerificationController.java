@@ -2,6 +2,7 @@ package com.taskvantage.backend.controller;
 
 import com.taskvantage.backend.model.User;
 import com.taskvantage.backend.repository.UserRepository;
+import com.taskvantage.backend.service.CustomUserDetailsService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,9 +15,12 @@ import java.util.Optional;
 public class EmailVerificationController {
 
     private final UserRepository userRepository;
+    private final CustomUserDetailsService customUserDetailsService;
 
-    public EmailVerificationController(UserRepository userRepository) {
+    public EmailVerificationController(UserRepository userRepository,
+                                       CustomUserDetailsService customUserDetailsService) {
         this.userRepository = userRepository;
+        this.customUserDetailsService = customUserDetailsService;
     }
 
     @GetMapping("/api/verify-email")
@@ -35,7 +39,8 @@ public class EmailVerificationController {
             // Verify the user's email and clear the token
             user.setEmailVerified(true);
             user.setVerificationToken(null);
-            userRepository.save(user);
+            // Through the service, so the cached principal is evicted as well
+            customUserDetailsService.saveUser(user);
 
             return new ResponseEntity<>("Email verified successfully.", HttpStatus.OK);
         } else {
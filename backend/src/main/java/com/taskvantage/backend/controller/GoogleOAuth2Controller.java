@@ -1,6 +1,8 @@
 package com.taskvantage.backend.controller;
 
+import com.taskvantage.backend.model.CalendarBackfill;
 import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.service.CalendarBackfillService;
 import com.taskvantage.backend.service.CustomUserDetailsService;
 import com.taskvantage.backend.service.GoogleCalendarService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -24,6 +27,9 @@ public class GoogleOAuth2Controller {
     @Autowired
     private GoogleCalendarService googleCalendarService;
 
+    @Autowired
+    private CalendarBackfillService calendarBackfillService;
+
     @GetMapping("/oauth2/google/status")
     public ResponseEntity<?> checkGoogleConnectionStatus(HttpServletRequest request) {
         logger.debug("Checking Google connection status");
@@ -86,6 +92,7 @@ public class GoogleOAuth2Controller {
             user.setGoogleRefreshToken(null);
             user.setGoogleEmail(null);
             user.setTaskSyncEnabled(false);
+            user.setGoogleCalendarSyncToken(null);
 
             userDetailsService.saveUser(user);
 
@@ -155,17 +162,52 @@ public class GoogleOAuth2Controller {
                 ));
             }
 
+            boolean wasEnabled = user.isTaskSyncEnabled();
             user.setTaskSyncEnabled(enabled);
             userDetailsService.saveUser(user);
 
-            return ResponseEntity.ok(Map.of(
-                    "message", "Task sync settings updated successfully",
-                    "enabled", enabled
-            ));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", "Task sync settings updated successfully");
+            response.put("enabled", enabled);
+            if (enabled && !wasEnabled) {
+                // Existing scheduled tasks are pushed to Google in the background
+                response.put("backfill", toBackfillResponse(calendarBackfillService.requestBackfill(user.getId())));
+            }
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error updating task sync settings", e);
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to update task sync settings"));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/oauth2/google/sync-backfill")
+    public ResponseEntity<?> getSyncBackfillProgress(HttpServletRequest request) {
+        String userId = request.getHeader("X-User-Id");
+        if (userId == null) {
+            logger.error("X-User-Id header is missing");
+            return ResponseEntity.badRequest().body(Map.of("error", "User ID is required"));
+        }
+
+        try {
+            return calendarBackfillService.getProgress(Long.parseLong(userId))
+                    .<ResponseEntity<?>>map(backfill -> ResponseEntity.ok(toBackfillResponse(backfill)))
+                    .orElseGet(() -> ResponseEntity.ok(Map.of("status", "NONE")));
+        } catch (Exception e) {
+            logger.error("Error checking calendar backfill progress", e);
+            return ResponseEntity.internalServerError().body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    private Map<String, Object> toBackfillResponse(CalendarBackfill backfill) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", backfill.getStatus().name());
+        response.put("totalTasks", backfill.getTotalTasks());
+        response.put("syncedTasks", backfill.getSyncedTasks());
+        response.put("failedTasks", backfill.getFailedTasks());
+        response.put("startedAt", backfill.getStartedAt());
+        response.put("completedAt", backfill.getCompletedAt());
+        response.put("lastError", backfill.getLastError());
+        return response;
+    }
+}
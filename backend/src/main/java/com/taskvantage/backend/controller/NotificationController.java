@@ -0,0 +1,50 @@
+package com.taskvantage.backend.controller;
+
+import com.taskvantage.backend.Security.AuthorizationUtil;
+import com.taskvantage.backend.service.FirebaseNotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final FirebaseNotificationService firebaseNotificationService;
+    private final AuthorizationUtil authorizationUtil;
+
+    @Autowired
+    public NotificationController(FirebaseNotificationService firebaseNotificationService,
+                                  AuthorizationUtil authorizationUtil) {
+        this.firebaseNotificationService = firebaseNotificationService;
+        this.authorizationUtil = authorizationUtil;
+    }
+
+    /**
+     * Push delivery queue depth, outcome counters and latency (admin only).
+     * GET /api/notifications/delivery-stats
+     */
+    @GetMapping("/delivery-stats")
+    public ResponseEntity<Map<String, Object>> getDeliveryStats(
+            @RequestHeader("Authorization") String authorizationHeader) {
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateAdminAccess(authorizationHeader);
+        if (authError != null) {
+            return authError;
+        }
+
+        FirebaseNotificationService.DeliveryStats stats = firebaseNotificationService.getDeliveryStats();
+        Map<String, Object> response = new HashMap<>();
+        response.put("queueDepth", stats.queueDepth());
+        response.put("inFlightBatches", stats.inFlightBatches());
+        response.put("sent", stats.sent());
+        response.put("failed", stats.failed());
+        response.put("retried", stats.retried());
+        response.put("invalidTokens", stats.invalidTokens());
+        response.put("averageLatencyMs", stats.averageLatencyMs());
+        response.put("maxLatencyMs", stats.maxLatencyMs());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,17 +1,35 @@
 package com.taskvantage.backend.controller;
+import com.taskvantage.backend.dto.BulkTaskRequest;
+import com.taskvantage.backend.dto.BulkTaskResult;
 import com.taskvantage.backend.dto.SimilarTaskDTO;
+import com.taskvantage.backend.dto.TaskDetail;
+import com.taskvantage.backend.dto.TaskImportResult;
 import com.taskvantage.backend.dto.TaskSummary;
 import com.taskvantage.backend.model.Task;
 import com.taskvantage.backend.service.TaskService;
 import com.taskvantage.backend.service.CustomUserDetailsService;
+import com.taskvantage.backend.service.TaskExportService;
+import com.taskvantage.backend.service.TaskImportService;
 import com.taskvantage.backend.Security.AuthorizationUtil;
-import com.taskvantage.backend.Security.JwtUtil;
+import com.taskvantage.backend.Security.VerifiedJwt;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.ZoneOffset;
 import java.util.HashMap;
@@ -19,27 +37,28 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.SignatureException;
-import io.jsonwebtoken.MalformedJwtException;
-
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
 
     private final TaskService taskService;
-    private final JwtUtil jwtUtil;
     private final CustomUserDetailsService customUserDetailsService;
     private final AuthorizationUtil authorizationUtil;
+    private final TaskImportService taskImportService;
+    private final TaskExportService taskExportService;
 
     @Autowired
-    public TaskController(TaskService taskService, JwtUtil jwtUtil, CustomUserDetailsService customUserDetailsService, AuthorizationUtil authorizationUtil) {
+    public TaskController(TaskService taskService, CustomUserDetailsService customUserDetailsService,
+                          AuthorizationUtil authorizationUtil, TaskImportService taskImportService,
+                          TaskExportService taskExportService) {
         this.taskService = taskService;
-        this.jwtUtil = jwtUtil;
         this.customUserDetailsService = customUserDetailsService;
         this.authorizationUtil = authorizationUtil;
+        this.taskImportService = taskImportService;
+        this.taskExportService = taskExportService;
     }
 
     @PostMapping
@@ -81,10 +100,41 @@ public class TaskController {
         logger.info("Task created successfully with due date: {} and scheduled start: {}",
                 createdTask.getDueDate(), createdTask.getScheduledStart());
 
-        response.put("task", createdTask);
+        response.put("task", TaskDetail.from(createdTask));
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Apply many create/complete/move/delete operations in one transaction.
+     * POST /api/tasks/bulk
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> applyBulkOperations(
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestBody BulkTaskRequest request) {
+        Map<String, Object> response = new HashMap<>();
+
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateUserAccess(authorizationHeader, request.getUserId());
+        if (authError != null) {
+            return authError;
+        }
+
+        if (request.getOperations() == null || request.getOperations().isEmpty()) {
+            response.put("message", "At least one operation is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            BulkTaskResult result = taskService.applyBulkOperations(request.getUserId(), request.getOperations());
+            response.put("message", "Bulk operations applied successfully");
+            response.put("result", result);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getTaskById(
             @RequestHeader("Authorization") String authorizationHeader,
@@ -93,8 +143,8 @@ public class TaskController {
 
         logger.debug("Fetching task with ID: {}", id);
 
-        // Fetch the task by ID
-        Optional<Task> taskOptional = taskService.getTaskById(id);
+        // Fetch the task and its collections as a read model
+        Optional<TaskDetail> taskOptional = taskService.getTaskDetail(id);
 
         // Check if the task exists
         if (taskOptional.isEmpty()) {
@@ -103,7 +153,7 @@ public class TaskController {
             return ResponseEntity.status(404).body(response);
         }
 
-        Task task = taskOptional.get();
+        TaskDetail task = taskOptional.get();
 
         // Validate that the authenticated user owns this task
         ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateResourceOwnership(authorizationHeader, task.getUserId());
@@ -177,14 +227,12 @@ public class TaskController {
         }
 
         // Update the task with the new start date and status
-        task.setStartDate(updatedTask.getStartDate() != null ? updatedTask.getStartDate().withZoneSameInstant(ZoneOffset.UTC) : ZonedDateTime.now(ZoneOffset.UTC));
-        task.setStatus("In Progress");
-        task.setLastModifiedDate(ZonedDateTime.now(ZoneOffset.UTC));
-
-        // Save the updated task
-        taskService.updateTask(task);
+        ZonedDateTime startDate = updatedTask.getStartDate() != null
+                ? updatedTask.getStartDate().withZoneSameInstant(ZoneOffset.UTC)
+                : ZonedDateTime.now(ZoneOffset.UTC);
+        taskService.startTask(id, startDate);
         response.put("message", "Task started successfully");
-        response.put("task", task);
+        response.put("task", taskService.getTaskDetail(id).orElse(null));
         return ResponseEntity.ok(response);
     }
 
@@ -236,9 +284,9 @@ public class TaskController {
 
         Long groupId = groupRequest.get("groupId");
         try {
-            Task updatedTask = taskService.updateTaskGroup(id, groupId);
+            taskService.updateTaskGroup(id, groupId);
             response.put("message", "Task group updated successfully");
-            response.put("task", updatedTask);
+            response.put("task", taskService.getTaskDetail(id).orElse(null));
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             response.put("message", e.getMessage());
@@ -283,7 +331,7 @@ public class TaskController {
             return ResponseEntity.notFound().build();
         }
 
-        response.put("task", updatedTask);
+        response.put("task", TaskDetail.from(updatedTask));
         return ResponseEntity.ok(response);
     }
 
@@ -312,32 +360,15 @@ public class TaskController {
 
     @PostMapping("/{userId}/update-token")
     public ResponseEntity<Map<String, Object>> updateFcmToken(
-            @RequestHeader("Authorization") String authorizationHeader,
+            VerifiedJwt jwt,
             @PathVariable Long userId,
             @RequestBody Map<String, String> tokenRequest) {
 
-        if (!isValidAuthorizationHeader(authorizationHeader)) {
+        if (jwt == null) {
             return createErrorResponse("Unauthorized: Invalid or missing Authorization header", 401);
         }
 
-        String jwtToken = authorizationHeader.substring(7);
-        String username;
-        Long tokenUserId;
-        try {
-            Map<String, Object> tokenData = parseJwtToken(jwtToken);
-            username = (String) tokenData.get("username");
-            tokenUserId = (Long) tokenData.get("userId");
-        } catch (ExpiredJwtException e) {
-            return createErrorResponse("Forbidden: JWT token expired", 403);
-        } catch (SignatureException e) {
-            return createErrorResponse("Forbidden: JWT signature does not match", 403);
-        } catch (MalformedJwtException e) {
-            return createErrorResponse("Forbidden: JWT token is malformed", 403);
-        } catch (Exception e) {
-            return createErrorResponse("Forbidden: Invalid JWT token", 403);
-        }
-
-        if (!userId.equals(tokenUserId)) {
+        if (!userId.equals(jwt.userId())) {
             return createErrorResponse("Forbidden: User ID mismatch", 403);
         }
 
@@ -347,32 +378,18 @@ public class TaskController {
         }
 
         // Update FCM token
-        customUserDetailsService.updateUserToken(username, fcmToken);
+        customUserDetailsService.updateUserToken(jwt.username(), fcmToken);
         Map<String, Object> response = new HashMap<>();
         response.put("message", "FCM Token updated successfully");
         return ResponseEntity.ok(response);
     }
 
-    private boolean isValidAuthorizationHeader(String authorizationHeader) {
-        return authorizationHeader != null && authorizationHeader.startsWith("Bearer ");
-    }
-
     private ResponseEntity<Map<String, Object>> createErrorResponse(String message, int statusCode) {
         Map<String, Object> response = new HashMap<>();
         response.put("message", message);
         return ResponseEntity.status(statusCode).body(response);
     }
 
-    private Map<String, Object> parseJwtToken(String jwtToken) throws ExpiredJwtException, SignatureException, MalformedJwtException {
-        Map<String, Object> tokenData = new HashMap<>();
-        String username = jwtUtil.getUsernameFromToken(jwtToken);  // Assuming `jwtUtil` has a method for this
-        Long userId = jwtUtil.getUserIdFromToken(jwtToken);        // Assuming `jwtUtil` has a method for this
-
-        tokenData.put("username", username);
-        tokenData.put("userId", userId);
-        return tokenData;
-    }
-
     /**
      * Find similar tasks based on embedding similarity.
      * GET /api/tasks/{taskId}/similar?userId={userId}&limit={limit}
@@ -411,6 +428,91 @@ public class TaskController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Stream-import tasks from an uploaded CSV or NDJSON file.
+     * POST /api/tasks/user/{userId}/import?format=csv|ndjson (multipart field "file")
+     */
+    @PostMapping("/user/{userId}/import")
+    public ResponseEntity<Map<String, Object>> importTasks(
+            @RequestHeader("Authorization") String authorizationHeader,
+            @PathVariable Long userId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        Map<String, Object> response = new HashMap<>();
+
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateUserAccess(authorizationHeader, userId);
+        if (authError != null) {
+            return authError;
+        }
+
+        if (file.isEmpty()) {
+            response.put("message", "Import file is empty");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        TaskImportService.Format importFormat;
+        try {
+            importFormat = TaskImportService.Format.resolve(format, file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            response.put("message", "Unsupported import format: " + format);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            TaskImportResult result = taskImportService.importTasks(reader, importFormat, userId);
+            response.put("message", "Import finished");
+            response.put("result", result);
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            logger.error("Failed to read import file for user {}: {}", userId, e.getMessage());
+            response.put("message", "Failed to read import file");
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Stream-export all tasks of a user as CSV or NDJSON, optionally gzip-compressed.
+     * GET /api/tasks/user/{userId}/export?format=csv|ndjson&gzip=true
+     * The body is written from a database cursor on an async request thread, so nothing is buffered in full.
+     */
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestHeader("Authorization") String authorizationHeader,
+            @PathVariable Long userId,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        // A streaming endpoint cannot carry the usual JSON error map, so only the status is propagated
+        ResponseEntity<Map<String, Object>> authError = authorizationUtil.validateUserAccess(authorizationHeader, userId);
+        if (authError != null) {
+            return ResponseEntity.status(authError.getStatusCode()).build();
+        }
+
+        TaskImportService.Format exportFormat;
+        try {
+            exportFormat = TaskImportService.Format.resolve(format, null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean ndjson = exportFormat == TaskImportService.Format.NDJSON;
+        String filename = "tasks-" + userId + (ndjson ? ".ndjson" : ".csv") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : (ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv"));
+
+        // Large exports outlast the default async timeout; the longer limit applies to this request only
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(EXPORT_TIMEOUT.toMillis());
+        }
+        StreamingResponseBody body = outputStream -> taskExportService.exportTasks(userId, exportFormat, gzip, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
     /**
      * Backfill embeddings for all tasks of a specific user.
      * POST /api/tasks/user/{userId}/backfill-embeddings?force=true
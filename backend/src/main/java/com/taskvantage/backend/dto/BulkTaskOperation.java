@@ -0,0 +1,60 @@
+package com.taskvantage.backend.dto;
+
+import com.taskvantage.backend.model.Task;
+
+/**
+ * A single mutation inside a bulk task request.
+ * CREATE uses {@code task}; COMPLETE and DELETE use {@code taskId}; MOVE uses {@code taskId} and {@code groupId}.
+ */
+public class BulkTaskOperation {
+
+    public enum Type {
+        CREATE, COMPLETE, MOVE, DELETE
+    }
+
+    private Type type;
+    private Long taskId;
+    private Long groupId;
+    private Task task;
+
+    public BulkTaskOperation() {}
+
+    public BulkTaskOperation(Type type, Long taskId, Long groupId, Task task) {
+        this.type = type;
+        this.taskId = taskId;
+        this.groupId = groupId;
+        this.task = task;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void setTask(Task task) {
+        this.task = task;
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskvantage.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request body for POST /api/tasks/bulk. All operations are applied for {@code userId} in one transaction.
+ */
+public class BulkTaskRequest {
+    private Long userId;
+    private List<BulkTaskOperation> operations = new ArrayList<>();
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public List<BulkTaskOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BulkTaskOperation> operations) {
+        this.operations = operations;
+    }
+}
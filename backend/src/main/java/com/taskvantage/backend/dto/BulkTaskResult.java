@@ -0,0 +1,46 @@
+package com.taskvantage.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk task request. Counts only include tasks owned by the requesting user.
+ */
+public class BulkTaskResult {
+    private List<TaskDetail> created = new ArrayList<>();
+    private int completed;
+    private int moved;
+    private int deleted;
+
+    public List<TaskDetail> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<TaskDetail> created) {
+        this.created = created;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    public int getMoved() {
+        return moved;
+    }
+
+    public void setMoved(int moved) {
+        this.moved = moved;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+}
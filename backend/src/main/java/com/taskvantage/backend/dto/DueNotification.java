@@ -0,0 +1,70 @@
+package com.taskvantage.backend.dto;
+
+import java.time.ZonedDateTime;
+
+/**
+ * One reminder that is due: the task joined with the owner's FCM token. {@code remindAt} is set for the task's
+ * own reminders and null for the standard reminder ahead of the scheduled start.
+ */
+public class DueNotification {
+
+    private final Long taskId;
+    private final Long userId;
+    private final String username;
+    private final String token;
+    private final String title;
+    private final ZonedDateTime scheduledStart;
+    private final ZonedDateTime remindAt;
+
+    public DueNotification(Long taskId, Long userId, String username, String token, String title,
+                           ZonedDateTime scheduledStart) {
+        this(taskId, userId, username, token, title, scheduledStart, null);
+    }
+
+    public DueNotification(Long taskId, Long userId, String username, String token, String title,
+                           ZonedDateTime scheduledStart, ZonedDateTime remindAt) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.username = username;
+        this.token = token;
+        this.title = title;
+        this.scheduledStart = scheduledStart;
+        this.remindAt = remindAt;
+    }
+
+    public DueNotification withRemindAt(ZonedDateTime remindAt) {
+        return new DueNotification(taskId, userId, username, token, title, scheduledStart, remindAt);
+    }
+
+    public boolean isStartReminder() {
+        return remindAt == null;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public ZonedDateTime getScheduledStart() {
+        return scheduledStart;
+    }
+
+    public ZonedDateTime getRemindAt() {
+        return remindAt;
+    }
+}
@@ -1,28 +1,27 @@
 package com.taskvantage.backend.dto;
 
-import com.taskvantage.backend.model.Task;
-
 /**
- * DTO for returning similar tasks with their similarity scores.
+ * DTO for returning similar tasks with their similarity scores. The task is a {@link TaskDetail}, built while
+ * its collections are loaded, so serialising the response never touches the persistence context.
  */
 public class SimilarTaskDTO {
-    private Task task;
+    private TaskDetail task;
     private double similarityScore;
     private String reason;
 
     public SimilarTaskDTO() {}
 
-    public SimilarTaskDTO(Task task, double similarityScore, String reason) {
+    public SimilarTaskDTO(TaskDetail task, double similarityScore, String reason) {
         this.task = task;
         this.similarityScore = similarityScore;
         this.reason = reason;
     }
 
-    public Task getTask() {
+    public TaskDetail getTask() {
         return task;
     }
 
-    public void setTask(Task task) {
+    public void setTask(TaskDetail task) {
         this.task = task;
     }
 
@@ -0,0 +1,219 @@
+package com.taskvantage.backend.dto;
+
+import com.taskvantage.backend.model.Comment;
+import com.taskvantage.backend.model.Subtask;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for a single task as returned by the API. Mirrors the JSON of the Task entity but
+ * leaves out internal fields (embedding, status code) and flattens subtasks and comments, so
+ * serialisation never touches the persistence context.
+ * Build it with {@link #from(Task)} while the task's collections are loaded (see TaskService#getTaskDetail).
+ */
+public class TaskDetail {
+
+    public record SubtaskDetail(Long id, String title, String description, String status) {}
+
+    public record CommentDetail(Long id, String author, String content, LocalDateTime createdAt) {}
+
+    private final Long id;
+    private final Long userId;
+    private final Long groupId;
+    private final String title;
+    private final String description;
+    private final TaskPriority priority;
+    private final String status;
+    private final ZonedDateTime dueDate;
+    private final ZonedDateTime creationDate;
+    private final ZonedDateTime lastModifiedDate;
+    private final ZonedDateTime startDate;
+    private final ZonedDateTime scheduledStart;
+    private final ZonedDateTime completionDateTime;
+    private final Duration duration;
+    private final List<String> tags;
+    private final List<SubtaskDetail> subtasks;
+    private final List<String> attachments;
+    private final List<CommentDetail> comments;
+    private final List<ZonedDateTime> reminders;
+    private final boolean recurring;
+    private final boolean notifyBeforeStart;
+    private final Boolean notificationSent;
+    private final String googleCalendarEventId;
+    private final Boolean isAllDay;
+    private final Float recommendationScore;
+    private final String recommendedBy;
+    private final Boolean recommended;
+    private final ZonedDateTime lastRecommendedOn;
+
+    private TaskDetail(Task task) {
+        this.id = task.getId();
+        this.userId = task.getUserId();
+        this.groupId = task.getGroupId();
+        this.title = task.getTitle();
+        this.description = task.getDescription();
+        this.priority = task.getPriority();
+        this.status = task.getStatus();
+        this.dueDate = task.getDueDate();
+        this.creationDate = task.getCreationDate();
+        this.lastModifiedDate = task.getLastModifiedDate();
+        this.startDate = task.getStartDate();
+        this.scheduledStart = task.getScheduledStart();
+        this.completionDateTime = task.getCompletionDateTime();
+        this.duration = task.getDuration();
+        this.tags = copy(task.getTags());
+        this.subtasks = task.getSubtasks() == null ? new ArrayList<>() : task.getSubtasks().stream()
+                .map(TaskDetail::toSubtaskDetail)
+                .toList();
+        this.attachments = copy(task.getAttachments());
+        this.comments = task.getComments() == null ? new ArrayList<>() : task.getComments().stream()
+                .map(TaskDetail::toCommentDetail)
+                .toList();
+        this.reminders = copy(task.getReminders());
+        this.recurring = task.isRecurring();
+        this.notifyBeforeStart = task.isNotifyBeforeStart();
+        this.notificationSent = task.getNotificationSent();
+        this.googleCalendarEventId = task.getGoogleCalendarEventId();
+        this.isAllDay = task.isAllDay();
+        this.recommendationScore = task.getRecommendationScore();
+        this.recommendedBy = task.getRecommendedBy();
+        this.recommended = task.getRecommended();
+        this.lastRecommendedOn = task.getLastRecommendedOn();
+    }
+
+    public static TaskDetail from(Task task) {
+        return new TaskDetail(task);
+    }
+
+    private static SubtaskDetail toSubtaskDetail(Subtask subtask) {
+        return new SubtaskDetail(subtask.getId(), subtask.getTitle(), subtask.getDescription(), subtask.getStatus());
+    }
+
+    private static CommentDetail toCommentDetail(Comment comment) {
+        return new CommentDetail(comment.getId(), comment.getAuthor(), comment.getContent(), comment.getCreatedAt());
+    }
+
+    // Copies Hibernate collection wrappers into plain lists so nothing lazy escapes the transaction
+    private static <T> List<T> copy(List<T> values) {
+        return values == null ? null : new ArrayList<>(values);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public ZonedDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public ZonedDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public ZonedDateTime getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public ZonedDateTime getStartDate() {
+        return startDate;
+    }
+
+    public ZonedDateTime getScheduledStart() {
+        return scheduledStart;
+    }
+
+    public ZonedDateTime getCompletionDateTime() {
+        return completionDateTime;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<SubtaskDetail> getSubtasks() {
+        return subtasks;
+    }
+
+    public List<String> getAttachments() {
+        return attachments;
+    }
+
+    public List<CommentDetail> getComments() {
+        return comments;
+    }
+
+    public List<ZonedDateTime> getReminders() {
+        return reminders;
+    }
+
+    public boolean isRecurring() {
+        return recurring;
+    }
+
+    public boolean isNotifyBeforeStart() {
+        return notifyBeforeStart;
+    }
+
+    public Boolean getNotificationSent() {
+        return notificationSent;
+    }
+
+    public String getGoogleCalendarEventId() {
+        return googleCalendarEventId;
+    }
+
+    public Boolean getIsAllDay() {
+        return isAllDay;
+    }
+
+    public Float getRecommendationScore() {
+        return recommendationScore;
+    }
+
+    public String getRecommendedBy() {
+        return recommendedBy;
+    }
+
+    public Boolean getRecommended() {
+        return recommended;
+    }
+
+    public ZonedDateTime getLastRecommendedOn() {
+        return lastRecommendedOn;
+    }
+}
@@ -0,0 +1,36 @@
+package com.taskvantage.backend.dto;
+
+/**
+ * The columns the embedding features read from a task: enough to compare stored embeddings or to generate a
+ * missing one, without loading the entity and its collections.
+ */
+public class TaskEmbedding {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String embedding;
+
+    public TaskEmbedding(Long id, String title, String description, String embedding) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.embedding = embedding;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getEmbedding() {
+        return embedding;
+    }
+}
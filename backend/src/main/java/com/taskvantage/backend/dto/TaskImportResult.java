@@ -0,0 +1,63 @@
+package com.taskvantage.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a streamed task import. Only the first rejected rows are kept in {@code errors}
+ * so the report stays bounded; {@code failed} counts all of them.
+ */
+public class TaskImportResult {
+
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private long imported;
+    private long failed;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void addImported(long count) {
+        this.imported += count;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void addError(long row, String message, int maxReportedErrors) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskvantage.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One call to the embedding service, from request to parsed vector.
+ */
+@Name("taskvantage.EmbeddingRequest")
+@Label("Embedding Request")
+@Category({"TaskVantage", "Embeddings"})
+@Description("A call to the embedding service")
+public class EmbeddingRequestEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Text Length")
+    public int textLength;
+
+    @Label("HTTP Status")
+    @Description("Status returned by the embedding service; 0 when no response was received")
+    public int httpStatus;
+
+    @Label("Dimensions")
+    public int dimensions;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,33 @@
+package com.taskvantage.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One run of personalised recommendations for a user.
+ */
+@Name("taskvantage.Recommendation")
+@Label("Recommendation")
+@Category({"TaskVantage", "Recommendations"})
+@Description("Scoring and ranking recommendation candidates for a user")
+public class RecommendationEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Recent Tasks")
+    public int recentTasks;
+
+    @Label("Candidates")
+    public int candidates;
+
+    @Label("Results")
+    public int results;
+
+    @Label("Used Defaults")
+    @Description("Fell back to the popular-tasks recommendations")
+    public boolean usedDefaults;
+}
@@ -0,0 +1,32 @@
+package com.taskvantage.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One reminder wheel tick that had reminders due, until their pushes completed.
+ */
+@Name("taskvantage.ReminderCycle")
+@Label("Reminder Cycle")
+@Category({"TaskVantage", "Notifications"})
+@Description("Due reminders loaded, claimed and pushed for one reminder wheel tick")
+public class ReminderCycleEvent extends Event {
+
+    @Label("Due")
+    @Description("Reminders the wheel fired in this tick")
+    public int due;
+
+    @Label("Notifications")
+    @Description("Notifications built from them, including digest reminders pulled forward")
+    public int notifications;
+
+    @Label("Claimed")
+    @Description("Notifications this node won and sent")
+    public int claimed;
+
+    @Label("Failed")
+    public int failed;
+}
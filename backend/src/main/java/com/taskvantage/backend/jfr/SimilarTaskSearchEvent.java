@@ -0,0 +1,37 @@
+package com.taskvantage.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One search for tasks similar to a given task.
+ */
+@Name("taskvantage.SimilarTaskSearch")
+@Label("Similar Task Search")
+@Category({"TaskVantage", "Embeddings"})
+@Description("A similarity search over a user's task embeddings")
+public class SimilarTaskSearchEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Task Id")
+    public long taskId;
+
+    @Label("Candidates")
+    @Description("Tasks of the user considered for comparison")
+    public int candidates;
+
+    @Label("Compared")
+    @Description("Candidates that had an embedding and were scored")
+    public int compared;
+
+    @Label("Dimensions")
+    public int dimensions;
+
+    @Label("Results")
+    public int results;
+}
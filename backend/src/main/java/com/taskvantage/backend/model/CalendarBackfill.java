@@ -0,0 +1,172 @@
+package com.taskvantage.backend.model;
+
+import jakarta.persistence.*;
+import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Progress of pushing a user's existing scheduled tasks to Google Calendar after task sync is switched on.
+ * One row per user, advanced page by page by CalendarBackfillService.
+ */
+@Entity
+@Table(name = "calendar_backfill", indexes = {
+    @Index(name = "idx_calendar_backfill_status", columnList = "status")
+})
+public class CalendarBackfill {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isActive() {
+            return this == PENDING || this == RUNNING;
+        }
+    }
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status = Status.PENDING;
+
+    @Column(name = "total_tasks", nullable = false)
+    private long totalTasks;
+
+    @Column(name = "synced_tasks", nullable = false)
+    private long syncedTasks;
+
+    @Column(name = "failed_tasks", nullable = false)
+    private long failedTasks;
+
+    // Keyset position: tasks are backfilled in id order, so a task that failed permanently is not picked up again
+    @Column(name = "last_task_id", nullable = false)
+    private long lastTaskId;
+
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private ZonedDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private ZonedDateTime completedAt;
+
+    // Lease of the worker currently advancing this backfill, written only by the repository claim queries
+    @Column(name = "claimed_by", length = 64, insertable = false, updatable = false)
+    private String claimedBy;
+
+    @Column(name = "claim_expires", insertable = false, updatable = false)
+    private ZonedDateTime claimExpires;
+
+    public CalendarBackfill() {}
+
+    public CalendarBackfill(Long userId, long totalTasks) {
+        this.userId = userId;
+        this.totalTasks = totalTasks;
+        this.startedAt = ZonedDateTime.now(ZoneOffset.UTC);
+        this.updatedAt = this.startedAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getTotalTasks() {
+        return totalTasks;
+    }
+
+    public void setTotalTasks(long totalTasks) {
+        this.totalTasks = totalTasks;
+    }
+
+    public long getSyncedTasks() {
+        return syncedTasks;
+    }
+
+    public void setSyncedTasks(long syncedTasks) {
+        this.syncedTasks = syncedTasks;
+    }
+
+    public long getFailedTasks() {
+        return failedTasks;
+    }
+
+    public void setFailedTasks(long failedTasks) {
+        this.failedTasks = failedTasks;
+    }
+
+    public long getLastTaskId() {
+        return lastTaskId;
+    }
+
+    public void setLastTaskId(long lastTaskId) {
+        this.lastTaskId = lastTaskId;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public ZonedDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(ZonedDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(ZonedDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public ZonedDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(ZonedDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public ZonedDateTime getClaimExpires() {
+        return claimExpires;
+    }
+}
@@ -0,0 +1,149 @@
+package com.taskvantage.backend.model;
+
+import jakarta.persistence.*;
+import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Pending Google Calendar change for a task (transactional outbox).
+ * Rows are written in the same transaction as the task change and drained by CalendarSyncWorker.
+ */
+@Entity
+@Table(name = "calendar_sync_outbox", indexes = {
+    @Index(name = "idx_calendar_sync_next_attempt", columnList = "next_attempt_at, id"),
+    @Index(name = "idx_calendar_sync_user_task", columnList = "user_id, task_id")
+})
+public class CalendarSyncOperation {
+
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Type operation;
+
+    // Only set for DELETE: the task row (and with it the event id) is gone by the time the worker runs
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private ZonedDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+
+    // Lease of the worker currently sending this row, written only by the repository claim queries
+    @Column(name = "claimed_by", length = 64, insertable = false, updatable = false)
+    private String claimedBy;
+
+    @Column(name = "claim_expires", insertable = false, updatable = false)
+    private ZonedDateTime claimExpires;
+
+    public CalendarSyncOperation() {}
+
+    public CalendarSyncOperation(Long userId, Long taskId, Type operation, String eventId) {
+        this.userId = userId;
+        this.taskId = taskId;
+        this.operation = operation;
+        this.eventId = eventId;
+        this.createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Type getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Type operation) {
+        this.operation = operation;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public ZonedDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(ZonedDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(ZonedDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public ZonedDateTime getClaimExpires() {
+        return claimExpires;
+    }
+}
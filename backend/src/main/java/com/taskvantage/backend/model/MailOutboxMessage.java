@@ -0,0 +1,142 @@
+package com.taskvantage.backend.model;
+
+import jakarta.persistence.*;
+import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Outgoing email waiting to be handed to the SMTP server.
+ * Rows are written by EmailService and drained by MailOutboxWorker, so callers never wait on SMTP.
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+    @Index(name = "idx_mail_outbox_next_attempt", columnList = "next_attempt_at, id")
+})
+public class MailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private ZonedDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+
+    // Lease of the worker currently sending this row, written only by the repository claim queries
+    @Column(name = "claimed_by", length = 64, insertable = false, updatable = false)
+    private String claimedBy;
+
+    @Column(name = "claim_expires", insertable = false, updatable = false)
+    private ZonedDateTime claimExpires;
+
+    public MailOutboxMessage() {}
+
+    public MailOutboxMessage(String recipient, String subject, String body, boolean html) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.html = html;
+        this.createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    public void setHtml(boolean html) {
+        this.html = html;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public ZonedDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(ZonedDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(ZonedDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public ZonedDateTime getClaimExpires() {
+        return claimExpires;
+    }
+}
@@ -0,0 +1,70 @@
+package com.taskvantage.backend.model;
+
+import jakarta.persistence.*;
+import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * An access or refresh token that was revoked before it expired (e.g. on logout), identified by its jti claim.
+ * Rows are only needed until the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private ZonedDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private ZonedDateTime revokedAt = ZonedDateTime.now(ZoneOffset.UTC);
+
+    public RevokedToken() {}
+
+    public RevokedToken(String tokenId, Long userId, ZonedDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = ZonedDateTime.now(ZoneOffset.UTC);
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(ZonedDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public ZonedDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(ZonedDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.taskvantage.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
@@ -57,7 +58,8 @@ public class Subtask {
         this.status = status;
     }
 
-    // Getter and setter for task
+    // Getter and setter for task (not serialised: it points back at the owning task)
+    @JsonIgnore
     public Task getTask() {
         return task;
     }
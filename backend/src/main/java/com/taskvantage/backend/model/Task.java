@@ -1,8 +1,11 @@
 package com.taskvantage.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
@@ -16,18 +19,28 @@ import java.util.Objects;
         name = "tasks",
         indexes = {
                 @Index(name = "idx_is_recommended", columnList = "is_recommended"),
-                @Index(name = "idx_recommendation_score", columnList = "recommendation_score")
+                @Index(name = "idx_recommendation_score", columnList = "recommendation_score"),
+                @Index(name = "idx_task_group_id", columnList = "group_id"),
+                // Composite indexes matched to the repository access paths (user first, then the range/sort column)
+                @Index(name = "idx_task_user_status", columnList = "user_id, status_code"),
+                @Index(name = "idx_task_user_notify_scheduled", columnList = "user_id, notification_sent, scheduled_start"),
+                @Index(name = "idx_task_user_modified", columnList = "user_id, last_modified_date"),
+                @Index(name = "idx_task_status_score", columnList = "status_code, recommendation_score"),
+                @Index(name = "idx_task_user_calendar_event", columnList = "user_id, google_calendar_event_id"),
+                @Index(name = "idx_task_notify_scheduled", columnList = "notification_sent, scheduled_start")
         }
 )
 public class Task {
 
     public static final String STATUS_COMPLETED = "Completed";
 
+    // Pooled sequence (a table-backed sequence on MySQL) instead of IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
     private Long userId;
 
     @Column(name = "group_id")
@@ -46,6 +59,11 @@ public class Task {
     @Column(nullable = false)
     private String status = "Pending";
 
+    // Normalised copy of status, kept in sync by setStatus so status predicates can use an index
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "status_code", nullable = false)
+    private TaskStatus statusCode = TaskStatus.PENDING;
+
     // Store date and time as ZonedDateTime (in UTC)
     @Column(name = "due_date")
     private ZonedDateTime dueDate;
@@ -86,8 +104,11 @@ public class Task {
     @JoinColumn(name = "task_id")
     private List<Comment> comments = new ArrayList<>();  // Initialize with an empty list
 
+    // Eager, so loaded for every task a query returns: one subselect for all of them instead of one batch per 50
     @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "task_reminders", joinColumns = @JoinColumn(name = "task_id"))
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "task_reminders", joinColumns = @JoinColumn(name = "task_id"),
+            indexes = @Index(name = "idx_task_reminders_reminder", columnList = "reminder"))
     @Column(name = "reminder")
     private List<ZonedDateTime> reminders;  // Store reminders as ZonedDateTime
 
@@ -98,7 +119,21 @@ public class Task {
     private boolean notifyBeforeStart;
 
     @Column(name = "notification_sent")
-    private Boolean notificationSent;
+    private Boolean notificationSent = false;
+
+    // Reminder delivery leases, written only by TaskRepository claim queries so entity saves never clobber them
+    @Column(name = "notification_claimed_by", length = 64, insertable = false, updatable = false)
+    private String notificationClaimedBy;
+
+    @Column(name = "notification_claim_expires", insertable = false, updatable = false)
+    private ZonedDateTime notificationClaimExpires;
+
+    // Latest per-task reminder claimed for delivery, and the node that claimed it
+    @Column(name = "last_reminder_at", insertable = false, updatable = false)
+    private ZonedDateTime lastReminderAt;
+
+    @Column(name = "last_reminder_claimed_by", length = 64, insertable = false, updatable = false)
+    private String lastReminderClaimedBy;
 
     @Column(name = "google_calendar_event_id")
     private String googleCalendarEventId;
@@ -244,10 +279,17 @@ public class Task {
 
     public void setStatus(String status) {
         this.status = status;
+        this.statusCode = TaskStatus.fromLabel(status);
+    }
+
+    @JsonIgnore
+    public TaskStatus getStatusCode() {
+        return statusCode;
     }
 
+    // Same mapping as the status_code column, so label checks and status_code queries agree on every row
     public static boolean isCompletedStatus(String status) {
-        return STATUS_COMPLETED.equalsIgnoreCase(status);
+        return TaskStatus.fromLabel(status) == TaskStatus.COMPLETED;
     }
 
     public ZonedDateTime getDueDate() {
@@ -383,9 +425,12 @@ public class Task {
     }
 
     public void setNotificationSent(Boolean notificationSent) {
-        this.notificationSent = notificationSent;
+        // Never persist NULL so "notification_sent = false" stays an index equality match
+        this.notificationSent = Boolean.TRUE.equals(notificationSent);
     }
 
+    // Internal similarity-search data: never serialised to clients
+    @JsonIgnore
     public String getEmbedding() {
         return embedding;
     }
@@ -0,0 +1,36 @@
+package com.taskvantage.backend.model;
+
+/**
+ * Normalised task status stored alongside the free-form status label.
+ * Persisted by ordinal (TINYINT), so new constants must only ever be appended.
+ */
+public enum TaskStatus {
+    PENDING("Pending"),
+    IN_PROGRESS("In Progress"),
+    COMPLETED(Task.STATUS_COMPLETED);
+
+    private final String label;
+
+    TaskStatus(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Maps a status label (case-insensitive, "Complete" accepted) to its normalised value
+    public static TaskStatus fromLabel(String label) {
+        if (label == null) {
+            return PENDING;
+        }
+        String normalized = label.trim();
+        if (COMPLETED.label.equalsIgnoreCase(normalized) || "Complete".equalsIgnoreCase(normalized)) {
+            return COMPLETED;
+        }
+        if (IN_PROGRESS.label.equalsIgnoreCase(normalized)) {
+            return IN_PROGRESS;
+        }
+        return PENDING;
+    }
+}
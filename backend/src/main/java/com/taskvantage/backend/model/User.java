@@ -104,6 +104,18 @@ public class User {
     @Column(nullable = true)
     private String googleRefreshToken;
 
+    // Google Calendar incremental sync token; null forces a full calendar sync on the next inbound pass
+    @Column(nullable = true, length = 1024)
+    private String googleCalendarSyncToken;
+
+    public String getGoogleCalendarSyncToken() {
+        return googleCalendarSyncToken;
+    }
+
+    public void setGoogleCalendarSyncToken(String googleCalendarSyncToken) {
+        this.googleCalendarSyncToken = googleCalendarSyncToken;
+    }
+
     // Outlook Calendar tokens
     @Column(nullable = true)
     private String outlookAccessToken;
@@ -0,0 +1,61 @@
+package com.taskvantage.backend.repository;
+
+import com.taskvantage.backend.model.CalendarBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CalendarBackfillRepository extends JpaRepository<CalendarBackfill, Long> {
+
+    // Leases the active backfills no other worker holds a live lease on; a worker renews its own leases, so a
+    // backfill stays on one instance (and under one rate limiter) for as long as that instance keeps polling
+    @Transactional
+    @Modifying
+    @Query("UPDATE CalendarBackfill b SET b.claimedBy = :workerId, b.claimExpires = :expires " +
+            "WHERE b.status IN :statuses " +
+            "AND (b.claimExpires IS NULL OR b.claimExpires < :now OR b.claimedBy = :workerId)")
+    int claimBackfills(@Param("statuses") Collection<CalendarBackfill.Status> statuses,
+                       @Param("workerId") String workerId, @Param("now") ZonedDateTime now,
+                       @Param("expires") ZonedDateTime expires);
+
+    @Query("SELECT b FROM CalendarBackfill b WHERE b.status IN :statuses AND b.claimedBy = :workerId " +
+            "AND b.claimExpires >= :now ORDER BY b.userId")
+    List<CalendarBackfill> findClaimedBackfills(@Param("statuses") Collection<CalendarBackfill.Status> statuses,
+                                                @Param("workerId") String workerId,
+                                                @Param("now") ZonedDateTime now);
+
+    // Writes the progress of one page; matches nothing once the lease is lost or the backfill was restarted
+    @Transactional
+    @Modifying
+    @Query("UPDATE CalendarBackfill b SET b.status = :status, b.syncedTasks = :syncedTasks, " +
+            "b.failedTasks = :failedTasks, b.lastTaskId = :lastTaskId, " +
+            "b.consecutiveFailures = :consecutiveFailures, b.lastError = :lastError, b.updatedAt = :updatedAt " +
+            "WHERE b.userId = :userId AND b.claimedBy = :workerId AND b.startedAt = :startedAt")
+    int updateProgress(@Param("userId") Long userId, @Param("workerId") String workerId,
+                       @Param("startedAt") ZonedDateTime startedAt, @Param("status") CalendarBackfill.Status status,
+                       @Param("syncedTasks") long syncedTasks, @Param("failedTasks") long failedTasks,
+                       @Param("lastTaskId") long lastTaskId, @Param("consecutiveFailures") int consecutiveFailures,
+                       @Param("lastError") String lastError, @Param("updatedAt") ZonedDateTime updatedAt);
+
+    // Records the outcome and releases the lease
+    @Transactional
+    @Modifying
+    @Query("UPDATE CalendarBackfill b SET b.status = :status, b.syncedTasks = :syncedTasks, " +
+            "b.failedTasks = :failedTasks, b.lastTaskId = :lastTaskId, " +
+            "b.consecutiveFailures = :consecutiveFailures, b.lastError = :lastError, b.updatedAt = :completedAt, " +
+            "b.completedAt = :completedAt, b.claimedBy = NULL, b.claimExpires = NULL " +
+            "WHERE b.userId = :userId AND b.claimedBy = :workerId AND b.startedAt = :startedAt")
+    int finishBackfill(@Param("userId") Long userId, @Param("workerId") String workerId,
+                       @Param("startedAt") ZonedDateTime startedAt, @Param("status") CalendarBackfill.Status status,
+                       @Param("syncedTasks") long syncedTasks, @Param("failedTasks") long failedTasks,
+                       @Param("lastTaskId") long lastTaskId, @Param("consecutiveFailures") int consecutiveFailures,
+                       @Param("lastError") String lastError, @Param("completedAt") ZonedDateTime completedAt);
+}
@@ -0,0 +1,54 @@
+package com.taskvantage.backend.repository;
+
+import com.taskvantage.backend.model.CalendarSyncOperation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CalendarSyncOperationRepository extends JpaRepository<CalendarSyncOperation, Long> {
+
+    // Due operations no other worker holds a live lease on, oldest first
+    @Query("SELECT o.id FROM CalendarSyncOperation o WHERE o.nextAttemptAt <= :now " +
+            "AND (o.claimExpires IS NULL OR o.claimExpires < :now) ORDER BY o.id")
+    List<Long> findClaimableOperationIds(@Param("now") ZonedDateTime now, Pageable pageable);
+
+    // Leases operations to one worker; rows another worker claimed since they were read are skipped
+    @Transactional
+    @Modifying
+    @Query("UPDATE CalendarSyncOperation o SET o.claimedBy = :workerId, o.claimExpires = :expires " +
+            "WHERE o.id IN :ids AND o.nextAttemptAt <= :now AND (o.claimExpires IS NULL OR o.claimExpires < :now)")
+    int claimOperations(@Param("ids") Collection<Long> ids, @Param("workerId") String workerId,
+                        @Param("now") ZonedDateTime now, @Param("expires") ZonedDateTime expires);
+
+    // The operations this worker won, oldest first, so per-task coalescing sees them in the order they were written
+    @Query("SELECT o FROM CalendarSyncOperation o WHERE o.id IN :ids AND o.claimedBy = :workerId " +
+            "AND o.claimExpires >= :now ORDER BY o.id")
+    List<CalendarSyncOperation> findClaimedOperations(@Param("ids") Collection<Long> ids,
+                                                      @Param("workerId") String workerId,
+                                                      @Param("now") ZonedDateTime now);
+
+    // Tasks with local changes still waiting to be pushed to Google
+    @Query("SELECT DISTINCT o.taskId FROM CalendarSyncOperation o WHERE o.userId = :userId AND o.taskId IN :taskIds")
+    List<Long> findTaskIdsWithPendingOperations(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CalendarSyncOperation o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CalendarSyncOperation o SET o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, " +
+            "o.lastError = :lastError, o.claimedBy = NULL, o.claimExpires = NULL WHERE o.id IN :ids")
+    int scheduleRetry(@Param("ids") Collection<Long> ids, @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") ZonedDateTime nextAttemptAt, @Param("lastError") String lastError);
+}
@@ -0,0 +1,48 @@
+package com.taskvantage.backend.repository;
+
+import com.taskvantage.backend.model.MailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    // Due messages no other worker holds a live lease on, oldest first
+    @Query("SELECT m.id FROM MailOutboxMessage m WHERE m.nextAttemptAt <= :now " +
+            "AND (m.claimExpires IS NULL OR m.claimExpires < :now) ORDER BY m.id")
+    List<Long> findClaimableMessageIds(@Param("now") ZonedDateTime now, Pageable pageable);
+
+    // Leases messages to one worker; rows another worker claimed since they were read are skipped
+    @Transactional
+    @Modifying
+    @Query("UPDATE MailOutboxMessage m SET m.claimedBy = :workerId, m.claimExpires = :expires " +
+            "WHERE m.id IN :ids AND m.nextAttemptAt <= :now AND (m.claimExpires IS NULL OR m.claimExpires < :now)")
+    int claimMessages(@Param("ids") Collection<Long> ids, @Param("workerId") String workerId,
+                      @Param("now") ZonedDateTime now, @Param("expires") ZonedDateTime expires);
+
+    @Query("SELECT m FROM MailOutboxMessage m WHERE m.id IN :ids AND m.claimedBy = :workerId " +
+            "AND m.claimExpires >= :now ORDER BY m.id")
+    List<MailOutboxMessage> findClaimedMessages(@Param("ids") Collection<Long> ids, @Param("workerId") String workerId,
+                                                @Param("now") ZonedDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MailOutboxMessage m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MailOutboxMessage m SET m.attempts = :attempts, m.nextAttemptAt = :nextAttemptAt, " +
+            "m.lastError = :lastError, m.claimedBy = NULL, m.claimExpires = NULL WHERE m.id IN :ids")
+    int scheduleRetry(@Param("ids") Collection<Long> ids, @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") ZonedDateTime nextAttemptAt, @Param("lastError") String lastError);
+}
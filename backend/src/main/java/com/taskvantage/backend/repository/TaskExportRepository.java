@@ -0,0 +1,15 @@
+package com.taskvantage.backend.repository;
+
+import com.taskvantage.backend.dto.TaskSummary;
+
+import java.util.stream.Stream;
+
+/**
+ * The task export query, kept apart from TaskRepository because its fetch size comes from configuration.
+ */
+public interface TaskExportRepository {
+
+    // Forward-only cursor for exports: rows are fetched as the stream is consumed and never collected into a list.
+    // Must be consumed inside a read-only transaction and closed by the caller.
+    Stream<TaskSummary> streamTaskSummariesByUserId(Long userId);
+}
@@ -0,0 +1,39 @@
+package com.taskvantage.backend.repository;
+
+import com.taskvantage.backend.dto.TaskSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+class TaskExportRepositoryImpl implements TaskExportRepository {
+
+    private static final String EXPORT_QUERY = "SELECT new com.taskvantage.backend.dto.TaskSummary(0, 0, 0, 0, " +
+            "t.id, t.userId, t.groupId, t.title, t.description, t.priority, t.status, " +
+            "t.dueDate, t.creationDate, t.lastModifiedDate, t.scheduledStart, t.completionDateTime, t.duration, SIZE(t.subtasks), " +
+            "null, null) " +
+            "FROM Task t WHERE t.userId = :userId ORDER BY t.lastModifiedDate";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Set on this statement only; see task.export.fetch-size in application.properties for the MySQL value
+    private final int fetchSize;
+
+    TaskExportRepositoryImpl(@Value("${task.export.fetch-size:500}") int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<TaskSummary> streamTaskSummariesByUserId(Long userId) {
+        return entityManager.createQuery(EXPORT_QUERY, TaskSummary.class)
+                .setParameter("userId", userId)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -1,8 +1,12 @@
 package com.taskvantage.backend.repository;
 
+import com.taskvantage.backend.dto.DueNotification;
+import com.taskvantage.backend.dto.TaskEmbedding;
 import com.taskvantage.backend.dto.TaskSummary;
 import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskStatus;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,10 +16,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskExportRepository {
+
+    // Open statuses as an IN-list on the normalised column, so the predicate is an index range rather than a "!="
+    String OPEN_STATUS_PREDICATE = "t.statusCode IN (com.taskvantage.backend.model.TaskStatus.PENDING, " +
+            "com.taskvantage.backend.model.TaskStatus.IN_PROGRESS)";
 
     @Query("SELECT new com.taskvantage.backend.dto.TaskSummary(0, 0, 0, 0, " +
             "t.id, t.userId, t.groupId, t.title, t.description, t.priority, t.status, " +
@@ -28,32 +38,200 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
             "t.id, t.userId, t.groupId, t.title, t.description, t.priority, t.status, " +
             "t.dueDate, t.creationDate, t.lastModifiedDate, t.scheduledStart, t.completionDateTime, t.duration, SIZE(t.subtasks), " +
             "null, null) " +
-            "FROM Task t WHERE t.userId = :userId AND t.status != 'Completed'")
+            "FROM Task t WHERE t.userId = :userId AND " + OPEN_STATUS_PREDICATE)
     List<TaskSummary> findNonCompletedTaskSummariesByUserId(@Param("userId") Long userId);
 
     @Modifying
-    @Query("UPDATE Task t SET t.status = :status WHERE t.userId = :userId AND t.id = :taskId")
-    void updateTaskStatus(@Param("status") String status, @Param("userId") Long userId, @Param("taskId") Long taskId);
+    @Query("UPDATE Task t SET t.status = :status, t.statusCode = :statusCode WHERE t.userId = :userId AND t.id = :taskId")
+    void updateTaskStatus(@Param("status") String status, @Param("statusCode") TaskStatus statusCode,
+                          @Param("userId") Long userId, @Param("taskId") Long taskId);
+
+    default void updateTaskStatus(String status, Long userId, Long taskId) {
+        updateTaskStatus(status, TaskStatus.fromLabel(status), userId, taskId);
+    }
 
     @Transactional
     @Modifying
-    @Query("UPDATE Task t SET t.completionDateTime = :completionDateTime, t.duration = :duration, t.status = 'Completed' WHERE t.id = :taskId")
+    @Query("UPDATE Task t SET t.completionDateTime = :completionDateTime, t.duration = :duration, " +
+            "t.status = 'Completed', t.statusCode = com.taskvantage.backend.model.TaskStatus.COMPLETED WHERE t.id = :taskId")
     void completeTask(@Param("taskId") Long taskId, @Param("completionDateTime") ZonedDateTime completionDateTime, @Param("duration") Duration duration);
 
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId " +
-            "AND t.scheduledStart >= :startTime " +
+    // Duration is set from the start date as a single completion through updateTask sets it
+    @Modifying
+    @Query("UPDATE Task t SET t.status = 'Completed', t.statusCode = com.taskvantage.backend.model.TaskStatus.COMPLETED, " +
+            "t.completionDateTime = :completedAt, t.lastModifiedDate = :completedAt, " +
+            "t.duration = CASE WHEN t.startDate IS NULL THEN t.duration ELSE (:completedAt - t.startDate) END " +
+            "WHERE t.userId = :userId AND t.id IN :taskIds")
+    int completeTasks(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds,
+                      @Param("completedAt") ZonedDateTime completedAt);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.groupId = :groupId, t.lastModifiedDate = :modifiedAt " +
+            "WHERE t.userId = :userId AND t.id IN :taskIds")
+    int moveTasksToGroup(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds,
+                         @Param("groupId") Long groupId, @Param("modifiedAt") ZonedDateTime modifiedAt);
+
+    List<Task> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // Set-based bulk delete: the rows of the one-to-many children first (Hibernate clears the element collection
+    // tables itself when the tasks are deleted)
+    @Modifying
+    @Query("DELETE FROM Subtask s WHERE s.task.id IN :taskIds")
+    int deleteSubtasksByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    // Comments are mapped from the task side only, so their foreign key is not reachable from JPQL
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE task_id IN (:taskIds)", nativeQuery = true)
+    int deleteCommentsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.userId = :userId AND t.id IN :taskIds")
+    int deleteTasks(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT t.id FROM Task t WHERE t.userId = :userId AND t.id IN :taskIds")
+    List<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds);
+
+    // Targeted write-back from the calendar sync worker, so it never overwrites concurrent edits to the task
+    // Only replaces the event id the caller last saw (or a missing one), so an event linked meanwhile by another
+    // writer such as the backfill is never overwritten and orphaned
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.googleCalendarEventId = :eventId WHERE t.id = :taskId " +
+            "AND (t.googleCalendarEventId IS NULL OR t.googleCalendarEventId = :expectedEventId)")
+    int updateGoogleCalendarEventId(@Param("taskId") Long taskId, @Param("expectedEventId") String expectedEventId,
+                                    @Param("eventId") String eventId);
+
+    // Tasks linked to the given Google Calendar events, for mapping inbound calendar changes
+    List<Task> findByUserIdAndGoogleCalendarEventIdIn(Long userId, Collection<String> eventIds);
+
+    // Targeted write of an inbound calendar change; only applies while the task is still linked to that event
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.title = :title, t.scheduledStart = :start, t.dueDate = :end, t.isAllDay = :allDay, " +
+            "t.lastModifiedDate = :modifiedAt WHERE t.id = :taskId AND t.googleCalendarEventId = :eventId")
+    int applyCalendarEventChange(@Param("taskId") Long taskId, @Param("eventId") String eventId,
+                                 @Param("title") String title, @Param("start") ZonedDateTime start,
+                                 @Param("end") ZonedDateTime end, @Param("allDay") Boolean allDay,
+                                 @Param("modifiedAt") ZonedDateTime modifiedAt);
+
+    // Calendar backfill: scheduled tasks not yet linked to an event, walked in id order from a keyset position
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.googleCalendarEventId IS NULL " +
+            "AND t.scheduledStart IS NOT NULL AND t.dueDate IS NOT NULL")
+    long countCalendarBackfillCandidates(@Param("userId") Long userId);
+
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.googleCalendarEventId IS NULL " +
+            "AND t.scheduledStart IS NOT NULL AND t.dueDate IS NOT NULL AND t.id > :afterId ORDER BY t.id")
+    List<Task> findCalendarBackfillCandidates(@Param("userId") Long userId, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // Links a backfilled event only if nothing else (e.g. the outbox worker) linked the task in the meantime
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.googleCalendarEventId = :eventId WHERE t.id = :taskId AND t.googleCalendarEventId IS NULL")
+    int linkGoogleCalendarEvent(@Param("taskId") Long taskId, @Param("eventId") String eventId);
+
+    // Task detail fetch plan: subtasks are joined in the same select (only one bag can be join-fetched);
+    // the remaining collections are loaded by TaskServiceImpl#getTaskDetail inside the same transaction
+    @EntityGraph(attributePaths = "subtasks")
+    Optional<Task> findDetailById(Long id);
+
+    // Reminder scan across all users: only tasks due in the window whose owner can receive a push, paged by task id
+    @Query("SELECT new com.taskvantage.backend.dto.DueNotification(t.id, u.id, u.username, u.token, t.title, t.scheduledStart) " +
+            "FROM Task t JOIN User u ON u.id = t.userId " +
+            "WHERE t.scheduledStart >= :startTime " +
             "AND t.scheduledStart <= :endTime " +
-            "AND (t.notificationSent IS NULL OR t.notificationSent = false) " +
-            "AND t.status != 'Completed'")
-    List<Task> findTasksScheduledBetween(
-            @Param("userId") Long userId,
+            "AND t.notificationSent = false " +
+            "AND " + OPEN_STATUS_PREDICATE + " " +
+            "AND t.id > :afterId " +
+            "AND u.token IS NOT NULL AND u.token <> '' AND u.emailVerified = true " +
+            "ORDER BY t.id")
+    List<DueNotification> findDueNotifications(
             @Param("startTime") ZonedDateTime startTime,
-            @Param("endTime") ZonedDateTime endTime);
+            @Param("endTime") ZonedDateTime endTime,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Start reminders still owed for the given tasks, re-read when the reminder wheel fires
+    @Query("SELECT new com.taskvantage.backend.dto.DueNotification(t.id, u.id, u.username, u.token, t.title, t.scheduledStart) " +
+            "FROM Task t JOIN User u ON u.id = t.userId " +
+            "WHERE t.id IN :taskIds AND t.scheduledStart IS NOT NULL AND t.notificationSent = false " +
+            "AND " + OPEN_STATUS_PREDICATE + " " +
+            "AND u.token IS NOT NULL AND u.token <> '' AND u.emailVerified = true")
+    List<DueNotification> findPendingStartReminders(@Param("taskIds") Collection<Long> taskIds);
+
+    // A user's start reminders coming up in a window, pulled forward into a notification digest
+    @Query("SELECT new com.taskvantage.backend.dto.DueNotification(t.id, u.id, u.username, u.token, t.title, t.scheduledStart) " +
+            "FROM Task t JOIN User u ON u.id = t.userId " +
+            "WHERE t.userId IN :userIds AND t.notificationSent = false " +
+            "AND t.scheduledStart > :from AND t.scheduledStart <= :until " +
+            "AND " + OPEN_STATUS_PREDICATE + " " +
+            "AND u.token IS NOT NULL AND u.token <> '' AND u.emailVerified = true")
+    List<DueNotification> findUpcomingStartReminders(@Param("userIds") Collection<Long> userIds,
+                                                     @Param("from") ZonedDateTime from,
+                                                     @Param("until") ZonedDateTime until);
+
+    // Push targets for the given open tasks (used for the tasks' own reminders)
+    @Query("SELECT new com.taskvantage.backend.dto.DueNotification(t.id, u.id, u.username, u.token, t.title, t.scheduledStart) " +
+            "FROM Task t JOIN User u ON u.id = t.userId " +
+            "WHERE t.id IN :taskIds AND " + OPEN_STATUS_PREDICATE + " " +
+            "AND u.token IS NOT NULL AND u.token <> '' AND u.emailVerified = true")
+    List<DueNotification> findReminderTargets(@Param("taskIds") Collection<Long> taskIds);
+
+    // Per-task reminders of open tasks falling in a time range, for loading the reminder wheel's horizon
+    @Query("SELECT new com.taskvantage.backend.dto.DueNotification(t.id, u.id, u.username, u.token, t.title, t.scheduledStart, r) " +
+            "FROM Task t JOIN t.reminders r JOIN User u ON u.id = t.userId " +
+            "WHERE r > :from AND r <= :until AND " + OPEN_STATUS_PREDICATE + " " +
+            "AND u.token IS NOT NULL AND u.token <> '' AND u.emailVerified = true")
+    List<DueNotification> findRemindersBetween(@Param("from") ZonedDateTime from, @Param("until") ZonedDateTime until);
+
+    // Leases open start reminders to one node; rows leased by another node are skipped until that lease expires
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.notificationClaimedBy = :nodeId, t.notificationClaimExpires = :expires " +
+            "WHERE t.id IN :taskIds AND t.notificationSent = false " +
+            "AND (t.notificationClaimExpires IS NULL OR t.notificationClaimExpires < :now OR t.notificationClaimedBy = :nodeId)")
+    int claimNotifications(@Param("taskIds") Collection<Long> taskIds, @Param("nodeId") String nodeId,
+                           @Param("now") ZonedDateTime now, @Param("expires") ZonedDateTime expires);
+
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :taskIds AND t.notificationSent = false " +
+            "AND t.notificationClaimedBy = :nodeId AND t.notificationClaimExpires >= :now")
+    List<Long> findClaimedNotifications(@Param("taskIds") Collection<Long> taskIds, @Param("nodeId") String nodeId,
+                                        @Param("now") ZonedDateTime now);
+
+    // Records delivered start reminders and drops their lease
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.notificationSent = true, t.notificationClaimedBy = NULL, t.notificationClaimExpires = NULL " +
+            "WHERE t.id IN :taskIds AND t.notificationSent = false AND t.notificationClaimedBy = :nodeId")
+    int markNotificationsSent(@Param("taskIds") Collection<Long> taskIds, @Param("nodeId") String nodeId);
+
+    // Gives back the lease on start reminders whose push failed so they can be retried by any node
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.notificationClaimedBy = NULL, t.notificationClaimExpires = NULL " +
+            "WHERE t.id IN :taskIds AND t.notificationClaimedBy = :nodeId")
+    int releaseNotificationClaims(@Param("taskIds") Collection<Long> taskIds, @Param("nodeId") String nodeId);
+
+    // Claims a per-task reminder by moving the task's reminder high-water mark forward; only one node can move it.
+    // A node's wheel may still hold a reminder another node removed or whose task it completed, so the claim
+    // rechecks that the reminder is still on the open task
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.lastReminderAt = :remindAt, t.lastReminderClaimedBy = :nodeId " +
+            "WHERE t.id IN :taskIds AND (t.lastReminderAt IS NULL OR t.lastReminderAt < :remindAt) " +
+            "AND :remindAt MEMBER OF t.reminders AND " + OPEN_STATUS_PREDICATE)
+    int claimReminders(@Param("taskIds") Collection<Long> taskIds, @Param("remindAt") ZonedDateTime remindAt,
+                       @Param("nodeId") String nodeId);
+
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :taskIds AND t.lastReminderAt = :remindAt " +
+            "AND t.lastReminderClaimedBy = :nodeId")
+    List<Long> findClaimedReminders(@Param("taskIds") Collection<Long> taskIds,
+                                    @Param("remindAt") ZonedDateTime remindAt, @Param("nodeId") String nodeId);
 
     @Query("SELECT t FROM Task t WHERE t.userId = :userId ORDER BY t.lastModifiedDate DESC")
     List<Task> findRecentTasksByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.status != 'Completed'")
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND " + OPEN_STATUS_PREDICATE)
     List<Task> findPotentialTasksForUser(@Param("userId") Long userId);
 
     @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.id != :taskId AND " +
@@ -62,9 +240,40 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
             "ORDER BY t.lastModifiedDate DESC")
     List<Task> findRelatedTasks(@Param("taskId") Long taskId, @Param("userId") Long userId, @Param("title") String title, @Param("description") String description);
 
-    @Query("SELECT t FROM Task t WHERE t.status != 'Completed' ORDER BY t.recommendationScore DESC")
+    @Query("SELECT t FROM Task t WHERE " + OPEN_STATUS_PREDICATE + " ORDER BY t.recommendationScore DESC")
     List<Task> findPopularTasks(Pageable pageable);
 
+    // Lazy collections of tasks returned as entities, one select per collection (bags cannot be join-fetched
+    // together); the tasks already in the persistence context get their collections filled in place
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.tags WHERE t.id IN :taskIds")
+    List<Task> fetchTags(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.subtasks WHERE t.id IN :taskIds")
+    List<Task> fetchSubtasks(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.attachments WHERE t.id IN :taskIds")
+    List<Task> fetchAttachments(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.comments WHERE t.id IN :taskIds")
+    List<Task> fetchComments(@Param("taskIds") Collection<Long> taskIds);
+
+    // Similarity search candidates: the user's stored embeddings in one select, without loading the entities
+    @Query("SELECT new com.taskvantage.backend.dto.TaskEmbedding(t.id, t.title, t.description, t.embedding) " +
+            "FROM Task t WHERE t.userId = :userId AND t.id <> :excludedTaskId AND t.embedding IS NOT NULL")
+    List<TaskEmbedding> findEmbeddingsByUserId(@Param("userId") Long userId,
+                                               @Param("excludedTaskId") Long excludedTaskId);
+
+    // Embedding backfill: the user's tasks still without an embedding, or all of them when forced
+    @Query("SELECT new com.taskvantage.backend.dto.TaskEmbedding(t.id, t.title, t.description, t.embedding) " +
+            "FROM Task t WHERE t.userId = :userId AND (:force = true OR t.embedding IS NULL OR t.embedding = '')")
+    List<TaskEmbedding> findEmbeddingBackfillCandidates(@Param("userId") Long userId, @Param("force") boolean force);
+
+    // Targeted write of a generated embedding, so the backfill never loads or merges the task itself
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.embedding = :embedding WHERE t.id = :taskId")
+    int updateEmbedding(@Param("taskId") Long taskId, @Param("embedding") String embedding);
+
     boolean existsByUserId(Long userId);
 
     // Helper method to convert limit to Pageable
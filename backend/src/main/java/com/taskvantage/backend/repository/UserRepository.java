@@ -2,9 +2,13 @@ package com.taskvantage.backend.repository;
 
 import com.taskvantage.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,4 +76,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u WHERE u.token = :token")
     List<User> findAllByToken(String token);
-}
\ No newline at end of file
+
+    /**
+     * Finds all users whose tasks are synced with Google Calendar.
+     *
+     * @return List of users with calendar sync enabled and a Google access token
+     */
+    @Query("SELECT u FROM User u WHERE u.taskSyncEnabled = true AND u.googleAccessToken IS NOT NULL")
+    List<User> findUsersWithCalendarSyncEnabled();
+
+    /**
+     * Stores the Google Calendar sync token without rewriting the rest of the user row.
+     *
+     * @param userId The ID of the user.
+     * @param syncToken The token returned by the last calendar listing, or null to force a full sync.
+     * @return Number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.googleCalendarSyncToken = :syncToken WHERE u.id = :userId")
+    int updateGoogleCalendarSyncToken(@Param("userId") Long userId, @Param("syncToken") String syncToken);
+
+    /**
+     * Clears FCM tokens that Firebase reported as invalid, in one statement.
+     *
+     * @param tokens The invalid FCM tokens.
+     * @return Number of users whose token was cleared
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.token = NULL WHERE u.token IN :tokens")
+    int clearTokens(@Param("tokens") Collection<String> tokens);
+}
@@ -0,0 +1,84 @@
+package com.taskvantage.backend.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. {@link #mightContain} never returns false for a value that was put,
+ * and returns true for other values at roughly the false-positive rate it was sized for.
+ * Safe for concurrent puts and reads.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    private BloomFilter(long numBits, int numHashes) {
+        this.words = new AtomicLongArray((int) ((numBits + 63) / 64));
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(expectedInsertions, 1);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = Math.max(64, Math.min(bits, 64L * Integer.MAX_VALUE / 2));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * ln2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, numBits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, numBits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitSize() {
+        return numBits;
+    }
+
+    int hashCount() {
+        return numHashes;
+    }
+
+    // 64-bit FNV-1a
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer, used to derive the second hash for double hashing
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
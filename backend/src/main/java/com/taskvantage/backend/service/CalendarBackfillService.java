@@ -0,0 +1,222 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.CalendarBackfill;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarBackfillRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes a user's existing scheduled tasks to Google Calendar after task sync is switched on. The work runs in
+ * the background, one page per user per pass, with each page sent as a single Calendar batch request. A per-user
+ * token bucket keeps the backfill within the user's Calendar quota, so it does not starve the outbox worker.
+ * Progress is stored in calendar_backfill for the settings page. Every instance runs the job, so a backfill is
+ * leased to one instance, which renews the lease on each pass and is then the only one calling Google (and
+ * spending the user's rate limit) for it.
+ */
+@Service
+public class CalendarBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarBackfillService.class);
+    static final int PAGE_SIZE = GoogleCalendarService.MAX_BATCH_SIZE;
+    static final int MAX_CONSECUTIVE_FAILURES = 5;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    // Long enough for a full page to reach Google; a backfill of a worker that went away resumes elsewhere after it
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final Set<CalendarBackfill.Status> ACTIVE =
+            EnumSet.of(CalendarBackfill.Status.PENDING, CalendarBackfill.Status.RUNNING);
+
+    private final CalendarBackfillRepository backfillRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final double eventsPerSecond;
+    private final LongSupplier nanoClock;
+    private final Map<Long, TokenBucket> rateLimiters = new ConcurrentHashMap<>();
+    private final String workerId = UUID.randomUUID().toString();
+
+    @Autowired
+    public CalendarBackfillService(CalendarBackfillRepository backfillRepository, TaskRepository taskRepository,
+                                   UserRepository userRepository, GoogleCalendarService googleCalendarService,
+                                   @Value("${calendar.backfill.events-per-minute:300}") int eventsPerMinute) {
+        this(backfillRepository, taskRepository, userRepository, googleCalendarService, eventsPerMinute, System::nanoTime);
+    }
+
+    CalendarBackfillService(CalendarBackfillRepository backfillRepository, TaskRepository taskRepository,
+                            UserRepository userRepository, GoogleCalendarService googleCalendarService,
+                            int eventsPerMinute, LongSupplier nanoClock) {
+        this.backfillRepository = backfillRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.eventsPerSecond = eventsPerMinute / 60.0;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Starts (or restarts) the backfill for a user. Tasks linked meanwhile by the outbox worker are skipped.
+     */
+    public CalendarBackfill requestBackfill(Long userId) {
+        CalendarBackfill backfill = new CalendarBackfill(userId, taskRepository.countCalendarBackfillCandidates(userId));
+        if (backfill.getTotalTasks() == 0) {
+            backfill.setStatus(CalendarBackfill.Status.COMPLETED);
+            backfill.setCompletedAt(backfill.getStartedAt());
+        }
+        logger.info("Calendar backfill requested for user {} ({} tasks)", userId, backfill.getTotalTasks());
+        return backfillRepository.save(backfill);
+    }
+
+    public Optional<CalendarBackfill> getProgress(Long userId) {
+        return backfillRepository.findById(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${calendar.backfill.poll-interval-ms:10000}")
+    public void runBackfills() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        backfillRepository.claimBackfills(ACTIVE, workerId, now, now.plus(CLAIM_LEASE));
+        List<CalendarBackfill> claimed = backfillRepository.findClaimedBackfills(ACTIVE, workerId, now);
+        // Leases taken over by another instance leave their rate limiters behind
+        rateLimiters.keySet().retainAll(claimed.stream().map(CalendarBackfill::getUserId).collect(Collectors.toSet()));
+        for (CalendarBackfill backfill : claimed) {
+            try {
+                processPage(backfill);
+            } catch (RuntimeException e) {
+                logger.error("Calendar backfill failed for user {}: {}", backfill.getUserId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    // Sends the next page the user's rate limit allows for a backfill this worker has leased; returns the number
+    // of tasks attempted
+    int processPage(CalendarBackfill backfill) {
+        Long userId = backfill.getUserId();
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || user.getGoogleAccessToken() == null || !user.isTaskSyncEnabled()) {
+            finish(backfill, CalendarBackfill.Status.CANCELLED);
+            return 0;
+        }
+
+        TokenBucket limiter = rateLimiters.computeIfAbsent(userId,
+                id -> new TokenBucket(eventsPerSecond, PAGE_SIZE, nanoClock));
+        int permits = limiter.acquireUpTo(PAGE_SIZE);
+        if (permits == 0) {
+            return 0;
+        }
+
+        List<Task> tasks = taskRepository.findCalendarBackfillCandidates(userId, backfill.getLastTaskId(),
+                Pageable.ofSize(permits));
+        if (tasks.isEmpty()) {
+            limiter.release(permits);
+            finish(backfill, CalendarBackfill.Status.COMPLETED);
+            return 0;
+        }
+        limiter.release(permits - tasks.size());
+
+        List<GoogleCalendarService.EventRequest> requests = tasks.stream()
+                .map(task -> GoogleCalendarService.EventRequest.create(task.getTitle(), task.getScheduledStart(),
+                        task.getDueDate(), Boolean.TRUE.equals(task.isAllDay())))
+                .toList();
+        List<GoogleCalendarService.EventResult> results;
+        try {
+            results = googleCalendarService.executeBatch(user, requests);
+        } catch (GeneralSecurityException | IOException e) {
+            // The page is retried on a later pass from the same position
+            logger.warn("Calendar backfill batch for user {} failed: {}", userId, e.getMessage());
+            backfill.setConsecutiveFailures(backfill.getConsecutiveFailures() + 1);
+            backfill.setLastError(truncate(e.getMessage()));
+            if (backfill.getConsecutiveFailures() >= MAX_CONSECUTIVE_FAILURES) {
+                finish(backfill, CalendarBackfill.Status.FAILED);
+            } else {
+                touch(backfill);
+            }
+            return tasks.size();
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            GoogleCalendarService.EventResult result = results.get(i);
+            if (!result.isSuccess()) {
+                backfill.setFailedTasks(backfill.getFailedTasks() + 1);
+                backfill.setLastError(truncate("Task " + task.getId() + ": Google Calendar returned "
+                        + result.getStatusCode() + ": " + result.getError()));
+                continue;
+            }
+            if (taskRepository.linkGoogleCalendarEvent(task.getId(), result.getEventId()) == 1) {
+                backfill.setSyncedTasks(backfill.getSyncedTasks() + 1);
+            } else {
+                // Linked by the outbox worker or deleted while the batch was in flight
+                deleteOrphanedEvent(user, result.getEventId());
+            }
+        }
+
+        backfill.setLastTaskId(tasks.get(tasks.size() - 1).getId());
+        backfill.setConsecutiveFailures(0);
+        backfill.setStatus(CalendarBackfill.Status.RUNNING);
+        if (tasks.size() < permits) {
+            finish(backfill, CalendarBackfill.Status.COMPLETED);
+        } else {
+            touch(backfill);
+        }
+        return tasks.size();
+    }
+
+    private void deleteOrphanedEvent(User user, String eventId) {
+        try {
+            googleCalendarService.deleteCalendarEvent(user, eventId);
+        } catch (GeneralSecurityException | IOException e) {
+            logger.warn("Could not delete duplicate backfilled event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private void finish(CalendarBackfill backfill, CalendarBackfill.Status status) {
+        backfill.setStatus(status);
+        backfill.setCompletedAt(ZonedDateTime.now(ZoneOffset.UTC));
+        backfill.setUpdatedAt(backfill.getCompletedAt());
+        backfillRepository.finishBackfill(backfill.getUserId(), workerId, backfill.getStartedAt(), status,
+                backfill.getSyncedTasks(), backfill.getFailedTasks(), backfill.getLastTaskId(),
+                backfill.getConsecutiveFailures(), backfill.getLastError(), backfill.getCompletedAt());
+        rateLimiters.remove(backfill.getUserId());
+        logger.info("Calendar backfill for user {} {}: {} synced, {} failed", backfill.getUserId(),
+                status.name().toLowerCase(), backfill.getSyncedTasks(), backfill.getFailedTasks());
+    }
+
+    private void touch(CalendarBackfill backfill) {
+        backfill.setUpdatedAt(ZonedDateTime.now(ZoneOffset.UTC));
+        if (backfillRepository.updateProgress(backfill.getUserId(), workerId, backfill.getStartedAt(),
+                backfill.getStatus(), backfill.getSyncedTasks(), backfill.getFailedTasks(), backfill.getLastTaskId(),
+                backfill.getConsecutiveFailures(), backfill.getLastError(), backfill.getUpdatedAt()) == 0) {
+            logger.info("Calendar backfill for user {} was restarted or taken over; dropping this page's progress",
+                    backfill.getUserId());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,191 @@
+package com.taskvantage.backend.service;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Pulls changes made in Google Calendar back into tasks. Each pass asks Google only for the events that changed
+ * since the user's stored sync token and maps them to tasks through googleCalendarEventId; the whole calendar is
+ * listed only on the first pass or after Google invalidates the token. Changes are written with targeted updates
+ * and never queued back to the outbox, so they do not echo back to Google.
+ */
+@Service
+public class CalendarInboundSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarInboundSyncService.class);
+    static final String CANCELLED = "cancelled";
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final CalendarSyncOperationRepository outboxRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final ReminderScheduler reminderScheduler;
+
+    @Autowired
+    public CalendarInboundSyncService(UserRepository userRepository, TaskRepository taskRepository,
+                                      CalendarSyncOperationRepository outboxRepository,
+                                      GoogleCalendarService googleCalendarService,
+                                      ReminderScheduler reminderScheduler) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.outboxRepository = outboxRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.reminderScheduler = reminderScheduler;
+    }
+
+    @Scheduled(fixedDelayString = "${calendar.sync.inbound-interval-ms:300000}")
+    public void pullCalendarChanges() {
+        for (User user : userRepository.findUsersWithCalendarSyncEnabled()) {
+            try {
+                syncUser(user);
+            } catch (GeneralSecurityException | IOException | RuntimeException e) {
+                // The stored token is kept, so the next pass picks up from the same point
+                logger.warn("Inbound calendar sync failed for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies the calendar changes since the user's last pass and stores the new sync token.
+     *
+     * @return number of tasks updated or unlinked
+     */
+    public int syncUser(User user) throws GeneralSecurityException, IOException {
+        String syncToken = user.getGoogleCalendarSyncToken();
+        int[] applied = {0};
+        String nextSyncToken;
+        try {
+            nextSyncToken = googleCalendarService.listEventChanges(user, syncToken,
+                    events -> applied[0] += applyChanges(user.getId(), events));
+        } catch (GoogleCalendarService.SyncTokenExpiredException e) {
+            logger.info("Calendar sync token for user {} was invalidated, running a full sync", user.getId());
+            nextSyncToken = googleCalendarService.listEventChanges(user, null,
+                    events -> applied[0] += applyChanges(user.getId(), events));
+        }
+
+        if (nextSyncToken != null && !nextSyncToken.equals(syncToken)) {
+            userRepository.updateGoogleCalendarSyncToken(user.getId(), nextSyncToken);
+            user.setGoogleCalendarSyncToken(nextSyncToken);
+        }
+        if (applied[0] > 0) {
+            logger.info("Applied {} Google Calendar change(s) to tasks of user {}", applied[0], user.getId());
+        }
+        return applied[0];
+    }
+
+    // Maps one page of changed events onto the user's linked tasks; events without a task are ignored
+    int applyChanges(Long userId, List<Event> events) {
+        Map<String, Event> eventsById = new LinkedHashMap<>();
+        for (Event event : events) {
+            if (event.getId() != null) {
+                eventsById.put(event.getId(), event);
+            }
+        }
+        if (eventsById.isEmpty()) {
+            return 0;
+        }
+
+        List<Task> tasks = taskRepository.findByUserIdAndGoogleCalendarEventIdIn(userId, eventsById.keySet());
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        // Local edits not yet pushed to Google are newer than what Google reports; the outbox will overwrite the event
+        Set<Long> pendingTaskIds = new HashSet<>(outboxRepository.findTaskIdsWithPendingOperations(userId,
+                tasks.stream().map(Task::getId).toList()));
+
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        int applied = 0;
+        for (Task task : tasks) {
+            if (pendingTaskIds.contains(task.getId())) {
+                continue;
+            }
+            Event event = eventsById.get(task.getGoogleCalendarEventId());
+            if (CANCELLED.equals(event.getStatus())) {
+                // Deleted in Google Calendar: keep the task, just unlink it
+                applied += taskRepository.updateGoogleCalendarEventId(task.getId(), task.getGoogleCalendarEventId(), null);
+                continue;
+            }
+
+            String title = event.getSummary() != null ? event.getSummary() : task.getTitle();
+            ZonedDateTime start = toZonedDateTime(event.getStart());
+            ZonedDateTime end = toZonedDateTime(event.getEnd());
+            if (start == null || end == null) {
+                continue;
+            }
+            boolean allDay = event.getStart().getDate() != null;
+            if (allDay) {
+                // Google keeps only the date of an all-day event; the task keeps its own time of day
+                start = onDate(start, task.getScheduledStart());
+                end = onDate(end, task.getDueDate());
+            }
+            if (isUnchanged(task, title, start, end, allDay)) {
+                // Typically the echo of our own outbound write
+                continue;
+            }
+            if (taskRepository.applyCalendarEventChange(task.getId(), task.getGoogleCalendarEventId(),
+                    title, start, end, allDay, now) == 1) {
+                applied++;
+                // Keep the start reminder in step with the moved event
+                task.setTitle(title);
+                task.setScheduledStart(start);
+                task.setDueDate(end);
+                reminderScheduler.taskChanged(task);
+            }
+        }
+        return applied;
+    }
+
+    private static boolean isUnchanged(Task task, String title, ZonedDateTime start, ZonedDateTime end, boolean allDay) {
+        return Objects.equals(task.getTitle(), title)
+                && sameInstant(task.getScheduledStart(), start)
+                && sameInstant(task.getDueDate(), end)
+                && Boolean.TRUE.equals(task.isAllDay()) == allDay;
+    }
+
+    private static boolean sameInstant(ZonedDateTime current, ZonedDateTime incoming) {
+        return current != null && current.isEqual(incoming);
+    }
+
+    // The date of an all-day event (midnight UTC) at the time of day the task already had, in UTC
+    static ZonedDateTime onDate(ZonedDateTime date, ZonedDateTime current) {
+        if (current == null) {
+            return date;
+        }
+        return date.toLocalDate().atTime(current.withZoneSameInstant(ZoneOffset.UTC).toLocalTime()).atZone(ZoneOffset.UTC);
+    }
+
+    // All-day events carry a date (midnight UTC, as written by GoogleCalendarService), timed events a date-time
+    static ZonedDateTime toZonedDateTime(EventDateTime eventDateTime) {
+        if (eventDateTime == null) {
+            return null;
+        }
+        DateTime value = eventDateTime.getDateTime() != null ? eventDateTime.getDateTime() : eventDateTime.getDate();
+        if (value == null) {
+            return null;
+        }
+        return Instant.ofEpochMilli(value.getValue()).atZone(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,264 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.CalendarSyncOperation;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the calendar sync outbox. Due operations are grouped per user (one user and one task lookup per user),
+ * then per task, where everything queued for the same task collapses into a single Calendar call made from
+ * the task's current state. A user's calls go out together through the Calendar batch endpoint.
+ * Failed calls are retried with exponential backoff. No database transaction is held while talking to Google.
+ * Every instance runs this worker, so due rows are leased for CLAIM_LEASE before they are sent.
+ */
+@Service
+public class CalendarSyncWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarSyncWorker.class);
+    static final int BATCH_SIZE = 200;
+    static final int MAX_ATTEMPTS = 8;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    static final Duration MAX_BACKOFF = Duration.ofHours(6);
+    // Long enough for a full batch to reach Google; rows of a worker that went away become due again after it
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CalendarSyncOperationRepository outboxRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final String workerId = UUID.randomUUID().toString();
+    private final Timer batchTimer;
+    private final Timer failedBatchTimer;
+
+    @Autowired
+    public CalendarSyncWorker(CalendarSyncOperationRepository outboxRepository, TaskRepository taskRepository,
+                              UserRepository userRepository, GoogleCalendarService googleCalendarService,
+                              MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.batchTimer = syncTimer(meterRegistry, "success");
+        this.failedBatchTimer = syncTimer(meterRegistry, "error");
+    }
+
+    CalendarSyncWorker(CalendarSyncOperationRepository outboxRepository, TaskRepository taskRepository,
+                       UserRepository userRepository, GoogleCalendarService googleCalendarService) {
+        this(outboxRepository, taskRepository, userRepository, googleCalendarService, new SimpleMeterRegistry());
+    }
+
+    // One sample per user and drain, covering all of that user's batched Calendar requests
+    private static Timer syncTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("taskvantage.calendar.sync")
+                .description("Time to send one user's queued operations to Google Calendar")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${calendar.sync.poll-interval-ms:5000}")
+    public void drainOutbox() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        List<CalendarSyncOperation> due = claimDueOperations(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Processing {} queued calendar operations", due.size());
+        Map<Long, List<CalendarSyncOperation>> byUser = due.stream()
+                .collect(Collectors.groupingBy(CalendarSyncOperation::getUserId, LinkedHashMap::new, Collectors.toList()));
+        byUser.forEach((userId, operations) -> {
+            try {
+                processUser(userId, operations, now);
+            } catch (RuntimeException e) {
+                logger.error("Calendar sync failed for user {}: {}", userId, e.getMessage(), e);
+                scheduleRetry(operations, e, now);
+            }
+        });
+    }
+
+    private List<CalendarSyncOperation> claimDueOperations(ZonedDateTime now) {
+        List<Long> candidates = outboxRepository.findClaimableOperationIds(now, Pageable.ofSize(BATCH_SIZE));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        outboxRepository.claimOperations(candidates, workerId, now, now.plus(CLAIM_LEASE));
+        return outboxRepository.findClaimedOperations(candidates, workerId, now);
+    }
+
+    void processUser(Long userId, List<CalendarSyncOperation> operations, ZonedDateTime now) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || user.getGoogleAccessToken() == null || !user.isTaskSyncEnabled()) {
+            // Sync was switched off (or the account removed) after these were queued
+            outboxRepository.deleteByIdIn(ids(operations));
+            return;
+        }
+
+        // Operations arrive ordered by id, so the last one per task reflects the latest write
+        Map<Long, List<CalendarSyncOperation>> byTask = operations.stream()
+                .collect(Collectors.groupingBy(CalendarSyncOperation::getTaskId, LinkedHashMap::new, Collectors.toList()));
+        Set<Long> upsertTaskIds = byTask.entrySet().stream()
+                .filter(entry -> last(entry.getValue()).getOperation() != CalendarSyncOperation.Type.DELETE)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        Map<Long, Task> tasks = upsertTaskIds.isEmpty() ? Map.of() : taskRepository.findByUserIdAndIdIn(userId, upsertTaskIds)
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        // One Calendar request per task that still needs a call; the rest are settled without contacting Google
+        List<List<CalendarSyncOperation>> pendingOperations = new ArrayList<>();
+        List<GoogleCalendarService.EventRequest> requests = new ArrayList<>();
+        List<Task> requestTasks = new ArrayList<>();
+        for (Map.Entry<Long, List<CalendarSyncOperation>> entry : byTask.entrySet()) {
+            Task task = tasks.get(entry.getKey());
+            GoogleCalendarService.EventRequest request = toRequest(last(entry.getValue()), task);
+            if (request == null) {
+                outboxRepository.deleteByIdIn(ids(entry.getValue()));
+                continue;
+            }
+            pendingOperations.add(entry.getValue());
+            requests.add(request);
+            requestTasks.add(task);
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        List<GoogleCalendarService.EventResult> results;
+        Timer.Sample sample = Timer.start();
+        try {
+            results = googleCalendarService.executeBatch(user, requests);
+            sample.stop(batchTimer);
+        } catch (GeneralSecurityException | IOException e) {
+            sample.stop(failedBatchTimer);
+            logger.warn("Calendar batch for user {} failed: {}", userId, e.getMessage());
+            pendingOperations.forEach(taskOperations -> scheduleRetry(taskOperations, e, now));
+            return;
+        }
+
+        for (int i = 0; i < requests.size(); i++) {
+            List<CalendarSyncOperation> taskOperations = pendingOperations.get(i);
+            try {
+                handleResult(user, requests.get(i), requestTasks.get(i), results.get(i));
+                outboxRepository.deleteByIdIn(ids(taskOperations));
+            } catch (GeneralSecurityException | IOException e) {
+                logger.warn("Calendar sync for task {} failed: {}", taskOperations.get(0).getTaskId(), e.getMessage());
+                scheduleRetry(taskOperations, e, now);
+            }
+        }
+    }
+
+    // Collapses the queued operations for one task into the single call that brings Google up to date, or null if none is needed
+    private GoogleCalendarService.EventRequest toRequest(CalendarSyncOperation latest, Task task) {
+        if (latest.getOperation() == CalendarSyncOperation.Type.DELETE) {
+            // Any create/update queued before the delete no longer matters
+            return latest.getEventId() != null ? GoogleCalendarService.EventRequest.delete(latest.getEventId()) : null;
+        }
+        if (task == null || task.getScheduledStart() == null || task.getDueDate() == null) {
+            // Deleted before its event was created, or no longer schedulable
+            return null;
+        }
+        boolean allDay = Boolean.TRUE.equals(task.isAllDay());
+        return task.getGoogleCalendarEventId() == null
+                ? GoogleCalendarService.EventRequest.create(task.getTitle(), task.getScheduledStart(), task.getDueDate(), allDay)
+                : GoogleCalendarService.EventRequest.update(task.getGoogleCalendarEventId(), task.getTitle(),
+                        task.getScheduledStart(), task.getDueDate(), allDay);
+    }
+
+    private void handleResult(User user, GoogleCalendarService.EventRequest request, Task task,
+                              GoogleCalendarService.EventResult result) throws GeneralSecurityException, IOException {
+        GoogleCalendarService.EventRequest.Action action = request.getAction();
+        if (result.isSuccess()) {
+            if (action == GoogleCalendarService.EventRequest.Action.CREATE) {
+                writeBackEventId(user, task, null, result.getEventId());
+            }
+            return;
+        }
+        if (isGone(result.getStatusCode())) {
+            if (action == GoogleCalendarService.EventRequest.Action.DELETE) {
+                return;
+            }
+            if (action == GoogleCalendarService.EventRequest.Action.UPDATE) {
+                // The event was removed on the Google side; recreate it rather than retrying forever
+                String eventId = googleCalendarService.createCalendarEvent(user, task.getTitle(),
+                        task.getScheduledStart(), task.getDueDate(), Boolean.TRUE.equals(task.isAllDay()));
+                writeBackEventId(user, task, request.getEventId(), eventId);
+                return;
+            }
+        }
+        throw new IOException("Google Calendar returned " + result.getStatusCode() + ": " + result.getError());
+    }
+
+    // expectedEventId is the event the request was built from (null for a create)
+    private void writeBackEventId(User user, Task task, String expectedEventId, String eventId)
+            throws GeneralSecurityException, IOException {
+        if (taskRepository.updateGoogleCalendarEventId(task.getId(), expectedEventId, eventId) == 0) {
+            // The task was deleted, or linked to another event (e.g. by the backfill), while this event was being
+            // created; do not leave an orphaned event behind
+            googleCalendarService.deleteCalendarEvent(user, eventId);
+        }
+    }
+
+    private static boolean isGone(int statusCode) {
+        return statusCode == 404 || statusCode == 410;
+    }
+
+    private void scheduleRetry(List<CalendarSyncOperation> operations, Exception error, ZonedDateTime now) {
+        int attempts = operations.stream().mapToInt(CalendarSyncOperation::getAttempts).max().orElse(0) + 1;
+        if (attempts >= MAX_ATTEMPTS) {
+            logger.error("Giving up on calendar sync for task {} after {} attempts: {}",
+                    operations.get(0).getTaskId(), attempts, error.getMessage());
+            outboxRepository.deleteByIdIn(ids(operations));
+            return;
+        }
+        outboxRepository.scheduleRetry(ids(operations), attempts, now.plus(backoff(attempts)), truncate(error.getMessage()));
+    }
+
+    // 30s, 1m, 2m, 4m ... capped at MAX_BACKOFF
+    static Duration backoff(int attempts) {
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static CalendarSyncOperation last(List<CalendarSyncOperation> operations) {
+        return operations.get(operations.size() - 1);
+    }
+
+    private static List<Long> ids(List<CalendarSyncOperation> operations) {
+        return operations.stream().map(CalendarSyncOperation::getId).toList();
+    }
+}
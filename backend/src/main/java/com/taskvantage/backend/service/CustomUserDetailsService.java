@@ -12,7 +12,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,6 +30,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache = new PrincipalCache(Clock.systemUTC());
 
     @Value("${TASKVANTAGE_FRONTEND}")
     private String frontendUrl;
@@ -41,6 +45,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     /**
      * Load user details by username. It checks both username and Google email.
+     * Results are cached briefly, so the returned user must be treated as read-only.
      *
      * @param username the username or Google email of the user
      * @return UserDetails object containing user information
@@ -48,8 +53,19 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = findUser(username);
-        return new CustomUserDetails(user);
+        return principalCache.getByName(username, name -> new CustomUserDetails(findUser(name)));
+    }
+
+    /**
+     * Load user details by user ID, served from the same short-lived cache as {@link #loadUserByUsername}.
+     * Use {@link #findUserById} instead when the user is going to be modified.
+     *
+     * @param userId the ID of the user
+     * @return CustomUserDetails wrapping the user
+     * @throws UsernameNotFoundException if the user is not found
+     */
+    public CustomUserDetails loadUserById(Long userId) throws UsernameNotFoundException {
+        return principalCache.getById(userId, id -> new CustomUserDetails(findUserById(id)));
     }
 
     /**
@@ -155,16 +171,41 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @return the saved User object
      */
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        evictPrincipal(saved != null ? saved.getId() : user.getId());
+        return saved;
+    }
+
+    /**
+     * Drop any cached principal for the user so the next request sees its current password, admin flag and
+     * Google link. Inside a transaction the entry is dropped again after commit, so a concurrent request cannot
+     * keep the old row cached.
+     *
+     * @param userId the ID of the user that changed
+     */
+    public void evictPrincipal(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        principalCache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.invalidate(userId);
+                }
+            });
+        }
     }
 
     /**
      * Register a new user.
      *
      * @param authRequest the AuthRequest containing registration details
+     * @param encodedPassword the password from the request, already encoded on the hashing pool
      * @return message indicating success or failure of registration
      */
-    public String registerUser(AuthRequest authRequest) {
+    public String registerUser(AuthRequest authRequest, String encodedPassword) {
         if (userRepository.findByUsername(authRequest.getUsername()) != null) {
             logger.debug("Registration attempted with already taken username");
             return "Username is already taken.";
@@ -172,7 +213,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         User user = new User();
         user.setUsername(authRequest.getUsername());
-        user.setPassword(passwordEncoder.encode(authRequest.getPassword()));
+        user.setPassword(encodedPassword);
 
         String verificationToken = UUID.randomUUID().toString();
         user.setVerificationToken(verificationToken);
@@ -187,12 +228,13 @@ public class CustomUserDetailsService implements UserDetailsService {
                 + "</body></html>";
 
         try {
-            emailService.sendEmail(user.getUsername(), "Email Verification", emailContent, true);
+            // Saved first: the email is only queued here, and must not go out for an account that was never stored
             saveUser(user);
+            emailService.sendEmail(user.getUsername(), "Email Verification", emailContent, true);
             logger.info("User registered successfully");
             return "Registration successful. Please check your email to verify your account.";
         } catch (Exception e) {
-            logger.error("Failed to send verification email", e);
+            logger.error("Failed to queue verification email", e);
             return "Failed to send verification email. Please try again.";
         }
     }
@@ -237,7 +279,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      * Sends a password reset link to the user's email.
      *
      * @param email the user's email address
-     * @return true if the reset link was sent successfully, false otherwise
+     * @return true if the reset link was queued for sending, false otherwise
      */
     public boolean sendPasswordResetLink(String email) {
         User user = userRepository.findByUsername(email);
@@ -261,10 +303,10 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         try {
             emailService.sendEmail(user.getUsername(), "Password Reset", emailContent, true);
-            logger.info("Password reset email sent for user ID: {}", user.getId());
+            logger.info("Password reset email queued for user ID: {}", user.getId());
             return true;
         } catch (Exception e) {
-            logger.error("Failed to send password reset email", e);
+            logger.error("Failed to queue password reset email", e);
             return false;
         }
     }
@@ -1,21 +1,26 @@
 package com.taskvantage.backend.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.taskvantage.backend.model.MailOutboxMessage;
+import com.taskvantage.backend.repository.MailOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Queues outgoing email in the mail outbox; MailOutboxWorker does the actual SMTP work.
+ */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
-    private final JavaMailSender mailSender;
+    private final MailOutboxRepository outboxRepository;
+    private final MailOutboxWorker outboxWorker;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(MailOutboxRepository outboxRepository, MailOutboxWorker outboxWorker) {
+        this.outboxRepository = outboxRepository;
+        this.outboxWorker = outboxWorker;
     }
 
     // Method to send email with default HTML content (set to true)
@@ -25,23 +30,19 @@ public class EmailService {
 
     // Overloaded method to allow HTML or plain text email
     public void sendEmail(String to, String subject, String body, boolean isHtml) {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-
-        try {
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
-            helper.setTo(to);
-            helper.setSubject(subject);
-
-            // Set the email as HTML content
-            helper.setText(body, isHtml);  // Set the body and ensure isHtml is true
-
-            // Send the email
-            mailSender.send(mimeMessage);
-            logger.debug("Email sent successfully");
-
-        } catch (MessagingException e) {
-            logger.error("Failed to send email", e);
-            throw new RuntimeException("Failed to send email: " + e.getMessage());
+        outboxRepository.save(new MailOutboxMessage(to, subject, body, isHtml));
+        logger.debug("Email queued for delivery");
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The worker cannot see the row until the caller's transaction commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxWorker.wakeUp();
+                }
+            });
+        } else {
+            outboxWorker.wakeUp();
         }
     }
-}
\ No newline at end of file
+}
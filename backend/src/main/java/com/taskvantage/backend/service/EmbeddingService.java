@@ -2,10 +2,15 @@ package com.taskvantage.backend.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskvantage.backend.jfr.EmbeddingRequestEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -38,10 +43,23 @@ public class EmbeddingService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final Timer successTimer;
+    private final Timer errorTimer;
 
-    public EmbeddingService() {
+    @Autowired
+    public EmbeddingService(MeterRegistry meterRegistry) {
         this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.successTimer = requestTimer(meterRegistry, "success");
+        this.errorTimer = requestTimer(meterRegistry, "error");
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("taskvantage.embedding.requests")
+                .description("Calls to the embedding service")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
@@ -57,14 +75,27 @@ public class EmbeddingService {
      * Generate embedding for a single text string.
      */
     public List<Double> generateEmbedding(String text) {
-        try {
-            if (text == null || text.trim().isEmpty()) {
-                logger.warn("Attempted to generate embedding for empty text");
-                return null;
-            }
+        if (text == null || text.trim().isEmpty()) {
+            logger.warn("Attempted to generate embedding for empty text");
+            return null;
+        }
+        Timer.Sample sample = Timer.start();
+        EmbeddingRequestEvent event = new EmbeddingRequestEvent();
+        event.begin();
+        List<Double> embedding = requestEmbedding(text, event);
+        sample.stop(embedding != null ? successTimer : errorTimer);
+        event.succeeded = embedding != null;
+        event.dimensions = embedding != null ? embedding.size() : 0;
+        event.commit();
+        return embedding;
+    }
 
+    private List<Double> requestEmbedding(String text, EmbeddingRequestEvent event) {
+        try {
             // Detect which API we're using based on URL
             boolean isOllama = embeddingServiceUrl.contains("ollama") || embeddingServiceUrl.contains("11434");
+            event.provider = isOllama ? "ollama" : "openai";
+            event.textLength = text.length();
 
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("model", embeddingModel);
@@ -96,6 +127,7 @@ public class EmbeddingService {
                 request,
                 String.class
             );
+            event.httpStatus = response.getStatusCode().value();
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 JsonNode root = objectMapper.readTree(response.getBody());
@@ -114,6 +146,9 @@ public class EmbeddingService {
             }
 
         } catch (Exception e) {
+            if (e instanceof RestClientResponseException responseError) {
+                event.httpStatus = responseError.getStatusCode().value();
+            }
             logger.error("Error generating embedding: {}", e.getMessage(), e);
             return null;
         }
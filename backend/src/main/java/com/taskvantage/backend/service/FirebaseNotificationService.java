@@ -1,124 +1,305 @@
 package com.taskvantage.backend.service;
 
-import com.google.firebase.messaging.*;
+import com.taskvantage.backend.repository.UserRepository;
+import com.taskvantage.backend.service.PushTransport.Outcome;
+import com.taskvantage.backend.service.PushTransport.PushMessage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Sends push notifications without blocking the caller. Messages are queued, handed to the PushTransport in
+ * batches of up to its maximum size (500 for FCM), and retried with exponential backoff and jitter on a timer.
+ * Tokens that the transport reports as invalid are cleared once per batch.
+ */
 @Service
 public class FirebaseNotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(FirebaseNotificationService.class);
-    private static final ConcurrentHashMap<String, Long> sentMessages = new ConcurrentHashMap<>();
-    private static final long MESSAGE_EXPIRY_MINUTES = 30;
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 1000; // 1 second
+    static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_IN_FLIGHT_BATCHES = 4;
+    // Short wait before a drain so messages enqueued together go out in one batch
+    private static final Duration LINGER = Duration.ofMillis(20);
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
 
-    private final CustomUserDetailsService userService;
+    /**
+     * Snapshot of the delivery queue.
+     */
+    public record DeliveryStats(int queueDepth, int inFlightBatches, long sent, long failed, long retried,
+                                long invalidTokens, double averageLatencyMs, long maxLatencyMs) {}
+
+    private static final class PendingMessage {
+        private final String token;
+        private final PushMessage message;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private final long enqueuedNanos = System.nanoTime();
+        private int attempts;
+
+        private PendingMessage(String token, PushMessage message) {
+            this.token = token;
+            this.message = message;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final PushTransport transport;
+    private final Duration linger;
+    private final Duration baseBackoff;
+    private final ScheduledExecutorService executor;
+
+    private final ConcurrentLinkedQueue<PendingMessage> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retriedCount = new LongAdder();
+    private final LongAdder invalidTokenCount = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private final Timer sentLatency;
+    private final Timer failedLatency;
 
     @Autowired
-    public FirebaseNotificationService(CustomUserDetailsService userService) {
-        this.userService = userService;
+    public FirebaseNotificationService(UserRepository userRepository, PushTransport transport,
+                                       MeterRegistry meterRegistry) {
+        this(userRepository, transport, LINGER, BASE_BACKOFF, meterRegistry);
     }
 
-    public boolean sendNotification(String token, String title, String body, String username) {
-        if (token == null || token.trim().isEmpty()) {
-            logger.error("FCM token is null or empty, cannot send notification.");
-            return false;
-        }
+    FirebaseNotificationService(UserRepository userRepository, PushTransport transport, Duration linger,
+                                Duration baseBackoff) {
+        this(userRepository, transport, linger, baseBackoff, new SimpleMeterRegistry());
+    }
+
+    private FirebaseNotificationService(UserRepository userRepository, PushTransport transport, Duration linger,
+                                        Duration baseBackoff, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transport = transport;
+        this.linger = linger;
+        this.baseBackoff = baseBackoff;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fcm-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        // Generate a unique messageId for this notification
-        String messageId = generateMessageId();
+        Gauge.builder("taskvantage.push.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Push notifications waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("taskvantage.push.batches.in-flight", inFlightBatches, AtomicInteger::get)
+                .description("Batches handed to the push transport and not yet answered")
+                .register(meterRegistry);
+        outcomeCounter(meterRegistry, "sent", sentCount);
+        outcomeCounter(meterRegistry, "failed", failedCount);
+        outcomeCounter(meterRegistry, "retried", retriedCount);
+        outcomeCounter(meterRegistry, "invalid_token", invalidTokenCount);
+        this.sentLatency = latencyTimer(meterRegistry, "sent");
+        this.failedLatency = latencyTimer(meterRegistry, "failed");
+    }
 
-        // Check for duplicate messages
-        if (isDuplicateMessage(messageId)) {
-            logger.info("Duplicate message detected, skipping notification send.");
-            return true; // Consider this a "success" since we're intentionally skipping
-        }
+    private static void outcomeCounter(MeterRegistry meterRegistry, String outcome, LongAdder count) {
+        FunctionCounter.builder("taskvantage.push.outcomes", count, LongAdder::sum)
+                .description("Push notification outcomes; retried and invalid_token are counted per attempt and per token")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
-        // Update the token cache
-        updateTokenCache(token, true);
-        String oldFcmToken = userService.findUserByUsername(username).getToken();
-        updateTokenCache(oldFcmToken, false);
+    // From enqueue until the push was accepted or given up on, including retries
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("taskvantage.push.latency")
+                .description("Time from queueing a push notification until it completed")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-        Message message = createMessage(token, title, body, messageId);
-        return sendMessageWithRetry(message, messageId, token);
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 
-    public void updateTokenCache(String token, boolean isActive) {
-        if (isActive) {
-            sentMessages.put(token, System.currentTimeMillis());
-        } else {
-            sentMessages.remove(token);
+    /**
+     * Queues a notification for delivery.
+     *
+     * @return completes with true once the push was accepted, or false when it was given up on
+     */
+    public CompletableFuture<Boolean> sendAsync(String token, String title, String body) {
+        if (token == null || token.trim().isEmpty()) {
+            logger.error("FCM token is null or empty, cannot send notification.");
+            return CompletableFuture.completedFuture(false);
         }
+
+        PendingMessage pending = new PendingMessage(token, createMessage(token, title, body, UUID.randomUUID().toString()));
+        enqueue(pending);
+        return pending.result;
+    }
+
+    public DeliveryStats getDeliveryStats() {
+        long sent = sentCount.sum();
+        long failed = failedCount.sum();
+        long completed = sent + failed;
+        double averageLatency = completed == 0 ? 0 : (double) totalLatencyMillis.sum() / completed;
+        return new DeliveryStats(queueDepth.get(), inFlightBatches.get(), sent, failed, retriedCount.sum(),
+                invalidTokenCount.sum(), averageLatency, maxLatencyMillis.get());
     }
 
-    private String generateMessageId() {
-        return UUID.randomUUID().toString();
+    private PushMessage createMessage(String token, String title, String body, String messageId) {
+        return new PushMessage(token, title, body, Map.of(
+                "messageId", messageId,
+                "timestamp", String.valueOf(System.currentTimeMillis())));
     }
 
-    private Message createMessage(String token, String title, String body, String messageId) {
-        return Message.builder()
-                .setToken(token)
-                .setNotification(Notification.builder()
-                        .setTitle(title)
-                        .setBody(body)
-                        .build())
-                .putData("messageId", messageId)
-                .putData("timestamp", String.valueOf(System.currentTimeMillis()))
-                .build();
+    private void enqueue(PendingMessage pending) {
+        queue.add(pending);
+        queueDepth.incrementAndGet();
+        scheduleDrain(linger);
     }
 
-    private boolean sendMessageWithRetry(Message message, String messageId, String token) {
-        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+    private void scheduleDrain(Duration delay) {
+        if (drainScheduled.compareAndSet(false, true)) {
             try {
-                String response = FirebaseMessaging.getInstance().send(message);
-                logger.info("Successfully sent message: {} for key: {}", response, messageId);
-                sentMessages.put(messageId, System.currentTimeMillis());
-                return true;
-            } catch (FirebaseMessagingException e) {
-                if (e.getMessagingErrorCode() == MessagingErrorCode.INVALID_ARGUMENT ||
-                        e.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED) {
-                    logger.warn("Invalid FCM token detected: {}", token);
-                    handleInvalidToken(token);
-                    return false;
-                }
-                logger.warn("Attempt {} failed to send FCM notification: {} (Error code: {})",
-                        attempt + 1, e.getMessage(), e.getMessagingErrorCode());
-                if (attempt < MAX_RETRIES - 1) {
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS);
-                    } catch (InterruptedException ex) {
-                        Thread.currentThread().interrupt();
-                    }
+                executor.schedule(this::drain, delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down: nothing left to send with
+                drainScheduled.set(false);
+                PendingMessage pending;
+                while ((pending = queue.poll()) != null) {
+                    queueDepth.decrementAndGet();
+                    complete(pending, false);
                 }
             }
         }
-        logger.error("Failed to send FCM notification after {} attempts.", MAX_RETRIES);
-        return false;
     }
 
-    private void handleInvalidToken(String token) {
-        userService.findUserByFCMToken(token).ifPresent(user -> {
-            logger.info("Clearing invalid FCM token for user: {}", user.getUsername());
-            userService.clearUserToken(user.getUsername());
+    private void drain() {
+        drainScheduled.set(false);
+        // When all batch slots are busy, the next completing batch drains again
+        while (inFlightBatches.get() < MAX_IN_FLIGHT_BATCHES) {
+            List<PendingMessage> batch = new ArrayList<>();
+            PendingMessage pending;
+            while (batch.size() < transport.maxBatchSize() && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queueDepth.addAndGet(-batch.size());
+            inFlightBatches.incrementAndGet();
+            sendBatch(batch);
+        }
+    }
+
+    private void sendBatch(List<PendingMessage> batch) {
+        CompletableFuture<List<Outcome>> outcomes;
+        try {
+            outcomes = transport.send(batch.stream().map(pending -> pending.message).toList());
+        } catch (RuntimeException e) {
+            outcomes = CompletableFuture.failedFuture(e);
+        }
+        outcomes.whenComplete((results, error) -> {
+            try {
+                handleOutcomes(batch, results, error);
+            } finally {
+                inFlightBatches.decrementAndGet();
+                if (!queue.isEmpty()) {
+                    scheduleDrain(Duration.ZERO);
+                }
+            }
         });
     }
 
-    private boolean isDuplicateMessage(String messageId) {
-        Long lastSentTime = sentMessages.get(messageId);
-        if (lastSentTime != null) {
-            long timeSinceLastMessage = System.currentTimeMillis() - lastSentTime;
-            if (TimeUnit.MILLISECONDS.toMinutes(timeSinceLastMessage) < MESSAGE_EXPIRY_MINUTES) {
-                return true;
+    private void handleOutcomes(List<PendingMessage> batch, List<Outcome> results, Throwable error) {
+        if (error != null) {
+            logger.warn("FCM batch of {} messages failed: {}", batch.size(), error.getMessage());
+        }
+
+        Set<String> invalidTokens = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage pending = batch.get(i);
+            Outcome outcome = error != null || results == null || i >= results.size() ? Outcome.RETRY : results.get(i);
+            switch (outcome) {
+                case SENT -> complete(pending, true);
+                case RETRY -> retry(pending);
+                case INVALID_TOKEN -> {
+                    invalidTokens.add(pending.token);
+                    complete(pending, false);
+                }
+                case FAILED -> complete(pending, false);
             }
         }
-        return false;
+
+        if (!invalidTokens.isEmpty()) {
+            clearInvalidTokens(invalidTokens);
+        }
+    }
+
+    private void retry(PendingMessage pending) {
+        pending.attempts++;
+        if (pending.attempts >= MAX_ATTEMPTS) {
+            logger.error("Failed to send FCM notification after {} attempts.", pending.attempts);
+            complete(pending, false);
+            return;
+        }
+        retriedCount.increment();
+        try {
+            executor.schedule(() -> enqueue(pending), backoffMillis(pending.attempts), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            complete(pending, false);
+        }
+    }
+
+    // Exponential backoff with equal jitter: half the delay is fixed, the other half random
+    private long backoffMillis(int attempts) {
+        long delay = Math.min(baseBackoff.toMillis() << Math.min(attempts - 1, 20), MAX_BACKOFF.toMillis());
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void complete(PendingMessage pending, boolean success) {
+        long latencyNanos = System.nanoTime() - pending.enqueuedNanos;
+        long latency = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        (success ? sentCount : failedCount).increment();
+        (success ? sentLatency : failedLatency).record(latencyNanos, TimeUnit.NANOSECONDS);
+        totalLatencyMillis.add(latency);
+        maxLatencyMillis.accumulateAndGet(latency, Math::max);
+        pending.result.complete(success);
+    }
+
+    private void clearInvalidTokens(Set<String> tokens) {
+        invalidTokenCount.add(tokens.size());
+        try {
+            int cleared = userRepository.clearTokens(tokens);
+            logger.info("Cleared {} invalid FCM token(s) from {} user(s)", tokens.size(), cleared);
+        } catch (RuntimeException e) {
+            logger.error("Failed to clear {} invalid FCM token(s): {}", tokens.size(), e.getMessage(), e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.taskvantage.backend.service;
+
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends push batches through FCM's {@code sendEachAsync}.
+ */
+@Component
+public class FirebasePushTransport implements PushTransport {
+
+    @Override
+    public CompletableFuture<List<Outcome>> send(List<PushMessage> messages) {
+        CompletableFuture<List<Outcome>> result = new CompletableFuture<>();
+        List<Message> fcmMessages = messages.stream().map(FirebasePushTransport::toMessage).toList();
+        ApiFutures.addCallback(FirebaseMessaging.getInstance().sendEachAsync(fcmMessages),
+                new ApiFutureCallback<BatchResponse>() {
+                    @Override
+                    public void onSuccess(BatchResponse response) {
+                        result.complete(response.getResponses().stream()
+                                .map(FirebasePushTransport::toOutcome)
+                                .toList());
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+                }, Runnable::run);
+        return result;
+    }
+
+    private static Message toMessage(PushMessage message) {
+        return Message.builder()
+                .setToken(message.token())
+                .setNotification(Notification.builder()
+                        .setTitle(message.title())
+                        .setBody(message.body())
+                        .build())
+                .putAllData(message.data())
+                .build();
+    }
+
+    static Outcome toOutcome(SendResponse response) {
+        if (response.isSuccessful()) {
+            return Outcome.SENT;
+        }
+        MessagingErrorCode code = response.getException().getMessagingErrorCode();
+        if (code == null) {
+            return Outcome.RETRY;
+        }
+        return switch (code) {
+            case INVALID_ARGUMENT, UNREGISTERED -> Outcome.INVALID_TOKEN;
+            case UNAVAILABLE, INTERNAL, QUOTA_EXCEEDED -> Outcome.RETRY;
+            default -> Outcome.FAILED;
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.jfr.EmbeddingRequestEvent;
+import com.taskvantage.backend.jfr.RecommendationEvent;
+import com.taskvantage.backend.jfr.ReminderCycleEvent;
+import com.taskvantage.backend.jfr.SimilarTaskSearchEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs a continuous Java Flight Recorder recording on demand, so per-event traces of slow embedding calls,
+ * similarity searches, recommendations and reminder cycles can be pulled from a live instance without attaching a
+ * profiler. The recording keeps only the last max-age of data, up to max-size on disk; a dump writes what it holds
+ * to a file for download.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingService.class);
+    static final String RECORDING_NAME = "taskvantage-continuous";
+    private static final List<Class<? extends Event>> APPLICATION_EVENTS = List.of(EmbeddingRequestEvent.class,
+            SimilarTaskSearchEvent.class, RecommendationEvent.class, ReminderCycleEvent.class);
+
+    /**
+     * State of the continuous recording; times and size are null while none is running.
+     */
+    public record RecordingStatus(boolean running, Instant startedAt, Duration maxAge, long maxSizeBytes,
+                                  Long recordedBytes) {}
+
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    // Not a monitor: dumps write to disk while holding it
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    @Autowired
+    public FlightRecordingService(@Value("${diagnostics.recording.max-age-minutes:30}") long maxAgeMinutes,
+                                  @Value("${diagnostics.recording.max-size-mb:64}") long maxSizeMb) {
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Starts the continuous recording with the JDK's low-overhead "default" settings plus the application events.
+     * Does nothing when it is already running.
+     */
+    public RecordingStatus start() throws IOException, ParseException {
+        lock.lock();
+        try {
+            if (!isRunning()) {
+                closeRecording();
+                Recording started = new Recording(Configuration.getConfiguration("default"));
+                started.setName(RECORDING_NAME);
+                APPLICATION_EVENTS.forEach(started::enable);
+                started.setToDisk(true);
+                started.setMaxAge(maxAge);
+                started.setMaxSize(maxSizeBytes);
+                started.start();
+                recording = started;
+                logger.info("Started flight recording (max age {}, max size {} bytes)", maxAge, maxSizeBytes);
+            }
+            return getStatus();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the data currently held by the recording to a new temporary file, which the caller deletes.
+     *
+     * @throws IllegalStateException if no recording is running
+     */
+    public Path dump() throws IOException {
+        lock.lock();
+        try {
+            if (!isRunning()) {
+                throw new IllegalStateException("No flight recording is running");
+            }
+            Path file = Files.createTempFile("taskvantage-", ".jfr");
+            try {
+                recording.dump(file);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            logger.info("Dumped flight recording ({} bytes)", Files.size(file));
+            return file;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            if (closeRecording()) {
+                logger.info("Stopped flight recording");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RecordingStatus getStatus() {
+        lock.lock();
+        try {
+            if (!isRunning()) {
+                return new RecordingStatus(false, null, maxAge, maxSizeBytes, null);
+            }
+            return new RecordingStatus(true, recording.getStartTime(), maxAge, maxSizeBytes, recording.getSize());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean closeRecording() {
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        recording = null;
+        return true;
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
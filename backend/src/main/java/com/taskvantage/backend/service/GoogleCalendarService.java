@@ -1,13 +1,19 @@
 package com.taskvantage.backend.service;
 
+import com.google.api.client.googleapis.apache.v2.GoogleApacheHttpTransport;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.http.*;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonObjectParser;
 import com.google.api.client.json.jackson2.JacksonFactory;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
 import com.taskvantage.backend.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,10 +21,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class GoogleCalendarService {
@@ -33,26 +44,281 @@ public class GoogleCalendarService {
     @Value("${spring.security.oauth2.client.registration.google.client-secret}")
     private String clientSecret;
 
+    // Overrides the Calendar API root (e.g. a local stand-in in tests); blank means Google's default endpoint
+    @Value("${google.calendar.root-url:}")
+    private String rootUrl;
+
+    // The Calendar batch endpoint accepts at most 50 calls per request
+    public static final int MAX_BATCH_SIZE = 50;
+    private static final int MAX_CACHED_CLIENTS = 500;
+    static final int LIST_PAGE_SIZE = 250;
+    // Only the fields the inbound sync maps onto tasks, which keeps the listing payload small
+    private static final String LIST_FIELDS = "items(id,status,summary,start,end),nextPageToken,nextSyncToken";
+
+    /**
+     * Google rejected the stored sync token (HTTP 410); the caller has to drop it and run a full sync.
+     */
+    public static class SyncTokenExpiredException extends IOException {
+        public SyncTokenExpiredException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Receives one page of changed events at a time, so a full sync never holds the whole calendar in memory.
+     */
+    @FunctionalInterface
+    public interface EventPageHandler {
+        void handle(List<Event> events);
+    }
+
+    /**
+     * One event call inside a batch. Updates are sent as PATCH with the task-owned fields,
+     * so no preceding GET is needed.
+     */
+    public static final class EventRequest {
+        public enum Action { CREATE, UPDATE, DELETE }
+
+        private final Action action;
+        private final String eventId;
+        private final String title;
+        private final ZonedDateTime start;
+        private final ZonedDateTime end;
+        private final boolean allDay;
+
+        private EventRequest(Action action, String eventId, String title, ZonedDateTime start, ZonedDateTime end, boolean allDay) {
+            this.action = action;
+            this.eventId = eventId;
+            this.title = title;
+            this.start = start;
+            this.end = end;
+            this.allDay = allDay;
+        }
+
+        public static EventRequest create(String title, ZonedDateTime start, ZonedDateTime end, boolean allDay) {
+            return new EventRequest(Action.CREATE, null, title, start, end, allDay);
+        }
+
+        public static EventRequest update(String eventId, String title, ZonedDateTime start, ZonedDateTime end, boolean allDay) {
+            return new EventRequest(Action.UPDATE, eventId, title, start, end, allDay);
+        }
+
+        public static EventRequest delete(String eventId) {
+            return new EventRequest(Action.DELETE, eventId, null, null, null, false);
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public String getEventId() {
+            return eventId;
+        }
+    }
+
+    /**
+     * Outcome of one batched call: the event id on success, otherwise the HTTP status and message from Google.
+     */
+    public static final class EventResult {
+        private final String eventId;
+        private final int statusCode;
+        private final String error;
+
+        EventResult(String eventId, int statusCode, String error) {
+            this.eventId = eventId;
+            this.statusCode = statusCode;
+            this.error = error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public String getEventId() {
+            return eventId;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private record CachedClient(String accessToken, Calendar calendar) {}
+
+    // Shared, pooled transport: the trust store and TLS context are built once and connections to Google are reused
     private final HttpTransport httpTransport;
 
-    public GoogleCalendarService() {
-        this.httpTransport = new NetHttpTransport();
+    // Per-user Calendar clients, least recently used first; an entry is replaced when the user's access token rotates
+    private final Map<Long, CachedClient> calendarClients = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedClient> eldest) {
+            return size() > MAX_CACHED_CLIENTS;
+        }
+    };
+
+    // Token validity answers, refreshed in the background shortly before they go stale
+    private final ExecutorService tokenRefreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "google-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TokenValidityCache tokenValidityCache;
+
+    public GoogleCalendarService() throws GeneralSecurityException, IOException {
+        this.httpTransport = GoogleApacheHttpTransport.newTrustedTransport();
+        this.tokenValidityCache = new TokenValidityCache(this::fetchTokenStatus, Clock.systemUTC(), tokenRefreshExecutor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        tokenRefreshExecutor.shutdownNow();
+    }
+
+    private Calendar getCalendarService(User user) {
+        String accessToken = user.getGoogleAccessToken();
+        if (user.getId() == null) {
+            // Ad-hoc users (e.g. the integration test) are not cached
+            return buildCalendarClient(accessToken);
+        }
+
+        synchronized (calendarClients) {
+            CachedClient cached = calendarClients.get(user.getId());
+            if (cached != null && cached.accessToken().equals(accessToken)) {
+                return cached.calendar();
+            }
+            Calendar calendar = buildCalendarClient(accessToken);
+            calendarClients.put(user.getId(), new CachedClient(accessToken, calendar));
+            return calendar;
+        }
     }
 
-    private Calendar getCalendarService(User user) throws GeneralSecurityException, IOException {
-        GoogleCredential credential = new GoogleCredential().setAccessToken(user.getGoogleAccessToken());
+    private Calendar buildCalendarClient(String accessToken) {
+        GoogleCredential credential = new GoogleCredential().setAccessToken(accessToken);
 
-        return new Calendar.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
+        Calendar.Builder builder = new Calendar.Builder(
+                httpTransport,
                 JacksonFactory.getDefaultInstance(),
                 credential
-        ).setApplicationName("TaskVantage").build();
+        ).setApplicationName("TaskVantage");
+        if (rootUrl != null && !rootUrl.isBlank()) {
+            builder.setRootUrl(rootUrl);
+        }
+        return builder.build();
     }
 
-    public String createCalendarEvent(User user, String taskTitle, ZonedDateTime start, ZonedDateTime end, boolean isAllDay)
+    public void evictCalendarClient(Long userId) {
+        synchronized (calendarClients) {
+            calendarClients.remove(userId);
+        }
+    }
+
+    /**
+     * Sends several event calls for one user in as few HTTP requests as possible (MAX_BATCH_SIZE per request).
+     * Results are returned in request order; per-call failures are reported in the result, while a failure of
+     * the batch request itself is thrown.
+     */
+    public List<EventResult> executeBatch(User user, List<EventRequest> requests) throws GeneralSecurityException, IOException {
+        Calendar calendarService = getCalendarService(user);
+        EventResult[] results = new EventResult[requests.size()];
+
+        for (int from = 0; from < requests.size(); from += MAX_BATCH_SIZE) {
+            BatchRequest batch = calendarService.batch();
+            int to = Math.min(from + MAX_BATCH_SIZE, requests.size());
+            for (int i = from; i < to; i++) {
+                EventRequest request = requests.get(i);
+                int index = i;
+                switch (request.action) {
+                    case CREATE -> calendarService.events()
+                            .insert("primary", toEvent(request.title, request.start, request.end, request.allDay))
+                            .queue(batch, eventCallback(results, index));
+                    case UPDATE -> calendarService.events()
+                            .patch("primary", request.eventId, toEvent(request.title, request.start, request.end, request.allDay))
+                            .queue(batch, eventCallback(results, index));
+                    case DELETE -> calendarService.events()
+                            .delete("primary", request.eventId)
+                            .queue(batch, new JsonBatchCallback<Void>() {
+                                @Override
+                                public void onSuccess(Void unused, HttpHeaders responseHeaders) {
+                                    results[index] = new EventResult(request.eventId, 200, null);
+                                }
+
+                                @Override
+                                public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                                    results[index] = new EventResult(request.eventId, error.getCode(), error.getMessage());
+                                }
+                            });
+                }
+            }
+            batch.execute();
+        }
+
+        logger.info("Executed {} Google Calendar operations in {} batch request(s)",
+                requests.size(), (requests.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Lists the events on the user's primary calendar that changed since {@code syncToken}, handing them to
+     * {@code handler} page by page, and returns the token for the next incremental pass. A null token lists
+     * the whole calendar (cancelled events are then omitted by Google). Throws SyncTokenExpiredException
+     * when Google invalidates the token.
+     */
+    public String listEventChanges(User user, String syncToken, EventPageHandler handler)
             throws GeneralSecurityException, IOException {
         Calendar calendarService = getCalendarService(user);
+        String pageToken = null;
+        int changed = 0;
+        Events page;
+        do {
+            Calendar.Events.List request = calendarService.events().list("primary")
+                    .setMaxResults(LIST_PAGE_SIZE)
+                    .setFields(LIST_FIELDS)
+                    .setPageToken(pageToken);
+            if (syncToken != null) {
+                request.setSyncToken(syncToken);
+            } else {
+                // Incremental listings report deletions by themselves; a full one (first pass, or after the token
+                // was invalidated) must ask for them, or tasks stay linked to events deleted in the meantime
+                request.setShowDeleted(true);
+            }
+            try {
+                page = request.execute();
+            } catch (GoogleJsonResponseException e) {
+                if (e.getStatusCode() == 410) {
+                    throw new SyncTokenExpiredException("Calendar sync token expired for user " + user.getId(), e);
+                }
+                throw e;
+            }
+            List<Event> items = page.getItems() != null ? page.getItems() : List.of();
+            changed += items.size();
+            handler.handle(items);
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        logger.debug("Listed {} calendar event(s) for user {} ({} sync)", changed, user.getId(),
+                syncToken != null ? "incremental" : "full");
+        return page.getNextSyncToken();
+    }
+
+    private static JsonBatchCallback<Event> eventCallback(EventResult[] results, int index) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(Event event, HttpHeaders responseHeaders) {
+                results[index] = new EventResult(event.getId(), 200, null);
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                results[index] = new EventResult(null, error.getCode(), error.getMessage());
+            }
+        };
+    }
 
+    private Event toEvent(String taskTitle, ZonedDateTime start, ZonedDateTime end, boolean isAllDay) {
         Event event = new Event()
                 .setSummary(taskTitle);
 
@@ -63,6 +329,13 @@ public class GoogleCalendarService {
             event.setStart(new EventDateTime().setDateTime(new com.google.api.client.util.DateTime(convertToDate(start))))
                     .setEnd(new EventDateTime().setDateTime(new com.google.api.client.util.DateTime(convertToDate(end))));
         }
+        return event;
+    }
+
+    public String createCalendarEvent(User user, String taskTitle, ZonedDateTime start, ZonedDateTime end, boolean isAllDay)
+            throws GeneralSecurityException, IOException {
+        Calendar calendarService = getCalendarService(user);
+        Event event = toEvent(taskTitle, start, end, isAllDay);
 
         Event createdEvent = calendarService.events().insert("primary", event).execute();
         logger.info("Created Google Calendar event with ID: {}", createdEvent.getId());
@@ -185,7 +458,9 @@ public class GoogleCalendarService {
             HttpResponse response = request.execute();
 
             boolean success = response.getStatusCode() == 200;
-            if (!success) {
+            if (success) {
+                tokenValidityCache.invalidate(token);
+            } else {
                 logger.error("Token revocation failed with status code: {}", response.getStatusCode());
             }
 
@@ -198,29 +473,47 @@ public class GoogleCalendarService {
         }
     }
 
+    /**
+     * Whether Google still accepts the access token. Answers are cached (see TokenValidityCache),
+     * so this only reaches tokeninfo on a cache miss.
+     */
     public boolean isTokenValid(String token) {
-        try {
-            HttpRequestFactory requestFactory = httpTransport.createRequestFactory();
-            GenericUrl url = new GenericUrl(GOOGLE_TOKEN_INFO_URL + "?access_token=" + token);
+        return tokenValidityCache.isValid(token);
+    }
 
-            HttpRequest request = requestFactory.buildGetRequest(url);
-            HttpResponse response = request.execute();
+    private TokenValidityCache.TokenStatus fetchTokenStatus(String token) throws IOException {
+        GenericUrl url = new GenericUrl(GOOGLE_TOKEN_INFO_URL);
+        url.set("access_token", token);
 
-            boolean isValid = response.getStatusCode() == 200;
+        HttpRequest request = httpTransport.createRequestFactory().buildGetRequest(url);
+        request.setParser(new JsonObjectParser(JacksonFactory.getDefaultInstance()));
+        request.setThrowExceptionOnExecuteError(false);
+        HttpResponse response = request.execute();
+        try {
+            int statusCode = response.getStatusCode();
+            if (statusCode == 400 || statusCode == 401) {
+                return TokenValidityCache.TokenStatus.invalid();
+            }
+            if (statusCode != 200) {
+                throw new IOException("Token info returned " + statusCode);
+            }
+            Object expiresIn = response.parseAs(GenericJson.class).get("expires_in");
+            return TokenValidityCache.TokenStatus.valid(
+                    expiresIn != null ? Duration.ofSeconds(Long.parseLong(expiresIn.toString())) : null);
+        } finally {
             response.disconnect();
-            return isValid;
-
-        } catch (IOException e) {
-            logger.debug("Token validation failed, assuming invalid: {}", e.getMessage());
-            return false;
         }
     }
 
     private void clearUserGoogleData(User user) {
+        if (user.getId() != null) {
+            evictCalendarClient(user.getId());
+        }
         user.setGoogleAccessToken(null);
         user.setGoogleRefreshToken(null);
         user.setGoogleEmail(null);
         user.setTaskSyncEnabled(false);
+        user.setGoogleCalendarSyncToken(null);
 
         logger.debug("Cleared Google Calendar data for user ID: {}", user.getId());
     }
@@ -0,0 +1,109 @@
+package com.taskvantage.backend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limits login and registration attempts before any password is hashed: one token bucket per client IP
+ * and one per account name. Requests over either limit are turned away without touching the database or the
+ * hashing pool. Buckets that have refilled are dropped periodically, so memory follows recent traffic only.
+ */
+@Service
+public class LoginAdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAdmissionService.class);
+
+    public enum Decision {
+        ADMITTED, IP_LIMITED, ACCOUNT_LIMITED
+    }
+
+    /**
+     * Counters since startup, plus the number of buckets currently held.
+     */
+    public record AdmissionStats(long admitted, long rejectedByIp, long rejectedByAccount, int trackedIps,
+                                 int trackedAccounts) {}
+
+    private final int ipPerMinute;
+    private final int accountPerMinute;
+    private final LongSupplier nanoClock;
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> accountBuckets = new ConcurrentHashMap<>();
+
+    private final LongAdder admittedCount = new LongAdder();
+    private final LongAdder ipRejectedCount = new LongAdder();
+    private final LongAdder accountRejectedCount = new LongAdder();
+
+    @Autowired
+    public LoginAdmissionService(@Value("${auth.admission.ip-per-minute:30}") int ipPerMinute,
+                                 @Value("${auth.admission.account-per-minute:10}") int accountPerMinute,
+                                 MeterRegistry meterRegistry) {
+        this(ipPerMinute, accountPerMinute, System::nanoTime);
+        decisionCounter(meterRegistry, "admitted", admittedCount);
+        decisionCounter(meterRegistry, "ip_limited", ipRejectedCount);
+        decisionCounter(meterRegistry, "account_limited", accountRejectedCount);
+    }
+
+    LoginAdmissionService(int ipPerMinute, int accountPerMinute, LongSupplier nanoClock) {
+        this.ipPerMinute = ipPerMinute;
+        this.accountPerMinute = accountPerMinute;
+        this.nanoClock = nanoClock;
+    }
+
+    private static void decisionCounter(MeterRegistry meterRegistry, String decision, LongAdder count) {
+        FunctionCounter.builder("taskvantage.auth.admission.decisions", count, LongAdder::sum)
+                .description("Login and registration attempts by admission decision")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    public Decision admit(String clientIp, String account) {
+        if (clientIp != null && !bucket(ipBuckets, clientIp, ipPerMinute).tryAcquire()) {
+            ipRejectedCount.increment();
+            logger.debug("Login attempt rate limited by client address");
+            return Decision.IP_LIMITED;
+        }
+        if (account != null && !bucket(accountBuckets, account.trim().toLowerCase(Locale.ROOT), accountPerMinute).tryAcquire()) {
+            accountRejectedCount.increment();
+            logger.debug("Login attempt rate limited by account");
+            return Decision.ACCOUNT_LIMITED;
+        }
+        admittedCount.increment();
+        return Decision.ADMITTED;
+    }
+
+    /**
+     * Seconds until the given limit lets one more attempt through, for the Retry-After header.
+     */
+    public long retryAfterSeconds(Decision decision) {
+        int perMinute = decision == Decision.ACCOUNT_LIMITED ? accountPerMinute : ipPerMinute;
+        return Math.max(1, (long) Math.ceil(60.0 / Math.max(perMinute, 1)));
+    }
+
+    public AdmissionStats getStats() {
+        return new AdmissionStats(admittedCount.sum(), ipRejectedCount.sum(), accountRejectedCount.sum(),
+                ipBuckets.size(), accountBuckets.size());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.admission.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        ipBuckets.values().removeIf(TokenBucket::isFull);
+        accountBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    // Burst capacity equals the per-minute limit
+    private TokenBucket bucket(Map<String, TokenBucket> buckets, String key, int perMinute) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(perMinute / 60.0, perMinute, nanoClock));
+    }
+}
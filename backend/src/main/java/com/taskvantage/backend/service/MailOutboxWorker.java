@@ -0,0 +1,216 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.MailOutboxMessage;
+import com.taskvantage.backend.repository.MailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the mail outbox. Each batch of due messages is handed to the mail sender in a single call, which sends
+ * them all over one SMTP connection instead of connecting and negotiating STARTTLS once per email.
+ * Messages the server rejects are retried with exponential backoff. The worker runs on its poll interval and
+ * is also woken right after a message is queued, so email still goes out within moments. Every instance runs
+ * this worker, so due rows are leased for CLAIM_LEASE before they are sent.
+ */
+@Service
+public class MailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutboxWorker.class);
+    static final int BATCH_SIZE = 50;
+    static final int MAX_ATTEMPTS = 6;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    // Long enough for a full batch over one SMTP connection; rows of a worker that went away become due again after it
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final ExecutorService executor;
+    private final String workerId = UUID.randomUUID().toString();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    // Held across SMTP and database calls, so not a monitor: a virtual thread blocked under it would pin its carrier
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    @Autowired
+    public MailOutboxWorker(MailOutboxRepository outboxRepository, JavaMailSender mailSender) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Drains the outbox in the background without waiting for the next poll. Calls made while a wake-up is
+     * already pending are folded into it.
+     */
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                try {
+                    drainOutbox();
+                } catch (RuntimeException e) {
+                    logger.error("Mail outbox drain failed: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the rows stay queued for the next start
+            wakeUpPending.set(false);
+        }
+    }
+
+    // Other instances are kept off these rows by the lease; the lock only keeps this instance's wake-up and
+    // scheduled poll from draining side by side
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:30000}")
+    public void drainOutbox() {
+        drainLock.lock();
+        try {
+            while (true) {
+                ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+                List<Long> candidates = outboxRepository.findClaimableMessageIds(now, Pageable.ofSize(BATCH_SIZE));
+                if (candidates.isEmpty()) {
+                    return;
+                }
+                outboxRepository.claimMessages(candidates, workerId, now, now.plus(CLAIM_LEASE));
+                List<MailOutboxMessage> due = outboxRepository.findClaimedMessages(candidates, workerId, now);
+                if (!due.isEmpty()) {
+                    logger.debug("Sending {} queued emails", due.size());
+                    sendBatch(due, now);
+                }
+                if (candidates.size() < BATCH_SIZE) {
+                    return;
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    void sendBatch(List<MailOutboxMessage> batch, ZonedDateTime now) {
+        Map<MimeMessage, MailOutboxMessage> byMimeMessage = new LinkedHashMap<>();
+        List<Long> unsendable = new ArrayList<>();
+        for (MailOutboxMessage message : batch) {
+            try {
+                byMimeMessage.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                // A malformed address will not get better on retry
+                logger.error("Dropping queued email {}: {}", message.getId(), e.getMessage());
+                unsendable.add(message.getId());
+            }
+        }
+        if (!unsendable.isEmpty()) {
+            outboxRepository.deleteByIdIn(unsendable);
+        }
+        if (byMimeMessage.isEmpty()) {
+            return;
+        }
+
+        Map<MailOutboxMessage, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(byMimeMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Failed messages are reported individually; the rest of the batch was accepted
+            e.getFailedMessages().forEach((failed, error) -> {
+                MailOutboxMessage message = byMimeMessage.get(failed);
+                if (message != null) {
+                    failures.put(message, error);
+                }
+            });
+            if (failures.isEmpty()) {
+                byMimeMessage.values().forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            // Authentication or connection problems fail the whole batch
+            byMimeMessage.values().forEach(message -> failures.put(message, e));
+        }
+
+        List<Long> sent = byMimeMessage.values().stream()
+                .filter(message -> !failures.containsKey(message))
+                .map(MailOutboxMessage::getId)
+                .toList();
+        if (!sent.isEmpty()) {
+            outboxRepository.deleteByIdIn(sent);
+        }
+        if (!failures.isEmpty()) {
+            logger.warn("{} of {} queued emails failed to send", failures.size(), byMimeMessage.size());
+            scheduleRetries(failures, now);
+        }
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), message.isHtml());
+        return mimeMessage;
+    }
+
+    private void scheduleRetries(Map<MailOutboxMessage, Exception> failures, ZonedDateTime now) {
+        // One UPDATE per distinct attempt count and error instead of one per message
+        Map<Integer, Map<String, List<Long>>> byAttempts = failures.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> entry.getKey().getAttempts() + 1,
+                        Collectors.groupingBy(entry -> String.valueOf(truncate(entry.getValue().getMessage())),
+                                Collectors.mapping(entry -> entry.getKey().getId(), Collectors.toList()))));
+        byAttempts.forEach((attempts, byError) -> byError.forEach((error, ids) -> {
+            if (attempts >= MAX_ATTEMPTS) {
+                logger.error("Giving up on {} queued email(s) after {} attempts: {}", ids.size(), attempts, error);
+                outboxRepository.deleteByIdIn(ids);
+                return;
+            }
+            outboxRepository.scheduleRetry(ids, attempts, now.plus(backoff(attempts)), error);
+        }));
+    }
+
+    // 30s, 1m, 2m, 4m ... capped at MAX_BACKOFF
+    static Duration backoff(int attempts) {
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
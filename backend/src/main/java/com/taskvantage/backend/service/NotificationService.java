@@ -1,187 +1,233 @@
 package com.taskvantage.backend.service;
 
-import com.taskvantage.backend.model.Task;
-import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.dto.DueNotification;
 import com.taskvantage.backend.repository.TaskRepository;
-import com.taskvantage.backend.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
-
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers reminders handed over by ReminderScheduler as push notifications.
+ */
 @Service
 public class NotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
-    private static final Map<String, NotificationAttempt> notificationAttempts = new ConcurrentHashMap<>();
-    private static final long NOTIFICATION_COOLDOWN_MINUTES = 15;
-    private static final long NOTIFICATION_WINDOW_MINUTES = 15;
-    private static final int MAX_ATTEMPTS = 3;
+    // The standard reminder goes out this long before a task's scheduled start
+    static final Duration START_REMINDER_LEAD = Duration.ofMinutes(15);
+    // How long a node may hold a reminder before another node can take it over
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(2);
+    // Tasks named in a digest body; the rest are counted
+    static final int DIGEST_MAX_LISTED = 5;
 
     private final TaskRepository taskRepository;
-    private final UserRepository userRepository;
     private final FirebaseNotificationService firebaseNotificationService;
-
-    private static class NotificationAttempt {
-        final long timestamp;
-        int attempts;
-        boolean success;
-
-        NotificationAttempt() {
-            this.timestamp = System.currentTimeMillis();
-            this.attempts = 1;
-            this.success = false;
-        }
-
-        boolean canRetry() {
-            return attempts < MAX_ATTEMPTS && !success;
-        }
-
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > TimeUnit.MINUTES.toMillis(NOTIFICATION_COOLDOWN_MINUTES);
-        }
-    }
+    private final String nodeId;
+    private final Duration digestWindow;
 
     @Autowired
     public NotificationService(
             TaskRepository taskRepository,
-            UserRepository userRepository,
-            FirebaseNotificationService firebaseNotificationService) {
+            FirebaseNotificationService firebaseNotificationService,
+            @Value("${notifications.node-id:}") String nodeId,
+            @Value("${notifications.digest-window-minutes:15}") long digestWindowMinutes) {
         this.taskRepository = taskRepository;
-        this.userRepository = userRepository;
         this.firebaseNotificationService = firebaseNotificationService;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.digestWindow = Duration.ofMinutes(Math.max(0, digestWindowMinutes));
     }
 
-    @Scheduled(fixedRate = 60000) // Runs every minute
-    @Transactional
-    public void checkAndSendNotifications() {
-        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
-        ZonedDateTime windowEnd = now.plusMinutes(NOTIFICATION_WINDOW_MINUTES);
-
-        logger.debug("Starting notification check at {} for tasks starting before {}", now, windowEnd);
-
-        List<User> users = userRepository.findUsersWithValidTokens();
-        logger.debug("Processing notifications for {} users", users.size());
-
-        cleanupOldAttempts();
+    /**
+     * How far ahead a user's upcoming start reminders are pulled into the same digest; zero turns digests off.
+     */
+    public Duration getDigestWindow() {
+        return digestWindow;
+    }
 
-        for (User user : users) {
-            try {
-                processUserTasks(user, now, windowEnd);
-            } catch (Exception e) {
-                logger.error("Error processing notifications for user ID {}: {}", user.getId(), e.getMessage(), e);
+    /**
+     * Claims due reminders for this node and returns the ones it won. Start reminders are leased for CLAIM_LEASE
+     * with one UPDATE; per-task reminders are claimed by advancing the task's reminder high-water mark. Every node
+     * fires the same reminders, so the claim is what keeps a push from going out once per node.
+     */
+    public List<DueNotification> claim(List<DueNotification> notifications, ZonedDateTime now) {
+        Set<Long> startReminderTaskIds = new HashSet<>();
+        Map<ZonedDateTime, Set<Long>> ownRemindersByTime = new HashMap<>();
+        for (DueNotification notification : notifications) {
+            if (notification.isStartReminder()) {
+                startReminderTaskIds.add(notification.getTaskId());
+            } else {
+                ownRemindersByTime.computeIfAbsent(notification.getRemindAt(), at -> new HashSet<>())
+                        .add(notification.getTaskId());
             }
         }
 
-        logger.debug("Notification check completed at {}", ZonedDateTime.now(ZoneOffset.UTC));
+        Set<Long> claimedStarts = new HashSet<>();
+        if (!startReminderTaskIds.isEmpty()) {
+            taskRepository.claimNotifications(startReminderTaskIds, nodeId, now, now.plus(CLAIM_LEASE));
+            claimedStarts.addAll(taskRepository.findClaimedNotifications(startReminderTaskIds, nodeId, now));
+        }
+        Map<ZonedDateTime, Set<Long>> claimedOwn = new HashMap<>();
+        ownRemindersByTime.forEach((remindAt, taskIds) -> {
+            taskRepository.claimReminders(taskIds, remindAt, nodeId);
+            claimedOwn.put(remindAt, new HashSet<>(taskRepository.findClaimedReminders(taskIds, remindAt, nodeId)));
+        });
+
+        List<DueNotification> claimed = notifications.stream()
+                .filter(notification -> notification.isStartReminder()
+                        ? claimedStarts.contains(notification.getTaskId())
+                        : claimedOwn.get(notification.getRemindAt()).contains(notification.getTaskId()))
+                .toList();
+        if (claimed.size() < notifications.size()) {
+            logger.debug("{} of {} due reminders are claimed by other nodes", notifications.size() - claimed.size(),
+                    notifications.size());
+        }
+        return claimed;
     }
 
-    @Transactional
-    private void processUserTasks(User user, ZonedDateTime now, ZonedDateTime windowEnd) {
-        if (user.getToken() == null) {
-            logger.debug("Skipping notification check for user ID {} - no FCM token", user.getId());
-            return;
+    /**
+     * Hands a batch of claimed reminders to the push queue; the returned future completes with the ones that
+     * could not be delivered. In digest mode a user's reminders in the batch go out as one summarised push.
+     * Delivered start reminders are flagged as sent and failed ones have their lease released, one UPDATE each.
+     */
+    public CompletableFuture<List<DueNotification>> deliver(List<DueNotification> notifications, ZonedDateTime now) {
+        if (notifications.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
         }
 
-        List<Task> tasksToNotify = taskRepository.findTasksScheduledBetween(
-                user.getId(),
-                now,
-                windowEnd
-        );
+        Map<DueNotification, CompletableFuture<Boolean>> resultByNotification = new IdentityHashMap<>();
+        for (List<DueNotification> group : groupForDelivery(notifications)) {
+            // A task's start reminder and one of its own reminders can fall in the same batch
+            List<DueNotification> tasks = new ArrayList<>(group.stream().collect(Collectors.toMap(
+                    DueNotification::getTaskId, notification -> notification, (a, b) -> a, LinkedHashMap::new)).values());
+            CompletableFuture<Boolean> result = tasks.size() == 1
+                    ? sendNotification(tasks.get(0), now)
+                    : sendDigest(tasks, now);
+            group.forEach(notification -> resultByNotification.put(notification, result));
+        }
 
-        for (Task task : tasksToNotify) {
-            if (shouldSendNotification(task, now)) {
-                String notificationKey = createNotificationKey(user.getId(), task.getId());
-                sendNotification(user, task, now, notificationKey);
+        List<CompletableFuture<Boolean>> results = notifications.stream().map(resultByNotification::get).toList();
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            List<Long> sentStartReminders = new ArrayList<>();
+            List<Long> failedStartReminders = new ArrayList<>();
+            List<DueNotification> failed = new ArrayList<>();
+            for (int i = 0; i < notifications.size(); i++) {
+                DueNotification notification = notifications.get(i);
+                boolean success = results.get(i).join();
+                if (!success) {
+                    failed.add(notification);
+                }
+                if (notification.isStartReminder()) {
+                    (success ? sentStartReminders : failedStartReminders).add(notification.getTaskId());
+                }
             }
-        }
+
+            if (!sentStartReminders.isEmpty()) {
+                taskRepository.markNotificationsSent(sentStartReminders, nodeId);
+            }
+            if (!failedStartReminders.isEmpty()) {
+                taskRepository.releaseNotificationClaims(failedStartReminders, nodeId);
+            }
+            return failed;
+        });
     }
 
-    private boolean shouldSendNotification(Task task, ZonedDateTime now) {
-        // Skip if notification was already sent or task is completed
-        if (Boolean.TRUE.equals(task.getNotificationSent()) || Task.isCompletedStatus(task.getStatus())) {
-            logger.debug("Skipping notification for task '{}' - already sent or completed", task.getTitle());
-            return false;
+    // One group per user in digest mode, otherwise one group per reminder
+    private List<List<DueNotification>> groupForDelivery(List<DueNotification> notifications) {
+        if (digestWindow.isZero()) {
+            return notifications.stream().map(List::of).toList();
         }
-
-        // Calculate minutes until task starts
-        long minutesUntilStart = ChronoUnit.MINUTES.between(now, task.getScheduledStart());
-
-        // Only send notification if we're within the notification window
-        return minutesUntilStart <= NOTIFICATION_WINDOW_MINUTES && minutesUntilStart > 0;
+        Map<Long, List<DueNotification>> byUser = new LinkedHashMap<>();
+        for (DueNotification notification : notifications) {
+            byUser.computeIfAbsent(notification.getUserId(), id -> new ArrayList<>()).add(notification);
+        }
+        return new ArrayList<>(byUser.values());
     }
 
-    private String createNotificationKey(Long userId, Long taskId) {
-        return String.format("%d-%d", userId, taskId);
+    private CompletableFuture<Boolean> sendNotification(DueNotification notification, ZonedDateTime now) {
+        return send(notification.getToken(), notification.getTitle(), buildMessage(notification, now),
+                notification.getUserId(), "task ID " + notification.getTaskId());
     }
 
-    private void sendNotification(User user, Task task, ZonedDateTime now, String notificationKey) {
-        NotificationAttempt attempt = notificationAttempts.get(notificationKey);
-
-        if (attempt != null && !attempt.isExpired()) {
-            if (!attempt.canRetry()) {
-                logger.debug("Skipping notification for task '{}' - max attempts reached or already successful",
-                        task.getTitle());
-                return;
-            }
-            attempt.attempts++;
-        } else {
-            attempt = new NotificationAttempt();
-            notificationAttempts.put(notificationKey, attempt);
-        }
+    private CompletableFuture<Boolean> sendDigest(List<DueNotification> notifications, ZonedDateTime now) {
+        DueNotification first = notifications.get(0);
+        return send(first.getToken(), String.format("%d tasks coming up", notifications.size()),
+                buildDigestMessage(notifications, now), first.getUserId(), "digest of " + notifications.size() + " tasks");
+    }
 
+    private CompletableFuture<Boolean> send(String token, String title, String body, Long userId, String description) {
+        CompletableFuture<Boolean> result;
         try {
-            // Set notification as sent before actually sending to prevent race conditions
-            task.setNotificationSent(true);
-            task = taskRepository.save(task);
-
-            // Calculate minutes until task starts
-            long minutesUntilStart = ChronoUnit.MINUTES.between(now, task.getScheduledStart());
-            String timeMessage = minutesUntilStart > 1
-                    ? String.format("starts in %d minutes", minutesUntilStart)
-                    : "starts in less than a minute";
-
-            String message = String.format("Your task '%s' %s", task.getTitle(), timeMessage);
-
-            boolean success = firebaseNotificationService.sendNotification(
-                    user.getToken(),
-                    task.getTitle(),
-                    message,
-                    user.getUsername()
-            );
+            result = firebaseNotificationService.sendAsync(token, title, body);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
 
+        return result.handle((success, error) -> {
+            if (error != null) {
+                logger.error("Failed to send notification for {} to user ID {}: {}",
+                        description, userId, error.getMessage(), error);
+                return false;
+            }
             if (success) {
-                logger.debug("Successfully sent notification for task ID {} to user ID {}",
-                        task.getId(), user.getId());
-                attempt.success = true;
+                logger.debug("Successfully sent notification for {} to user ID {}", description, userId);
             } else {
-                // If notification fails, revert the notification sent flag
-                task.setNotificationSent(false);
-                taskRepository.save(task);
-                logger.error("Failed to send notification for task '{}'", task.getTitle());
+                logger.error("Failed to send notification for {} to user ID {}", description, userId);
             }
+            return success;
+        });
+    }
 
-        } catch (Exception e) {
-            // If notification fails, revert the notification sent flag
-            task.setNotificationSent(false);
-            taskRepository.save(task);
-
-            logger.error("Failed to send notification for task ID {} to user ID {}: {}",
-                    task.getId(), user.getId(), e.getMessage(), e);
+    static String buildMessage(DueNotification notification, ZonedDateTime now) {
+        ZonedDateTime start = notification.getScheduledStart();
+        if (start == null || !start.isAfter(now)) {
+            return String.format("Reminder: your task '%s'", notification.getTitle());
         }
+
+        // Calculate minutes until task starts
+        long minutesUntilStart = ChronoUnit.MINUTES.between(now, start);
+        String timeMessage = minutesUntilStart > 1
+                ? String.format("starts in %d minutes", minutesUntilStart)
+                : "starts in less than a minute";
+        return String.format("Your task '%s' %s", notification.getTitle(), timeMessage);
     }
 
-    private void cleanupOldAttempts() {
-        notificationAttempts.entrySet().removeIf(entry -> entry.getValue().isExpired());
+    static String buildDigestMessage(List<DueNotification> notifications, ZonedDateTime now) {
+        List<DueNotification> sorted = notifications.stream()
+                .sorted(Comparator.comparing(DueNotification::getScheduledStart,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        StringBuilder message = new StringBuilder();
+        for (DueNotification notification : sorted.subList(0, Math.min(DIGEST_MAX_LISTED, sorted.size()))) {
+            if (message.length() > 0) {
+                message.append(", ");
+            }
+            message.append('\'').append(notification.getTitle()).append('\'');
+            ZonedDateTime start = notification.getScheduledStart();
+            if (start != null && start.isAfter(now)) {
+                message.append(" in ").append(Math.max(1, ChronoUnit.MINUTES.between(now, start))).append(" min");
+            }
+        }
+        if (sorted.size() > DIGEST_MAX_LISTED) {
+            message.append(String.format(" and %d more", sorted.size() - DIGEST_MAX_LISTED));
+        }
+        return message.toString();
     }
 }
@@ -0,0 +1,108 @@
+package com.taskvantage.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing (BCrypt checks on login, encoding on registration) on a small dedicated pool instead of
+ * Tomcat request threads. The pool has a fixed number of threads and a bounded queue; work beyond that is
+ * rejected straight away, so a login burst cannot tie up the threads serving the rest of the API.
+ */
+@Service
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWaitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingExecutor(@Value("${auth.hashing.threads:0}") int threads,
+                                   @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        // BCrypt is CPU bound; by default leave half the cores for everything else
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWaitTimer = Timer.builder("taskvantage.auth.hashing.queue.wait")
+                .description("Time a password hash waited for a free hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("taskvantage.auth.hashing.duration")
+                .description("Time spent hashing or checking a password")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("taskvantage.auth.hashing.rejected")
+                .description("Password hashes turned away because the pool and its queue were full")
+                .register(meterRegistry);
+        Gauge.builder("taskvantage.auth.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a free hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("taskvantage.auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues the task. When the pool and its queue are full the returned future fails at once with
+     * RejectedExecutionException.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                T value = null;
+                Throwable failure = null;
+                try {
+                    value = task.call();
+                } catch (Throwable e) {
+                    failure = e;
+                }
+                // Recorded before completing, so callers see the timing of their own task
+                hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Password hashing pool is saturated ({} queued); rejecting request", executor.getQueue().size());
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+}
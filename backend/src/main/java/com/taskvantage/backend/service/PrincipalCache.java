@@ -0,0 +1,103 @@
+package com.taskvantage.backend.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Keeps recently authenticated principals in memory so a request carrying a JWT does not have to load its user
+ * from the database. Entries are found by the name the user logged in with (username or Google email) and by
+ * user id, expire after {@link #TTL}, and are dropped as soon as the user row is saved on this instance.
+ * The TTL bounds how long a change made through another instance can go unnoticed.
+ */
+final class PrincipalCache {
+
+    static final Duration TTL = Duration.ofMinutes(2);
+    static final int MAX_ENTRIES = 10_000;
+
+    private record Entry(CustomUserDetails details, Instant expiresAt) {}
+
+    private final Clock clock;
+    private final Map<String, Entry> byName = lruMap();
+    private final Map<Long, Entry> byId = lruMap();
+    // Bumped on every invalidation, so a load that raced with a user update is not cached
+    private long generation;
+
+    PrincipalCache(Clock clock) {
+        this.clock = clock;
+    }
+
+    CustomUserDetails getByName(String name, Function<String, CustomUserDetails> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            CustomUserDetails cached = fresh(byName.get(name));
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        // Loaded outside the lock; concurrent misses for the same user may each query the database
+        CustomUserDetails loaded = loader.apply(name);
+        Entry entry = new Entry(loaded, clock.instant().plus(TTL));
+        synchronized (this) {
+            if (loadGeneration != generation) {
+                return loaded;
+            }
+            byName.put(name, entry);
+            if (loaded.getUser().getId() != null) {
+                byId.put(loaded.getUser().getId(), entry);
+            }
+        }
+        return loaded;
+    }
+
+    CustomUserDetails getById(Long userId, Function<Long, CustomUserDetails> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            CustomUserDetails cached = fresh(byId.get(userId));
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        CustomUserDetails loaded = loader.apply(userId);
+        synchronized (this) {
+            if (loadGeneration != generation) {
+                return loaded;
+            }
+            byId.put(userId, new Entry(loaded, clock.instant().plus(TTL)));
+        }
+        return loaded;
+    }
+
+    // Drops every entry for the user, whichever name it was cached under
+    synchronized void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        generation++;
+        byId.remove(userId);
+        byName.values().removeIf(entry -> Objects.equals(entry.details().getUser().getId(), userId));
+    }
+
+    synchronized int size() {
+        return byName.size() + byId.size();
+    }
+
+    private CustomUserDetails fresh(Entry entry) {
+        return entry != null && clock.instant().isBefore(entry.expiresAt()) ? entry.details() : null;
+    }
+
+    private static <K> Map<K, Entry> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.taskvantage.backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends batches of push messages for FirebaseNotificationService. FirebasePushTransport talks to FCM; tests and
+ * load tests plug in an in-process stand-in so the reminder pipeline can run without Google.
+ */
+@FunctionalInterface
+public interface PushTransport {
+
+    /**
+     * What happened to one message of a batch.
+     */
+    enum Outcome { SENT, RETRY, INVALID_TOKEN, FAILED }
+
+    record PushMessage(String token, String title, String body, Map<String, String> data) {}
+
+    /**
+     * Sends one batch and completes with an outcome per message, in order. A batch that fails as a whole
+     * completes exceptionally and every message in it is retried.
+     */
+    CompletableFuture<List<Outcome>> send(List<PushMessage> messages);
+
+    // FCM accepts at most 500 messages per sendEach call
+    default int maxBatchSize() {
+        return 500;
+    }
+}
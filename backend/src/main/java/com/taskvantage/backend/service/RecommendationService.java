@@ -1,12 +1,17 @@
 package com.taskvantage.backend.service;
 
 import com.taskvantage.backend.dto.RecommendationResponse;
+import com.taskvantage.backend.jfr.RecommendationEvent;
 import com.taskvantage.backend.model.Task;
 import com.taskvantage.backend.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.Duration;
@@ -33,30 +38,60 @@ public class RecommendationService {
     private record RecommendationReason(String code, String text) {}
 
     private final TaskRepository taskRepository;
+    private final Timer userScoringTimer;
+    private final Timer taskScoringTimer;
 
     @Autowired
-    public RecommendationService(TaskRepository taskRepository) {
+    public RecommendationService(TaskRepository taskRepository, MeterRegistry meterRegistry) {
         this.taskRepository = taskRepository;
+        this.userScoringTimer = scoringTimer(meterRegistry, "user");
+        this.taskScoringTimer = scoringTimer(meterRegistry, "task");
         logger.debug("RecommendationService initialized");
     }
 
+    RecommendationService(TaskRepository taskRepository) {
+        this(taskRepository, new SimpleMeterRegistry());
+    }
+
+    private static Timer scoringTimer(MeterRegistry meterRegistry, String basis) {
+        return Timer.builder("taskvantage.recommendations.scoring")
+                .description("Time to score and rank recommendation candidates")
+                .tag("basis", basis)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     public List<Task> getRecommendationsForUser(Long userId, int limit) {
+        RecommendationEvent event = new RecommendationEvent();
+        event.begin();
+        event.userId = userId != null ? userId : 0;
+        List<Task> recommendations = recommendForUser(userId, limit, event);
+        event.results = recommendations.size();
+        event.commit();
+        return recommendations;
+    }
+
+    private List<Task> recommendForUser(Long userId, int limit, RecommendationEvent event) {
         logger.debug("Generating recommendations for user ID: {}, limit: {}", userId, limit);
 
         List<Task> userRecentTasks = taskRepository.findRecentTasksByUserId(userId);
         logger.debug("Found {} recent tasks for user ID {}", userRecentTasks.size(), userId);
+        event.recentTasks = userRecentTasks.size();
 
         if (userRecentTasks.isEmpty()) {
             logger.debug("No recent tasks found for user ID {}. Returning default recommendations.", userId);
+            event.usedDefaults = true;
             return getDefaultRecommendations(limit);
         }
 
         try {
             DayOfWeek currentDayOfWeek = ZonedDateTime.now(ZoneOffset.UTC).getDayOfWeek();
             List<Task> candidateTasks = taskRepository.findPotentialTasksForUser(userId);
+            event.candidates = candidateTasks.size();
 
             if (candidateTasks.isEmpty()) {
                 logger.debug("No candidate tasks for user ID {}. Falling back to default recommendations.", userId);
+                event.usedDefaults = true;
                 return getDefaultRecommendations(limit);
             }
 
@@ -65,15 +100,16 @@ public class RecommendationService {
                     .collect(Collectors.groupingBy(task -> task.getTitle().toLowerCase() + "::" + task.getDescription().toLowerCase()));
 
             // Score and rank tasks
-            List<Task> scoredTasks = groupedTasks.values().stream()
+            List<Task> scoredTasks = userScoringTimer.record(() -> groupedTasks.values().stream()
                     .map(group -> scoreTask(group.get(0), currentDayOfWeek, userRecentTasks))
                     .sorted((t1, t2) -> Float.compare(t2.getRecommendationScore(), t1.getRecommendationScore()))
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
 
             List<Task> recommendations = prioritizeWeekdayMatch(scoredTasks, limit);
 
             if (recommendations.isEmpty()) {
                 logger.debug("No personalized recommendations generated for user ID {}. Returning default recommendations.", userId);
+                event.usedDefaults = true;
                 return getDefaultRecommendations(limit);
             }
 
@@ -142,6 +178,8 @@ public class RecommendationService {
         return weight;
     }
 
+    // Read-only: scores are set on the entities for the response but never flushed
+    @Transactional(readOnly = true)
     public RecommendationResponse getRecommendedTasksByWeekday(Long userId, int limit) {
         logger.debug("Getting weekday recommendations for user ID: {}, limit: {}", userId, limit);
 
@@ -151,6 +189,7 @@ public class RecommendationService {
             List<Task> recommendations = getRecommendationsForUser(userId, limit);
 
             // Prepare response
+            initializeForResponse(recommendations);
             response.setRecommendations(recommendations);
             response.setStatus("success");
             response.setMessage("Recommendations for the current weekday fetched successfully.");
@@ -180,6 +219,7 @@ public class RecommendationService {
         }
     }
 
+    @Transactional(readOnly = true)
     public RecommendationResponse getRecommendedTasks(Long userId, Long taskId, int limit) {
         logger.debug("Getting recommended tasks for user ID: {}, taskId: {}, limit: {}", userId, taskId, limit);
 
@@ -200,10 +240,10 @@ public class RecommendationService {
                 List<Task> relatedTasks = taskRepository.findRelatedTasks(
                         taskId, userId, targetTask.getTitle(), targetTask.getDescription());
 
-                List<Task> scoredRelatedTasks = relatedTasks.stream()
+                List<Task> scoredRelatedTasks = taskScoringTimer.record(() -> relatedTasks.stream()
                         .map(task -> scoreTask(task, currentDayOfWeek, userRecentTasks))
                         .sorted((t1, t2) -> Float.compare(t2.getRecommendationScore(), t1.getRecommendationScore()))
-                        .collect(Collectors.toList());
+                        .collect(Collectors.toList()));
 
                 recommendations = prioritizeWeekdayMatch(scoredRelatedTasks, limit);
             } else {
@@ -215,6 +255,7 @@ public class RecommendationService {
                 recommendations = getDefaultRecommendations(limit);
             }
 
+            initializeForResponse(recommendations);
             response.setRecommendations(recommendations);
             response.setStatus("success");
             response.setMessage("Recommendations fetched successfully.");
@@ -230,6 +271,23 @@ public class RecommendationService {
         return response;
     }
 
+    /**
+     * Recommendations are returned as entities, so their lazy collections must be loaded before the
+     * transaction ends (open-in-view is disabled). Each collection is loaded for all recommended tasks in one
+     * select; batch fetching alone would also pick up the collections of the other tasks the scoring loaded,
+     * and need more selects the more tasks the user has.
+     */
+    private void initializeForResponse(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Long> taskIds = tasks.stream().map(Task::getId).toList();
+        taskRepository.fetchTags(taskIds);
+        taskRepository.fetchSubtasks(taskIds);
+        taskRepository.fetchAttachments(taskIds);
+        taskRepository.fetchComments(taskIds);
+    }
+
     private Task scoreTask(Task task, DayOfWeek currentDayOfWeek, List<Task> userRecentTasks) {
         double dayBoost = computeDayOfWeekBoost(task, currentDayOfWeek);
         double recencyWeight = calculateRecencyWeight(task);
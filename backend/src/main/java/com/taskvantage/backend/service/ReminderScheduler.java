@@ -0,0 +1,426 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.DueNotification;
+import com.taskvantage.backend.jfr.ReminderCycleEvent;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps upcoming reminders in an in-memory timer wheel and sends them when they come due, instead of polling the
+ * database every minute. The wheel holds a rolling horizon: it is loaded at startup, extended periodically, and
+ * updated by TaskServiceImpl whenever a task is created, changed, completed or deleted. Each task can have a
+ * start reminder (START_REMINDER_LEAD before its scheduled start) and its own {@code reminders}.
+ * When reminders fire, the tasks are re-read in one query before anything is sent. Every instance runs its own
+ * wheel, so due reminders are claimed in the database first and each one is sent by the node that claimed it.
+ */
+@Service
+public class ReminderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
+    static final Duration TICK = Duration.ofMillis(250);
+    // 4096 slots of 250ms: one revolution is about 17 minutes
+    static final int WHEEL_SLOTS = 4096;
+    static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    static final int MAX_ATTEMPTS = 3;
+    private static final int LOAD_PAGE_SIZE = 500;
+    private static final Duration LEAD = NotificationService.START_REMINDER_LEAD;
+
+    /**
+     * A reminder in the wheel: the task's start reminder when {@code remindAt} is null, otherwise one of its own.
+     */
+    record ReminderKey(Long taskId, Instant remindAt) {
+        boolean isStartReminder() {
+            return remindAt == null;
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final NotificationService notificationService;
+    private final Clock clock;
+    private final Duration horizon;
+
+    // Guards the wheel and the maps below; never held across database or push calls
+    private final Object lock = new Object();
+    private final TimerWheel<ReminderKey> wheel;
+    private final Map<Long, Set<ReminderKey>> keysByTask = new HashMap<>();
+    private final Map<ReminderKey, Integer> failedAttempts = new HashMap<>();
+    // Reminders up to this instant are in the wheel; null until the first load
+    private Instant loadedUntil;
+
+    // Held across the horizon queries; a ReentrantLock rather than a monitor, so a virtual thread waiting on the
+    // database does not pin its carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private ScheduledExecutorService ticker;
+    private final Timer cycleTimer;
+
+    @Autowired
+    public ReminderScheduler(TaskRepository taskRepository, NotificationService notificationService,
+                             MeterRegistry meterRegistry,
+                             @Value("${reminders.horizon-minutes:120}") long horizonMinutes) {
+        this(taskRepository, notificationService, Clock.systemUTC(), Duration.ofMinutes(horizonMinutes), meterRegistry);
+    }
+
+    ReminderScheduler(TaskRepository taskRepository, NotificationService notificationService, Clock clock,
+                      Duration horizon) {
+        this(taskRepository, notificationService, clock, horizon, new SimpleMeterRegistry());
+    }
+
+    private ReminderScheduler(TaskRepository taskRepository, NotificationService notificationService, Clock clock,
+                              Duration horizon, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.notificationService = notificationService;
+        this.clock = clock;
+        this.horizon = horizon;
+        this.wheel = new TimerWheel<>(WHEEL_SLOTS, TICK, clock.instant());
+        // Only ticks with due reminders are timed, from the tick until their deliveries have completed
+        this.cycleTimer = Timer.builder("taskvantage.reminders.cycle")
+                .description("Time from a reminder tick with due reminders until their pushes completed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadHorizon();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, TICK.toMillis(), TICK.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Reminder wheel started with {} reminders up to {}", scheduledCount(), loadedUntil);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads the reminders between the end of the loaded window and now + horizon. The first load also picks up
+     * start reminders whose time has passed for tasks that have not started yet, so they go out straight away.
+     */
+    @Scheduled(fixedDelayString = "${reminders.horizon-refresh-ms:900000}",
+            initialDelayString = "${reminders.horizon-refresh-ms:900000}")
+    public void loadHorizon() {
+        loadLock.lock();
+        try {
+            Instant now = clock.instant();
+            Instant until = now.plus(horizon);
+            Instant from;
+            Instant startsFrom;
+            synchronized (lock) {
+                from = loadedUntil == null || loadedUntil.isBefore(now) ? now : loadedUntil;
+                startsFrom = loadedUntil == null ? now : from.plus(LEAD);
+            }
+            if (!until.isAfter(from)) {
+                return;
+            }
+
+            int loaded = 0;
+            long afterId = 0;
+            List<DueNotification> page;
+            do {
+                page = taskRepository.findDueNotifications(utc(startsFrom), utc(until.plus(LEAD)), afterId,
+                        Pageable.ofSize(LOAD_PAGE_SIZE));
+                synchronized (lock) {
+                    for (DueNotification notification : page) {
+                        Instant fireAt = notification.getScheduledStart().toInstant().minus(LEAD);
+                        schedule(new ReminderKey(notification.getTaskId(), null), fireAt.isBefore(now) ? now : fireAt);
+                    }
+                }
+                loaded += page.size();
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getTaskId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+
+            List<DueNotification> ownReminders = taskRepository.findRemindersBetween(utc(from), utc(until));
+            synchronized (lock) {
+                for (DueNotification notification : ownReminders) {
+                    Instant remindAt = notification.getRemindAt().toInstant();
+                    schedule(new ReminderKey(notification.getTaskId(), remindAt), remindAt);
+                }
+                loadedUntil = until;
+            }
+            loaded += ownReminders.size();
+            logger.debug("Loaded {} reminders due before {}", loaded, until);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Re-plans a task's reminders after it was created or changed.
+     */
+    public void taskChanged(Task task) {
+        if (task.getId() == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        synchronized (lock) {
+            cancelTask(task.getId());
+            if (Task.isCompletedStatus(task.getStatus())) {
+                return;
+            }
+            // Reminders beyond the loaded window are picked up by the next horizon load
+            Instant windowEnd = loadedUntil != null ? loadedUntil : now.plus(horizon);
+
+            if (task.getScheduledStart() != null && !Boolean.TRUE.equals(task.getNotificationSent())) {
+                Instant start = task.getScheduledStart().toInstant();
+                Instant fireAt = start.minus(LEAD);
+                if (start.isAfter(now) && !fireAt.isAfter(windowEnd)) {
+                    schedule(new ReminderKey(task.getId(), null), fireAt.isBefore(now) ? now : fireAt);
+                }
+            }
+            if (task.getReminders() != null) {
+                for (ZonedDateTime reminder : task.getReminders()) {
+                    Instant remindAt = reminder.toInstant();
+                    if (remindAt.isAfter(now) && !remindAt.isAfter(windowEnd)) {
+                        schedule(new ReminderKey(task.getId(), remindAt), remindAt);
+                    }
+                }
+            }
+        }
+    }
+
+    public void taskRemoved(Long taskId) {
+        synchronized (lock) {
+            cancelTask(taskId);
+        }
+    }
+
+    public void tasksRemoved(Collection<Long> taskIds) {
+        synchronized (lock) {
+            taskIds.forEach(this::cancelTask);
+        }
+    }
+
+    void tick() {
+        Instant now = clock.instant();
+        List<ReminderKey> due;
+        synchronized (lock) {
+            due = wheel.advance(now);
+            due.forEach(this::forget);
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample cycle = Timer.start();
+        ReminderCycleEvent event = new ReminderCycleEvent();
+        event.begin();
+        event.due = due.size();
+        try {
+            fire(due, now, cycle, event);
+        } catch (RuntimeException e) {
+            endCycle(cycle, event);
+            logger.error("Sending {} due reminders failed: {}", due.size(), e.getMessage(), e);
+            synchronized (lock) {
+                due.forEach(key -> retry(key, now));
+            }
+        }
+    }
+
+    // Stops the cycle timer and records the flight recorder event, once per tick with due reminders
+    private void endCycle(Timer.Sample cycle, ReminderCycleEvent event) {
+        cycle.stop(cycleTimer);
+        event.commit();
+    }
+
+    private void fire(List<ReminderKey> due, Instant now, Timer.Sample cycle, ReminderCycleEvent event) {
+        Set<Long> startReminderTaskIds = new HashSet<>();
+        Map<Long, List<ReminderKey>> ownRemindersByTask = new LinkedHashMap<>();
+        for (ReminderKey key : due) {
+            if (key.isStartReminder()) {
+                startReminderTaskIds.add(key.taskId());
+            } else {
+                ownRemindersByTask.computeIfAbsent(key.taskId(), id -> new ArrayList<>()).add(key);
+            }
+        }
+
+        List<DueNotification> batch = new ArrayList<>();
+        Map<DueNotification, ReminderKey> keys = new IdentityHashMap<>();
+        if (!startReminderTaskIds.isEmpty()) {
+            for (DueNotification notification : taskRepository.findPendingStartReminders(startReminderTaskIds)) {
+                ReminderKey key = new ReminderKey(notification.getTaskId(), null);
+                Instant fireAt = notification.getScheduledStart().toInstant().minus(LEAD);
+                if (fireAt.isAfter(now.plus(TICK))) {
+                    // The start moved later since this reminder was planned
+                    synchronized (lock) {
+                        if (loadedUntil == null || !fireAt.isAfter(loadedUntil)) {
+                            schedule(key, fireAt);
+                        }
+                    }
+                    continue;
+                }
+                batch.add(notification);
+                keys.put(notification, key);
+            }
+        }
+        if (!ownRemindersByTask.isEmpty()) {
+            for (DueNotification target : taskRepository.findReminderTargets(ownRemindersByTask.keySet())) {
+                for (ReminderKey key : ownRemindersByTask.get(target.getTaskId())) {
+                    DueNotification notification = target.withRemindAt(key.remindAt().atZone(ZoneOffset.UTC));
+                    batch.add(notification);
+                    keys.put(notification, key);
+                }
+            }
+        }
+
+        if (batch.isEmpty()) {
+            endCycle(cycle, event);
+            return;
+        }
+        pullDigestReminders(batch, keys, now);
+        event.notifications = batch.size();
+        // Other nodes fire the same reminders; only the ones this node claims are sent from here
+        List<DueNotification> claimed = notificationService.claim(batch, utc(now));
+        event.claimed = claimed.size();
+        if (claimed.size() < batch.size()) {
+            Set<DueNotification> won = Collections.newSetFromMap(new IdentityHashMap<>());
+            won.addAll(claimed);
+            synchronized (lock) {
+                for (DueNotification notification : batch) {
+                    ReminderKey key = won.contains(notification) ? null : keys.remove(notification);
+                    if (key != null && key.isStartReminder()) {
+                        // Look again once the other node's lease has run out, in case that node went away
+                        schedule(key, now.plus(NotificationService.CLAIM_LEASE));
+                    }
+                }
+            }
+        }
+
+        // Delivery completes on the push queue; the wheel keeps ticking meanwhile
+        notificationService.deliver(claimed, utc(now)).whenComplete((failed, error) -> {
+            if (error != null) {
+                logger.error("Sending {} due reminders failed: {}", claimed.size(), error.getMessage(), error);
+            }
+            Set<ReminderKey> failedKeys = error != null
+                    ? new HashSet<>(keys.values())
+                    : failed.stream().map(keys::get).collect(Collectors.toSet());
+            event.failed = failedKeys.size();
+            endCycle(cycle, event);
+            synchronized (lock) {
+                for (ReminderKey key : keys.values()) {
+                    if (failedKeys.contains(key)) {
+                        retry(key, clock.instant());
+                    } else {
+                        failedAttempts.remove(key);
+                    }
+                }
+            }
+            logger.debug("Sent {} of {} due reminders", claimed.size() - failedKeys.size(), due.size());
+        });
+    }
+
+    // In digest mode, start reminders the same users have coming up within the window go out with this batch
+    private void pullDigestReminders(List<DueNotification> batch, Map<DueNotification, ReminderKey> keys, Instant now) {
+        Duration window = notificationService.getDigestWindow();
+        if (window == null || window.isZero()) {
+            return;
+        }
+        Set<Long> userIds = batch.stream().map(DueNotification::getUserId).collect(Collectors.toSet());
+        Set<Long> startRemindersInBatch = batch.stream()
+                .filter(DueNotification::isStartReminder)
+                .map(DueNotification::getTaskId)
+                .collect(Collectors.toSet());
+        Instant from = now.plus(LEAD);
+        List<DueNotification> upcoming = taskRepository.findUpcomingStartReminders(userIds, utc(from),
+                utc(from.plus(window)));
+
+        synchronized (lock) {
+            for (DueNotification notification : upcoming) {
+                if (startRemindersInBatch.add(notification.getTaskId())) {
+                    ReminderKey key = new ReminderKey(notification.getTaskId(), null);
+                    if (wheel.cancel(key)) {
+                        forget(key);
+                    }
+                    batch.add(notification);
+                    keys.put(notification, key);
+                }
+            }
+        }
+    }
+
+    private void retry(ReminderKey key, Instant now) {
+        int attempts = failedAttempts.merge(key, 1, Integer::sum);
+        if (attempts >= MAX_ATTEMPTS) {
+            failedAttempts.remove(key);
+            logger.warn("Giving up on reminder for task {} after {} attempts", key.taskId(), attempts);
+            return;
+        }
+        schedule(key, now.plus(RETRY_DELAY));
+    }
+
+    private void schedule(ReminderKey key, Instant fireAt) {
+        wheel.schedule(key, fireAt);
+        keysByTask.computeIfAbsent(key.taskId(), id -> new HashSet<>()).add(key);
+    }
+
+    private void cancelTask(Long taskId) {
+        Set<ReminderKey> keys = keysByTask.remove(taskId);
+        if (keys != null) {
+            keys.forEach(wheel::cancel);
+        }
+    }
+
+    private void forget(ReminderKey key) {
+        Set<ReminderKey> keys = keysByTask.get(key.taskId());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByTask.remove(key.taskId());
+        }
+    }
+
+    int scheduledCount() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    boolean isScheduled(ReminderKey key) {
+        synchronized (lock) {
+            return wheel.contains(key);
+        }
+    }
+
+    private static ZonedDateTime utc(Instant instant) {
+        return instant.atZone(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,142 @@
+package com.taskvantage.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.taskvantage.backend.dto.TaskSummary;
+import com.taskvantage.backend.repository.TaskRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a user's tasks as CSV or NDJSON straight from a database cursor.
+ * Rows are written as they are fetched and the output is flushed every FLUSH_EVERY rows,
+ * so heap use does not depend on the number of tasks and the client starts receiving data immediately.
+ * Column names match the property names accepted by {@link TaskImportService}, so exports can be re-imported.
+ */
+@Service
+public class TaskExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExportService.class);
+    static final int FLUSH_EVERY = 200;
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    static final String[] COLUMNS = {
+            "id", "groupId", "title", "description", "priority", "status", "dueDate", "creationDate",
+            "lastModifiedDate", "scheduledStart", "completionDateTime", "duration", "totalSubtasks"
+    };
+
+    private final TaskRepository taskRepository;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Autowired
+    public TaskExportService(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Streams every task of the user to the given output stream. The stream is not closed;
+     * when gzip is requested the compressed trailer is written before returning.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(Long userId, TaskImportService.Format format, boolean gzip, OutputStream out) throws IOException {
+        // Sync flush so every incremental flush pushes compressed bytes to the client rather than waiting for a full deflate block
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8));
+
+        long rows;
+        try (Stream<TaskSummary> tasks = taskRepository.streamTaskSummariesByUserId(userId)) {
+            rows = format == TaskImportService.Format.NDJSON
+                    ? writeNdjson(tasks.iterator(), writer)
+                    : writeCsv(tasks.iterator(), writer);
+        }
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        logger.info("Exported {} tasks for user {} as {}{}", rows, userId, format, gzip ? " (gzip)" : "");
+        return rows;
+    }
+
+    long writeCsv(Iterator<TaskSummary> tasks, Writer writer) throws IOException {
+        // The printer is deliberately not closed: closing it would close the response stream
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(COLUMNS));
+        printer.flush();
+        long rows = 0;
+        while (tasks.hasNext()) {
+            TaskSummary task = tasks.next();
+            printer.printRecord(
+                    task.getId(), task.getGroupId(), task.getTitle(), task.getDescription(), task.getPriority(),
+                    task.getStatus(), task.getDueDate(), task.getCreationDate(), task.getLastModifiedDate(),
+                    task.getScheduledStart(), task.getCompletionDateTime(), task.getDuration(), task.getTotalSubtasks());
+            if (++rows % FLUSH_EVERY == 0) {
+                printer.flush();
+            }
+        }
+        printer.flush();
+        return rows;
+    }
+
+    long writeNdjson(Iterator<TaskSummary> tasks, Writer writer) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        // One object per line: replace Jackson's default space between root values with our own newline
+        generator.setRootValueSeparator(null);
+        long rows = 0;
+        while (tasks.hasNext()) {
+            TaskSummary task = tasks.next();
+            generator.writeStartObject();
+            writeNumber(generator, "id", task.getId());
+            writeNumber(generator, "groupId", task.getGroupId());
+            writeString(generator, "title", task.getTitle());
+            writeString(generator, "description", task.getDescription());
+            writeString(generator, "priority", task.getPriority());
+            writeString(generator, "status", task.getStatus());
+            writeString(generator, "dueDate", task.getDueDate());
+            writeString(generator, "creationDate", task.getCreationDate());
+            writeString(generator, "lastModifiedDate", task.getLastModifiedDate());
+            writeString(generator, "scheduledStart", task.getScheduledStart());
+            writeString(generator, "completionDateTime", task.getCompletionDateTime());
+            writeString(generator, "duration", task.getDuration());
+            generator.writeNumberField("totalSubtasks", task.getTotalSubtasks());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++rows % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+        return rows;
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    // Dates, durations and enums are written in their ISO / name form, which TaskImportService parses back
+    private static void writeString(JsonGenerator generator, String name, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeStringField(name, value.toString());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.taskvantage.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskvantage.backend.dto.TaskImportResult;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.model.TaskStatus;
+import com.taskvantage.backend.repository.TaskRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams task rows from CSV or NDJSON into the database in constant memory.
+ * Rows are converted and validated one at a time and written in fixed-size batches,
+ * each in its own transaction, so neither the file nor the persistence context grows with the input.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        // Explicit format wins; otherwise fall back to the file extension, defaulting to CSV
+        public static Format resolve(String format, String filename) {
+            if (format != null && !format.isBlank()) {
+                return Format.valueOf(format.trim().toUpperCase());
+            }
+            if (filename != null) {
+                String lower = filename.toLowerCase();
+                if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+                    return NDJSON;
+                }
+            }
+            return CSV;
+        }
+    }
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderScheduler reminderScheduler;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    public TaskImportService(TaskRepository taskRepository, TransactionTemplate transactionTemplate,
+                             ReminderScheduler reminderScheduler) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.reminderScheduler = reminderScheduler;
+    }
+
+    public TaskImportResult importTasks(Reader reader, Format format, Long userId) throws IOException {
+        return format == Format.NDJSON ? importNdjson(reader, userId) : importCsv(reader, userId);
+    }
+
+    public TaskImportResult importCsv(Reader reader, Long userId) throws IOException {
+        BatchWriter writer = new BatchWriter(userId);
+        try (CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreEmptyLines())) {
+            for (CSVRecord record : parser) {
+                // Header is line 1, so data rows start at 2
+                writer.accept(record.getRecordNumber() + 1, record.toMap());
+            }
+        } catch (IllegalStateException e) {
+            // commons-csv reports malformed input (e.g. an unterminated quote) mid-iteration; nothing after it is readable
+            writer.result.addError(writer.lastRow + 1, "Malformed CSV: " + e.getMessage(), MAX_REPORTED_ERRORS);
+        }
+        return writer.finish();
+    }
+
+    public TaskImportResult importNdjson(Reader reader, Long userId) throws IOException {
+        BatchWriter writer = new BatchWriter(userId);
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        long lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<String, Object> fields;
+            try {
+                fields = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {});
+            } catch (JsonProcessingException e) {
+                writer.result.addError(lineNumber, "Malformed JSON: " + e.getOriginalMessage(), MAX_REPORTED_ERRORS);
+                continue;
+            }
+            writer.accept(lineNumber, fields);
+        }
+        return writer.finish();
+    }
+
+    /**
+     * Converts a single record into a Task. Accepts both the CSV column names used by the
+     * test data (due_date, actual_start, ...) and the JSON property names of Task (dueDate, startDate, ...).
+     */
+    Task toTask(Map<String, ?> fields, Long userId) {
+        String title = text(fields, "title");
+        if (title == null) {
+            throw new IllegalArgumentException("title is required");
+        }
+
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setDescription(text(fields, "description"));
+
+        String priority = text(fields, "priority");
+        try {
+            task.setPriority(priority == null ? TaskPriority.MEDIUM : TaskPriority.fromString(priority));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown priority '" + priority + "'");
+        }
+        task.setStatus(TaskStatus.fromLabel(text(fields, "status")).getLabel());
+
+        task.setDueDate(dateTime(fields, "due_date", "dueDate"));
+        task.setStartDate(dateTime(fields, "actual_start", "startDate"));
+        task.setScheduledStart(dateTime(fields, "scheduledStart", "scheduled_start"));
+        task.setCompletionDateTime(dateTime(fields, "completionDateTime", "completion_date_time"));
+
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        ZonedDateTime creationDate = dateTime(fields, "creation_date", "creationDate");
+        ZonedDateTime lastModifiedDate = dateTime(fields, "last_modified_date", "lastModifiedDate");
+        task.setCreationDate(creationDate != null ? creationDate : now);
+        task.setLastModifiedDate(lastModifiedDate != null ? lastModifiedDate : now);
+        return task;
+    }
+
+    private static String text(Map<String, ?> fields, String... names) {
+        for (String name : names) {
+            Object value = fields.get(name);
+            if (value != null && !value.toString().isBlank()) {
+                return value.toString().trim();
+            }
+        }
+        return null;
+    }
+
+    private static ZonedDateTime dateTime(Map<String, ?> fields, String... names) {
+        String value = text(fields, names);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value).withZoneSameInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException zonedFailure) {
+            try {
+                // Local timestamps (as in task_test_data.csv) are taken to be UTC
+                return LocalDateTime.parse(value).atZone(ZoneOffset.UTC);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("invalid date '" + value + "' for " + names[0]);
+            }
+        }
+    }
+
+    /**
+     * Holds at most one batch of converted tasks and flushes it in its own transaction.
+     */
+    private class BatchWriter {
+        private final Long userId;
+        private final List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        private final TaskImportResult result = new TaskImportResult();
+        private long lastRow;
+
+        BatchWriter(Long userId) {
+            this.userId = userId;
+        }
+
+        void accept(long row, Map<String, ?> fields) {
+            lastRow = row;
+            try {
+                batch.add(toTask(fields, userId));
+            } catch (IllegalArgumentException e) {
+                result.addError(row, e.getMessage(), MAX_REPORTED_ERRORS);
+                return;
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> taskRepository.saveAll(batch));
+            batch.forEach(reminderScheduler::taskChanged);
+            result.addImported(batch.size());
+            batch.clear();
+        }
+
+        TaskImportResult finish() {
+            flush();
+            logger.info("Imported {} tasks for user {} ({} rows rejected)", result.getImported(), userId, result.getFailed());
+            return result;
+        }
+    }
+}
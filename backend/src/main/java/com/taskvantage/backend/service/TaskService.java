@@ -1,6 +1,9 @@
 package com.taskvantage.backend.service;
 
+import com.taskvantage.backend.dto.BulkTaskOperation;
+import com.taskvantage.backend.dto.BulkTaskResult;
 import com.taskvantage.backend.dto.SimilarTaskDTO;
+import com.taskvantage.backend.dto.TaskDetail;
 import com.taskvantage.backend.dto.TaskSummary;
 import com.taskvantage.backend.model.Task;
 
@@ -16,6 +19,9 @@ public interface TaskService {
     // Retrieves a task by its ID
     Optional<Task> getTaskById(Long id);
 
+    // Retrieves a task with all of its collections as a serialisation-safe read model
+    Optional<TaskDetail> getTaskDetail(Long id);
+
     // Retrieves all tasks
     List<Task> getAllTasks();
 
@@ -54,4 +60,7 @@ public interface TaskService {
 
     // Backfills embeddings for all tasks in the system
     int backfillAllEmbeddings(boolean force);
+
+    // Applies a list of create/complete/move/delete operations for one user in a single transaction
+    BulkTaskResult applyBulkOperations(Long userId, List<BulkTaskOperation> operations);
 }
\ No newline at end of file
@@ -1,99 +1,109 @@
 package com.taskvantage.backend.service;
+import com.taskvantage.backend.dto.BulkTaskOperation;
+import com.taskvantage.backend.dto.BulkTaskResult;
 import com.taskvantage.backend.dto.SimilarTaskDTO;
+import com.taskvantage.backend.dto.TaskDetail;
+import com.taskvantage.backend.dto.TaskEmbedding;
 import com.taskvantage.backend.model.User;
 import com.taskvantage.backend.dto.TaskSummary;
 import com.taskvantage.backend.exception.TaskNotFoundException;
+import com.taskvantage.backend.jfr.SimilarTaskSearchEvent;
+import com.taskvantage.backend.model.CalendarSyncOperation;
 import com.taskvantage.backend.model.Comment;
 import com.taskvantage.backend.model.Subtask;
 import com.taskvantage.backend.model.Task;
 import com.taskvantage.backend.model.TaskGroup;
 import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
 import com.taskvantage.backend.repository.TaskGroupRepository;
 import com.taskvantage.backend.repository.TaskRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.io.IOException;
-import java.security.GeneralSecurityException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.Duration;
 import java.time.YearMonth;
 import java.time.ZonedDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskServiceImpl.class);
+    static final int MAX_BULK_OPERATIONS = 1000;
     private final TaskRepository taskRepository;
     private final TaskGroupRepository taskGroupRepository;
-    private final GoogleCalendarService googleCalendarService;
     private final CustomUserDetailsService userDetailsService;
     private final CustomUserDetailsService customUserDetailsService;
     private final EmbeddingService embeddingService;
+    private final CalendarSyncOperationRepository calendarSyncOperationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderScheduler reminderScheduler;
+    private final Timer similarSearchTimer;
+    private final DistributionSummary similarCandidates;
 
     @Autowired
     public TaskServiceImpl(TaskRepository taskRepository, TaskGroupRepository taskGroupRepository,
-                           GoogleCalendarService googleCalendarService,
                            CustomUserDetailsService userDetailsService, CustomUserDetailsService customUserDetailsService,
-                           EmbeddingService embeddingService) {
+                           EmbeddingService embeddingService,
+                           CalendarSyncOperationRepository calendarSyncOperationRepository,
+                           TransactionTemplate transactionTemplate, ReminderScheduler reminderScheduler,
+                           MeterRegistry meterRegistry) {
         this.taskRepository = taskRepository;
         this.taskGroupRepository = taskGroupRepository;
-        this.googleCalendarService = googleCalendarService;
         this.userDetailsService = userDetailsService;
         this.customUserDetailsService = customUserDetailsService;
         this.embeddingService = embeddingService;
+        this.calendarSyncOperationRepository = calendarSyncOperationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.reminderScheduler = reminderScheduler;
+        this.similarSearchTimer = Timer.builder("taskvantage.tasks.similar.search")
+                .description("Time to find tasks similar to a given task")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.similarCandidates = DistributionSummary.builder("taskvantage.tasks.similar.candidates")
+                .description("Tasks compared against the target in one similarity search")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    private void syncWithGoogleCalendar(Task task, User user, boolean isUpdate) {
-        if (user != null && user.getGoogleAccessToken() != null && user.isTaskSyncEnabled()) {
-            try {
-                if (task.getScheduledStart() != null && task.getDueDate() != null) {
-                    if (isUpdate && task.getGoogleCalendarEventId() != null) {
-                        // Update existing calendar event
-                        googleCalendarService.updateCalendarEvent(
-                                user,
-                                task.getGoogleCalendarEventId(),
-                                task.getTitle(),
-                                task.getScheduledStart(),
-                                task.getDueDate(),
-                                task.isAllDay()
-                        );
-                    } else {
-                        // Create new calendar event
-                        String eventId = googleCalendarService.createCalendarEvent(
-                                user,
-                                task.getTitle(),
-                                task.getScheduledStart(),
-                                task.getDueDate(),
-                                task.isAllDay()
-                        );
-                        task.setGoogleCalendarEventId(eventId);
-                    }
-                }
-            } catch (GeneralSecurityException | IOException e) {
-                logger.error("Failed to sync task with Google Calendar", e);
-            }
+    private boolean isCalendarSyncEnabled(User user) {
+        return user != null && user.getGoogleAccessToken() != null && user.isTaskSyncEnabled();
+    }
+
+    // Records the calendar change in the outbox, in the caller's transaction; CalendarSyncWorker pushes it to Google
+    private void queueCalendarSync(Task task, User user) {
+        if (isCalendarSyncEnabled(user) && task.getScheduledStart() != null && task.getDueDate() != null) {
+            CalendarSyncOperation.Type type = task.getGoogleCalendarEventId() != null
+                    ? CalendarSyncOperation.Type.UPDATE
+                    : CalendarSyncOperation.Type.CREATE;
+            calendarSyncOperationRepository.save(new CalendarSyncOperation(task.getUserId(), task.getId(), type, null));
         }
     }
 
-    private void deleteGoogleCalendarEvent(Task task, User user) {
-        if (user != null &&
-                user.getGoogleAccessToken() != null &&
-                user.isTaskSyncEnabled() &&
-                task.getGoogleCalendarEventId() != null) {
-            try {
-                googleCalendarService.deleteCalendarEvent(user, task.getGoogleCalendarEventId());
-            } catch (GeneralSecurityException | IOException e) {
-                logger.error("Failed to delete Google Calendar event", e);
-            }
+    private void queueCalendarDelete(Task task, User user) {
+        if (isCalendarSyncEnabled(user) && task.getGoogleCalendarEventId() != null) {
+            calendarSyncOperationRepository.save(new CalendarSyncOperation(
+                    task.getUserId(), task.getId(), CalendarSyncOperation.Type.DELETE, task.getGoogleCalendarEventId()));
         }
     }
 
@@ -110,6 +120,22 @@ public class TaskServiceImpl implements TaskService {
         }
 
         // Generate embedding for the task
+        applyEmbedding(task);
+
+        User user = customUserDetailsService.findUserById(task.getUserId());
+
+        // Task row and calendar outbox entry commit together; the embedding call above stays outside the transaction
+        Task savedTask = transactionTemplate.execute(status -> {
+            Task saved = taskRepository.save(task);
+            queueCalendarSync(saved, user);
+            return saved;
+        });
+        reminderScheduler.taskChanged(savedTask);
+        return savedTask;
+    }
+
+    // Calls the embedding API, so callers keep it outside their transaction
+    private void applyEmbedding(Task task) {
         try {
             List<Double> embedding = embeddingService.generateEmbedding(task.getTitle(), task.getDescription());
             if (embedding != null && !embedding.isEmpty()) {
@@ -120,20 +146,10 @@ public class TaskServiceImpl implements TaskService {
         } catch (Exception e) {
             logger.error("Failed to generate embedding for task, continuing without it: {}", e.getMessage());
         }
-
-        Task savedTask = taskRepository.save(task);
-        User user = customUserDetailsService.findUserById(task.getUserId());
-        syncWithGoogleCalendar(savedTask, user, false);
-
-        // Save again if Google Calendar ID was added
-        if (savedTask.getGoogleCalendarEventId() != null) {
-            savedTask = taskRepository.save(savedTask);
-        }
-
-        return savedTask;
     }
 
     @Override
+    @Transactional
     public Task updateTask(Task updatedTask) {
         Optional<Task> existingTaskOptional = taskRepository.findById(updatedTask.getId());
 
@@ -150,15 +166,13 @@ public class TaskServiceImpl implements TaskService {
             // Preserve the Google Calendar Event ID
             existingTask.setGoogleCalendarEventId(originalEventId);
 
-            // Save the task first to ensure all fields are updated
             Task savedTask = taskRepository.save(existingTask);
 
-            // Sync with Google Calendar if needed
+            // Queue the calendar update; it is sent after commit by CalendarSyncWorker
             User user = customUserDetailsService.findUserById(savedTask.getUserId());
-            syncWithGoogleCalendar(savedTask, user, true);
-
-            // Save again if needed (though the Google Calendar ID shouldn't have changed for updates)
-            return taskRepository.save(savedTask);
+            queueCalendarSync(savedTask, user);
+            afterCommit(() -> reminderScheduler.taskChanged(savedTask));
+            return savedTask;
         } else {
             throw new TaskNotFoundException(String.format("Task with id %d not found. Unable to update task.", updatedTask.getId()));
         }
@@ -169,6 +183,14 @@ public class TaskServiceImpl implements TaskService {
         return taskRepository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskDetail> getTaskDetail(Long id) {
+        // Task + subtasks in one select, eager reminders in a second; building the DTO here loads
+        // tags, attachments and comments with one select each before the session closes
+        return taskRepository.findDetailById(id).map(TaskDetail::from);
+    }
+
     @Override
     public List<Task> getAllTasks() {
         return taskRepository.findAll();
@@ -181,9 +203,7 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public List<TaskSummary> getNonCompletedTasksByUserId(Long userId) {
-        return taskRepository.findTaskSummariesByUserId(userId).stream()
-                .filter(task -> !Task.isCompletedStatus(task.getStatus()))
-                .toList();
+        return taskRepository.findNonCompletedTaskSummariesByUserId(userId);
     }
 
     @Override
@@ -221,17 +241,17 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional
     public void deleteTask(Long id) {
         Optional<Task> taskOptional = taskRepository.findById(id);
         if (taskOptional.isPresent()) {
             Task task = taskOptional.get();
             User user = customUserDetailsService.findUserById(task.getUserId());
 
-            // Delete from Google Calendar first
-            deleteGoogleCalendarEvent(task, user);
-
-            // Then delete from database
+            // The event id is copied into the outbox, so the Calendar delete survives the task row
+            queueCalendarDelete(task, user);
             taskRepository.deleteById(id);
+            afterCommit(() -> reminderScheduler.taskRemoved(id));
         }
     }
 
@@ -266,6 +286,7 @@ public class TaskServiceImpl implements TaskService {
             task.setLastModifiedDate(ZonedDateTime.now(ZoneOffset.UTC));
 
             taskRepository.save(task);
+            reminderScheduler.taskRemoved(taskId);
         } else {
             throw new TaskNotFoundException("Task not found with id " + taskId);
         }
@@ -369,7 +390,19 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SimilarTaskDTO> findSimilarTasks(Long taskId, Long userId, int limit) {
+        SimilarTaskSearchEvent event = new SimilarTaskSearchEvent();
+        event.begin();
+        event.taskId = taskId != null ? taskId : 0;
+        event.userId = userId != null ? userId : 0;
+        List<SimilarTaskDTO> results = similarSearchTimer.record(() -> searchSimilarTasks(taskId, userId, limit, event));
+        event.results = results.size();
+        event.commit();
+        return results;
+    }
+
+    private List<SimilarTaskDTO> searchSimilarTasks(Long taskId, Long userId, int limit, SimilarTaskSearchEvent event) {
         logger.info("Finding similar tasks for taskId={}, userId={}, limit={}", taskId, userId, limit);
 
         // Get the target task
@@ -391,79 +424,92 @@ public class TaskServiceImpl implements TaskService {
             return new ArrayList<>();
         }
 
-        // Get all tasks for the user (excluding the target task)
-        List<TaskSummary> userTaskSummaries = taskRepository.findTaskSummariesByUserId(userId);
-        List<SimilarTaskDTO> similarTasks = new ArrayList<>();
-        Set<Long> seenTaskIds = new HashSet<>(); // Track seen task IDs to ensure uniqueness
-
-        for (TaskSummary summary : userTaskSummaries) {
-            // Skip the target task itself
-            if (summary.getId().equals(taskId)) {
-                continue;
-            }
+        // Compare against the user's stored embeddings (excluding the target task) without loading any entity
+        List<TaskEmbedding> candidates = taskRepository.findEmbeddingsByUserId(userId, taskId);
+        similarCandidates.record(candidates.size());
+        event.candidates = candidates.size();
+        event.dimensions = targetEmbedding.size();
+        List<ScoredCandidate> similarTasks = new ArrayList<>();
 
-            // Skip if we've already processed this task (ensures uniqueness)
-            if (seenTaskIds.contains(summary.getId())) {
+        for (TaskEmbedding candidate : candidates) {
+            if (candidate.getEmbedding().isEmpty()) {
                 continue;
             }
 
-            // Fetch full task to get embedding
-            Optional<Task> candidateTaskOpt = taskRepository.findById(summary.getId());
-            if (candidateTaskOpt.isEmpty()) {
-                continue;
-            }
-
-            Task candidateTask = candidateTaskOpt.get();
-            if (candidateTask.getEmbedding() == null || candidateTask.getEmbedding().isEmpty()) {
-                continue;
-            }
-
-            List<Double> candidateEmbedding = embeddingService.jsonToEmbedding(candidateTask.getEmbedding());
+            List<Double> candidateEmbedding = embeddingService.jsonToEmbedding(candidate.getEmbedding());
             if (candidateEmbedding == null) {
                 continue;
             }
 
             // Calculate similarity
             double similarity = embeddingService.cosineSimilarity(targetEmbedding, candidateEmbedding);
+            event.compared++;
 
             // Log high-similarity candidates for debugging
             if (similarity >= 0.5) {
                 logger.debug("Candidate '{}' has {:.1f}% similarity to target '{}'",
-                        candidateTask.getTitle(), similarity * 100, targetTask.getTitle());
+                        candidate.getTitle(), similarity * 100, targetTask.getTitle());
             }
 
             // Only include if similarity is in the range [0.6, 0.99)
             // This excludes both dissimilar tasks (<60%) and identical tasks (>=99%)
             if (similarity >= 0.6 && similarity < 0.99) {
-                String reason = String.format("%.0f%% similar", similarity * 100);
-                similarTasks.add(new SimilarTaskDTO(candidateTask, similarity, reason));
-                seenTaskIds.add(summary.getId()); // Mark this task as seen
+                similarTasks.add(new ScoredCandidate(candidate, candidateEmbedding, similarity));
             }
         }
 
         // Sort by similarity (descending)
-        List<SimilarTaskDTO> sortedTasks = similarTasks.stream()
-                .sorted(Comparator.comparingDouble(SimilarTaskDTO::getSimilarityScore).reversed())
+        List<ScoredCandidate> sortedTasks = similarTasks.stream()
+                .sorted(Comparator.comparingDouble(ScoredCandidate::similarity).reversed())
                 .collect(Collectors.toList());
 
         // Apply diversity filter to ensure results are not too similar to each other
-        List<SimilarTaskDTO> diverseTasks = applyDiversityFilter(sortedTasks, limit);
+        List<ScoredCandidate> diverseTasks = applyDiversityFilter(sortedTasks, limit);
+
+        // Only the tasks that made the result are loaded, in one select, and returned in ranking order. Their
+        // collections are loaded in one select each, before the read-only transaction ends (no open-in-view).
+        List<Long> selectedIds = diverseTasks.stream().map(scored -> scored.candidate().getId()).toList();
+        Map<Long, Task> selectedTasks = selectedIds.isEmpty() ? Map.of() : taskRepository.findByUserIdAndIdIn(userId,
+                        selectedIds)
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        if (!selectedTasks.isEmpty()) {
+            taskRepository.fetchTags(selectedTasks.keySet());
+            taskRepository.fetchSubtasks(selectedTasks.keySet());
+            taskRepository.fetchAttachments(selectedTasks.keySet());
+            taskRepository.fetchComments(selectedTasks.keySet());
+        }
+        List<SimilarTaskDTO> results = new ArrayList<>();
+        for (ScoredCandidate scored : diverseTasks) {
+            Task candidateTask = selectedTasks.get(scored.candidate().getId());
+            if (candidateTask == null) {
+                // Deleted since its embedding was read
+                continue;
+            }
+            String reason = String.format("%.0f%% similar", scored.similarity() * 100);
+            results.add(new SimilarTaskDTO(TaskDetail.from(candidateTask), scored.similarity(), reason));
+        }
 
         logger.info("Found {} diverse similar tasks (out of {} candidates and requested limit of {})",
-                diverseTasks.size(), sortedTasks.size(), limit);
-        return diverseTasks;
+                results.size(), sortedTasks.size(), limit);
+        return results;
     }
 
+    /**
+     * A candidate in the similarity range, with its parsed embedding so the diversity filter does not parse it again.
+     */
+    private record ScoredCandidate(TaskEmbedding candidate, List<Double> embedding, double similarity) {}
+
     /**
      * Filters similar tasks to ensure diversity - no two tasks in the result are too similar to each other.
      * Uses a greedy approach: keeps tasks that are sufficiently different from already selected tasks.
      */
-    private List<SimilarTaskDTO> applyDiversityFilter(List<SimilarTaskDTO> candidates, int limit) {
+    private List<ScoredCandidate> applyDiversityFilter(List<ScoredCandidate> candidates, int limit) {
         if (candidates.isEmpty()) {
             return new ArrayList<>();
         }
 
-        List<SimilarTaskDTO> diverseResults = new ArrayList<>();
+        List<ScoredCandidate> diverseResults = new ArrayList<>();
 
         // Always include the first task (most similar to target)
         diverseResults.add(candidates.get(0));
@@ -473,28 +519,20 @@ public class TaskServiceImpl implements TaskService {
 
         // Check remaining candidates
         for (int i = 1; i < candidates.size() && diverseResults.size() < limit; i++) {
-            SimilarTaskDTO candidate = candidates.get(i);
+            ScoredCandidate candidate = candidates.get(i);
             boolean isDiverse = true;
 
             // Check if candidate is sufficiently different from already selected tasks
-            for (SimilarTaskDTO selected : diverseResults) {
-                List<Double> candidateEmbedding = embeddingService.jsonToEmbedding(
-                        candidate.getTask().getEmbedding());
-                List<Double> selectedEmbedding = embeddingService.jsonToEmbedding(
-                        selected.getTask().getEmbedding());
-
-                if (candidateEmbedding != null && selectedEmbedding != null) {
-                    double similarity = embeddingService.cosineSimilarity(
-                            candidateEmbedding, selectedEmbedding);
-
-                    // If too similar to an already selected task, skip it
-                    if (similarity >= DIVERSITY_THRESHOLD) {
-                        isDiverse = false;
-                        logger.debug("Skipping task '{}' - too similar ({}%) to already selected task '{}'",
-                                candidate.getTask().getTitle(), (int)(similarity * 100),
-                                selected.getTask().getTitle());
-                        break;
-                    }
+            for (ScoredCandidate selected : diverseResults) {
+                double similarity = embeddingService.cosineSimilarity(candidate.embedding(), selected.embedding());
+
+                // If too similar to an already selected task, skip it
+                if (similarity >= DIVERSITY_THRESHOLD) {
+                    isDiverse = false;
+                    logger.debug("Skipping task '{}' - too similar ({}%) to already selected task '{}'",
+                            candidate.candidate().getTitle(), (int)(similarity * 100),
+                            selected.candidate().getTitle());
+                    break;
                 }
             }
 
@@ -532,29 +570,18 @@ public class TaskServiceImpl implements TaskService {
     public int backfillEmbeddingsForUser(Long userId, boolean force) {
         logger.info("Backfilling embeddings for user {} (force={})", userId, force);
 
-        List<TaskSummary> userTaskSummaries = taskRepository.findTaskSummariesByUserId(userId);
+        // One select for the tasks that need an embedding, then one targeted update per generated embedding
+        List<TaskEmbedding> candidates = taskRepository.findEmbeddingBackfillCandidates(userId, force);
         int count = 0;
 
-        for (TaskSummary summary : userTaskSummaries) {
-            Optional<Task> taskOpt = taskRepository.findById(summary.getId());
-            if (taskOpt.isEmpty()) {
-                continue;
-            }
-
-            Task task = taskOpt.get();
-
-            // Skip if already has embedding UNLESS force=true
-            if (!force && task.getEmbedding() != null && !task.getEmbedding().isEmpty()) {
-                continue;
-            }
-
-            List<Double> embedding = embeddingService.generateEmbedding(task.getTitle(), task.getDescription());
+        for (TaskEmbedding candidate : candidates) {
+            List<Double> embedding = embeddingService.generateEmbedding(candidate.getTitle(), candidate.getDescription());
             if (embedding != null && !embedding.isEmpty()) {
                 String embeddingJson = embeddingService.embeddingToJson(embedding);
-                task.setEmbedding(embeddingJson);
-                taskRepository.save(task);
-                count++;
-                logger.debug("Generated embedding for task {}", task.getId());
+                if (taskRepository.updateEmbedding(candidate.getId(), embeddingJson) > 0) {
+                    count++;
+                    logger.debug("Generated embedding for task {}", candidate.getId());
+                }
             }
         }
 
@@ -591,4 +618,145 @@ public class TaskServiceImpl implements TaskService {
         logger.info("Backfilled {} embeddings for all tasks", count);
         return count;
     }
+
+    @Override
+    public BulkTaskResult applyBulkOperations(Long userId, List<BulkTaskOperation> operations) {
+        if (operations.size() > MAX_BULK_OPERATIONS) {
+            throw new IllegalArgumentException("A bulk request may contain at most " + MAX_BULK_OPERATIONS + " operations");
+        }
+
+        List<Task> toCreate = new ArrayList<>();
+        Set<Long> toComplete = new HashSet<>();
+        Map<Long, Set<Long>> toMoveByGroup = new LinkedHashMap<>();
+        Set<Long> toDelete = new HashSet<>();
+
+        for (BulkTaskOperation operation : operations) {
+            if (operation.getType() == null) {
+                throw new IllegalArgumentException("Operation type is required");
+            }
+            switch (operation.getType()) {
+                case CREATE -> toCreate.add(prepareBulkCreate(userId, operation.getTask()));
+                case COMPLETE -> toComplete.add(requireTaskId(operation));
+                case MOVE -> toMoveByGroup.computeIfAbsent(operation.getGroupId(), key -> new HashSet<>())
+                        .add(requireTaskId(operation));
+                case DELETE -> toDelete.add(requireTaskId(operation));
+            }
+        }
+
+        // The whole request is validated first; the embedding calls then run before the transaction, never inside it
+        toCreate.forEach(this::applyEmbedding);
+
+        BulkTaskResult result = transactionTemplate.execute(status -> applyInTransaction(userId, toCreate, toComplete,
+                toMoveByGroup, toDelete));
+
+        logger.info("Applied bulk operations for user {}: created={}, completed={}, moved={}, deleted={}",
+                userId, result.getCreated().size(), result.getCompleted(), result.getMoved(), result.getDeleted());
+        return result;
+    }
+
+    private BulkTaskResult applyInTransaction(Long userId, List<Task> toCreate, Set<Long> toComplete,
+                                              Map<Long, Set<Long>> toMoveByGroup, Set<Long> toDelete) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        BulkTaskResult result = new BulkTaskResult();
+
+        if (!toCreate.isEmpty()) {
+            // Sequence-generated ids let Hibernate send these as JDBC batches
+            List<Task> created = taskRepository.saveAll(toCreate);
+            User user = customUserDetailsService.findUserById(userId);
+            created.forEach(task -> queueCalendarSync(task, user));
+            afterCommit(() -> created.forEach(reminderScheduler::taskChanged));
+            result.setCreated(created.stream().map(TaskDetail::from).toList());
+        }
+
+        if (!toComplete.isEmpty()) {
+            // Only the requester's own tasks are completed; ids of other users' tasks are ignored
+            List<Long> owned = ownedTasks(userId, toComplete, this::queueCalendarSync);
+            if (!owned.isEmpty()) {
+                result.setCompleted(taskRepository.completeTasks(userId, owned, now));
+                afterCommit(() -> reminderScheduler.tasksRemoved(owned));
+            }
+        }
+
+        int moved = 0;
+        for (Map.Entry<Long, Set<Long>> entry : toMoveByGroup.entrySet()) {
+            validateGroupOwnership(entry.getKey(), userId);
+            moved += taskRepository.moveTasksToGroup(userId, entry.getValue(), entry.getKey(), now);
+        }
+        result.setMoved(moved);
+
+        if (!toDelete.isEmpty()) {
+            List<Long> deletedIds = ownedTasks(userId, toDelete, this::queueCalendarDelete);
+            if (!deletedIds.isEmpty()) {
+                taskRepository.deleteSubtasksByTaskIdIn(deletedIds);
+                taskRepository.deleteCommentsByTaskIdIn(deletedIds);
+                result.setDeleted(taskRepository.deleteTasks(userId, deletedIds));
+                afterCommit(() -> reminderScheduler.tasksRemoved(deletedIds));
+            }
+        }
+        return result;
+    }
+
+    // Ids of the requester's tasks among taskIds. The tasks themselves are only loaded when the user syncs to Google
+    // Calendar, to queue the outbox operation each one needs, as the single-task paths do.
+    private List<Long> ownedTasks(Long userId, Collection<Long> taskIds, BiConsumer<Task, User> calendarChange) {
+        User user = customUserDetailsService.findUserById(userId);
+        if (!isCalendarSyncEnabled(user)) {
+            return taskRepository.findIdsByUserIdAndIdIn(userId, taskIds);
+        }
+        List<Task> tasks = taskRepository.findByUserIdAndIdIn(userId, taskIds);
+        tasks.forEach(task -> calendarChange.accept(task, user));
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    // The reminder wheel must not see a change that may still roll back
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Task prepareBulkCreate(Long userId, Task task) {
+        if (task == null || task.getTitle() == null || task.getTitle().isEmpty()) {
+            throw new IllegalArgumentException("Title is required for created tasks");
+        }
+        if (task.getUserId() != null && !task.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("Created tasks must belong to the requesting user");
+        }
+        task.setId(null);
+        task.setUserId(userId);
+        if (task.getPriority() == null) {
+            task.setPriority(TaskPriority.MEDIUM);
+        }
+        task.setCreationDate(ZonedDateTime.now(ZoneOffset.UTC));
+        task.setLastModifiedDate(ZonedDateTime.now(ZoneOffset.UTC));
+        if (task.getGroupId() != null) {
+            validateGroupOwnership(task.getGroupId(), userId);
+        }
+        return task;
+    }
+
+    private Long requireTaskId(BulkTaskOperation operation) {
+        if (operation.getTaskId() == null) {
+            throw new IllegalArgumentException(operation.getType() + " operation requires a taskId");
+        }
+        return operation.getTaskId();
+    }
+
+    private void validateGroupOwnership(Long groupId, Long userId) {
+        if (groupId == null) {
+            return;
+        }
+        TaskGroup group = taskGroupRepository.findById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id " + groupId));
+        if (!group.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("Group does not belong to the task owner");
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package com.taskvantage.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: each timer hashes into a ring of slots by its due tick, so scheduling and cancelling are
+ * O(1) and a tick only looks at one slot. Timers further out than one revolution share a slot with nearer ones and
+ * are told apart by their absolute due tick. Not thread-safe; callers synchronize.
+ */
+final class TimerWheel<K> {
+
+    private record Timer<K>(K key, long dueTick, int slot) {}
+
+    private final long tickMillis;
+    private final List<Map<K, Timer<K>>> slots;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    // Last tick that has been processed
+    private long currentTick;
+
+    TimerWheel(int slotCount, Duration tick, Instant start) {
+        this.tickMillis = tick.toMillis();
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new LinkedHashMap<>());
+        }
+        this.currentTick = start.toEpochMilli() / tickMillis;
+    }
+
+    /**
+     * Schedules (or reschedules) {@code key} to expire at {@code due}; times already past expire on the next tick.
+     */
+    void schedule(K key, Instant due) {
+        cancel(key);
+        long dueTick = Math.max(Math.floorDiv(due.toEpochMilli() + tickMillis - 1, tickMillis), currentTick + 1);
+        int slot = (int) Math.floorMod(dueTick, (long) slots.size());
+        Timer<K> timer = new Timer<>(key, dueTick, slot);
+        slots.get(slot).put(key, timer);
+        timers.put(key, timer);
+    }
+
+    boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        slots.get(timer.slot()).remove(key);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code now} and returns the keys that expired on the way.
+     */
+    List<K> advance(Instant now) {
+        long targetTick = now.toEpochMilli() / tickMillis;
+        long ticks = targetTick - currentTick;
+        if (ticks <= 0) {
+            return List.of();
+        }
+
+        List<K> expired = new ArrayList<>();
+        // After a pause longer than one revolution every slot is visited once
+        int slotsToVisit = (int) Math.min(ticks, slots.size());
+        for (int i = 1; i <= slotsToVisit; i++) {
+            Map<K, Timer<K>> slot = slots.get((int) Math.floorMod(currentTick + i, (long) slots.size()));
+            Iterator<Timer<K>> iterator = slot.values().iterator();
+            while (iterator.hasNext()) {
+                Timer<K> timer = iterator.next();
+                if (timer.dueTick() <= targetTick) {
+                    iterator.remove();
+                    timers.remove(timer.key());
+                    expired.add(timer.key());
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskvantage.backend.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket refilled continuously at a fixed rate up to a burst capacity; starts full.
+ */
+final class TokenBucket {
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double available;
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, int capacity, LongSupplier nanoClock) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.available = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    synchronized int acquireUpTo(int max) {
+        refill();
+        int granted = (int) Math.min(max, Math.floor(available));
+        available -= granted;
+        return granted;
+    }
+
+    synchronized boolean tryAcquire() {
+        return acquireUpTo(1) == 1;
+    }
+
+    synchronized void release(int permits) {
+        available = Math.min(capacity, available + permits);
+    }
+
+    // A full bucket behaves exactly like a new one, so it can be discarded
+    synchronized boolean isFull() {
+        refill();
+        return available >= capacity;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        available = Math.min(capacity, available + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
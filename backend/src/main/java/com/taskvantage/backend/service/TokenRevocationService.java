@@ -0,0 +1,120 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.Security.VerifiedJwt;
+import com.taskvantage.backend.model.RevokedToken;
+import com.taskvantage.backend.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks JWTs revoked before their expiry. Revoked token ids are stored in the revoked_tokens table and
+ * mirrored in an in-memory Bloom filter, so the usual case (a token that was never revoked) is answered
+ * without I/O; only a filter hit is confirmed against the database. The filter is rebuilt on a timer, which
+ * also picks up revocations made by other instances and drops tokens that have expired since.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Clock clock;
+    private volatile BloomFilter filter;
+    // Guards rebuilds, which query the database; a ReentrantLock so waiting virtual threads do not pin a carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this(revokedTokenRepository, Clock.systemUTC());
+    }
+
+    TokenRevocationService(RevokedTokenRepository revokedTokenRepository, Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Refuses the token for the rest of its lifetime. Tokens issued before token ids were added cannot be revoked.
+     */
+    public void revoke(VerifiedJwt jwt) {
+        if (jwt.tokenId() == null || jwt.expiration() == null) {
+            logger.debug("Token has no id; it stays valid until it expires");
+            return;
+        }
+        ZonedDateTime expiresAt = jwt.expiration().toInstant().atZone(ZoneOffset.UTC);
+        revokedTokenRepository.save(new RevokedToken(jwt.tokenId(), jwt.userId(), expiresAt));
+        rebuildLock.lock();
+        try {
+            // Under the rebuild lock: the row is already saved, so either the running rebuild's query saw it
+            // or this put lands in the filter that rebuild installed
+            currentFilter().put(jwt.tokenId());
+        } finally {
+            rebuildLock.unlock();
+        }
+        logger.info("Revoked token for user ID: {}", jwt.userId());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (!currentFilter().mightContain(tokenId)) {
+            return false;
+        }
+        // Filter hit: either revoked or a false positive
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-ms:60000}")
+    public void refresh() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        int purged = revokedTokenRepository.deleteExpired(now);
+        if (purged > 0) {
+            logger.debug("Purged {} expired revoked token(s)", purged);
+        }
+        rebuild(now);
+    }
+
+    private void rebuild(ZonedDateTime now) {
+        rebuildLock.lock();
+        try {
+            List<String> tokenIds = revokedTokenRepository.findUnexpiredTokenIds(now);
+
+            // Twice the current count leaves room for revocations made before the next rebuild
+            BloomFilter rebuilt = BloomFilter.create(Math.max(MIN_CAPACITY, tokenIds.size() * 2), FALSE_POSITIVE_RATE);
+            tokenIds.forEach(rebuilt::put);
+            filter = rebuilt;
+            logger.debug("Rebuilt token revocation filter with {} token id(s)", tokenIds.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private BloomFilter currentFilter() {
+        BloomFilter current = filter;
+        if (current == null) {
+            // First request before the first scheduled refresh
+            rebuildLock.lock();
+            try {
+                if (filter == null) {
+                    rebuild(ZonedDateTime.now(clock));
+                }
+                current = filter;
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,176 @@
+package com.taskvantage.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Caches the outcome of Google access-token checks so repeated validity checks stay off the network.
+ * Entries are keyed on a SHA-256 of the token (raw tokens are not kept), live no longer than the token's
+ * own {@code expires_in}, and are re-checked in the background shortly before they go stale.
+ * Invalid tokens are cached too.
+ */
+final class TokenValidityCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenValidityCache.class);
+
+    // Upper bound on trusting a positive answer, so revocations elsewhere are noticed
+    static final Duration MAX_VALID_TTL = Duration.ofMinutes(15);
+    static final Duration NEGATIVE_TTL = Duration.ofMinutes(5);
+    // A token this close to expiry is treated as already expired
+    static final Duration EXPIRY_MARGIN = Duration.ofSeconds(60);
+    // Background re-check starts once this fraction of an entry's TTL has passed
+    static final double REFRESH_AHEAD_FRACTION = 0.8;
+    private static final int MAX_ENTRIES = 1000;
+
+    /**
+     * Answer from the token info endpoint; {@code expiresIn} is null when Google did not report it.
+     */
+    record TokenStatus(boolean valid, Duration expiresIn) {
+        static TokenStatus valid(Duration expiresIn) {
+            return new TokenStatus(true, expiresIn);
+        }
+
+        static TokenStatus invalid() {
+            return new TokenStatus(false, null);
+        }
+    }
+
+    /**
+     * Performs the actual check; an IOException means the answer is unknown (network or server error).
+     */
+    @FunctionalInterface
+    interface Loader {
+        TokenStatus check(String token) throws IOException;
+    }
+
+    private record Entry(boolean valid, Instant tokenExpiresAt, Instant refreshAt, Instant staleAt) {}
+
+    private final Loader loader;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    TokenValidityCache(Loader loader, Clock clock, Executor refreshExecutor) {
+        this.loader = loader;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    boolean isValid(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        String key = hash(token);
+        Instant now = clock.instant();
+        Entry entry = get(key);
+        if (entry != null) {
+            if (entry.valid() && !now.isBefore(entry.tokenExpiresAt())) {
+                // Past the token's own expiry; no need to ask Google
+                put(key, negativeEntry(now));
+                return false;
+            }
+            if (now.isBefore(entry.staleAt())) {
+                if (entry.valid() && !now.isBefore(entry.refreshAt())) {
+                    refreshAsync(key, token);
+                }
+                return entry.valid();
+            }
+        }
+
+        try {
+            Entry loaded = toEntry(loader.check(token), now);
+            put(key, loaded);
+            return loaded.valid();
+        } catch (IOException e) {
+            // Unknown answer: keep trusting a positive result until the token itself expires
+            logger.debug("Token validity check failed: {}", e.getMessage());
+            return entry != null && entry.valid() && now.isBefore(entry.tokenExpiresAt());
+        }
+    }
+
+    // Records that a token is no longer valid (e.g. after it was revoked)
+    void invalidate(String token) {
+        if (token != null && !token.isEmpty()) {
+            put(hash(token), negativeEntry(clock.instant()));
+        }
+    }
+
+    private void refreshAsync(String key, String token) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, toEntry(loader.check(token), clock.instant()));
+                } catch (IOException e) {
+                    logger.debug("Background token validity refresh failed: {}", e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            throw e;
+        }
+    }
+
+    private static Entry toEntry(TokenStatus status, Instant now) {
+        if (!status.valid()) {
+            return negativeEntry(now);
+        }
+        Duration lifetime = status.expiresIn() != null ? status.expiresIn().minus(EXPIRY_MARGIN) : MAX_VALID_TTL;
+        if (lifetime.isNegative() || lifetime.isZero()) {
+            return negativeEntry(now);
+        }
+        Duration ttl = lifetime.compareTo(MAX_VALID_TTL) < 0 ? lifetime : MAX_VALID_TTL;
+        return new Entry(true, now.plus(lifetime),
+                now.plusMillis((long) (ttl.toMillis() * REFRESH_AHEAD_FRACTION)), now.plus(ttl));
+    }
+
+    private static Entry negativeEntry(Instant now) {
+        Instant staleAt = now.plus(NEGATIVE_TTL);
+        return new Entry(false, now, staleAt, staleAt);
+    }
+
+    private Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.taskvantage.backend.Security;
+
+import com.taskvantage.backend.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class AuthorizationUtilTest {
+
+    private final JwtUtil jwtUtil = Mockito.mock(JwtUtil.class);
+    private final AuthorizationUtil authorizationUtil =
+            new AuthorizationUtil(jwtUtil, Mockito.mock(CustomUserDetailsService.class));
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void authenticateCurrentRequest(String token, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(VerifiedJwt.REQUEST_ATTRIBUTE,
+                new VerifiedJwt(token, "jti-1", "alice@example.com", userId, "ACCESS", "WEB", new Date()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    void tokenVerifiedByTheFilterIsNotParsedAgain() {
+        authenticateCurrentRequest("token-a", 42L);
+
+        assertNull(authorizationUtil.validateUserAccess("Bearer token-a", 42L));
+        assertEquals(403, authorizationUtil.validateResourceOwnership("Bearer token-a", 7L).getStatusCode().value());
+        verifyNoInteractions(jwtUtil);
+    }
+
+    @Test
+    void otherTokensAreStillParsed() {
+        authenticateCurrentRequest("token-a", 42L);
+        when(jwtUtil.getUserIdFromToken("token-b")).thenReturn(7L);
+
+        assertNull(authorizationUtil.validateUserAccess("Bearer token-b", 7L));
+        verify(jwtUtil).getUserIdFromToken("token-b");
+    }
+}
@@ -0,0 +1,90 @@
+package com.taskvantage.backend.Security;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private final JwtUtil jwtUtil = new JwtUtil() {
+        @Override
+        protected String getEnvVariable(String name) {
+            return SECRET;
+        }
+    };
+
+    private final UserDetails alice = new User("alice@example.com", "secret", List.of());
+
+    @Test
+    void verifiedTokenExposesItsClaims() {
+        String token = jwtUtil.generateTokens(alice, 42L, false).get("accessToken");
+
+        VerifiedJwt jwt = jwtUtil.verify(token);
+
+        assertEquals("alice@example.com", jwt.username());
+        assertEquals(42L, jwt.userId());
+        assertEquals("ACCESS", jwt.tokenType());
+        assertEquals("WEB", jwt.clientType());
+        assertTrue(jwtUtil.validateToken(jwt, alice));
+        assertFalse(jwtUtil.validateToken(jwt, new User("bob@example.com", "secret", List.of())));
+    }
+
+    @Test
+    void repeatedReadsOfTheSameTokenShareOneVerification() {
+        String token = jwtUtil.generateTokens(alice, 42L, false).get("accessToken");
+
+        Object first = jwtUtil.extractClaim(token, claims -> claims);
+        Object second = jwtUtil.extractClaim(token, claims -> claims);
+
+        assertSame(first, second);
+        assertEquals(42L, jwtUtil.getUserIdFromToken(token));
+    }
+
+    @Test
+    void verificationsAreTimedByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtUtil.setMeterRegistry(registry);
+        String token = jwtUtil.generateTokens(alice, 42L, false).get("accessToken");
+
+        jwtUtil.verify(token);
+        jwtUtil.verify(token);
+        assertThrows(IllegalArgumentException.class, () -> jwtUtil.verify("not-a-jwt"));
+
+        assertEquals(1, registry.get("taskvantage.jwt.verification").tag("outcome", "verified").timer().count());
+        assertEquals(1, registry.get("taskvantage.jwt.verification").tag("outcome", "cached").timer().count());
+        assertEquals(1, registry.get("taskvantage.jwt.verification").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void tamperedAndExpiredTokensAreRejected() {
+        String token = jwtUtil.generateTokens(alice, 42L, false).get("accessToken");
+        jwtUtil.verify(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        String expired = Jwts.builder()
+                .setClaims(Map.of("userId", 42L))
+                .setSubject("alice@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .compact();
+
+        assertThrows(IllegalArgumentException.class, () -> jwtUtil.verify(tampered));
+        assertThrows(IllegalArgumentException.class, () -> jwtUtil.verify(expired));
+    }
+}
@@ -0,0 +1,214 @@
+package com.taskvantage.backend.repository;
+
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.model.User;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls each TaskRepository query, captures the SQL Hibernate generates for it, and runs EXPLAIN (H2 in MySQL
+ * mode) on that SQL to assert that the planner picks an index instead of scanning a table. Collections loaded after
+ * the query are left to QueryCountRegressionTest.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:indexplan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class TaskRepositoryIndexTest {
+
+    private static final List<String> CAPTURED_SQL = new CopyOnWriteArrayList<>();
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2024, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+    private static final List<Long> TASK_IDS = List.of(1L, 2L, 3L);
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            StatementInspector inspector = sql -> {
+                CAPTURED_SQL.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("findTaskSummariesByUserId", repository -> repository.findTaskSummariesByUserId(1L)),
+                query("findNonCompletedTaskSummariesByUserId",
+                        repository -> repository.findNonCompletedTaskSummariesByUserId(1L)),
+                query("streamTaskSummariesByUserId", repository -> {
+                    try (Stream<?> summaries = repository.streamTaskSummariesByUserId(1L)) {
+                        summaries.count();
+                    }
+                }),
+                query("updateTaskStatus", repository -> repository.updateTaskStatus("Pending", 1L, 5L)),
+                query("completeTask", repository -> repository.completeTask(5L, NOW, Duration.ofHours(1))),
+                query("completeTasks", repository -> repository.completeTasks(1L, TASK_IDS, NOW)),
+                query("moveTasksToGroup", repository -> repository.moveTasksToGroup(1L, TASK_IDS, 7L, NOW)),
+                query("findByUserIdAndIdIn", repository -> repository.findByUserIdAndIdIn(1L, TASK_IDS)),
+                query("findIdsByUserIdAndIdIn", repository -> repository.findIdsByUserIdAndIdIn(1L, TASK_IDS)),
+                query("deleteSubtasksByTaskIdIn", repository -> repository.deleteSubtasksByTaskIdIn(TASK_IDS)),
+                query("deleteCommentsByTaskIdIn", repository -> repository.deleteCommentsByTaskIdIn(TASK_IDS)),
+                query("deleteTasks", repository -> repository.deleteTasks(1L, TASK_IDS)),
+                query("updateGoogleCalendarEventId",
+                        repository -> repository.updateGoogleCalendarEventId(5L, "evt-1", "evt-2")),
+                query("findByUserIdAndGoogleCalendarEventIdIn",
+                        repository -> repository.findByUserIdAndGoogleCalendarEventIdIn(1L, List.of("evt-1", "evt-2"))),
+                query("applyCalendarEventChange", repository -> repository.applyCalendarEventChange(5L, "evt-1",
+                        "Title", NOW, NOW.plusHours(1), false, NOW)),
+                query("countCalendarBackfillCandidates", repository -> repository.countCalendarBackfillCandidates(1L)),
+                query("findCalendarBackfillCandidates",
+                        repository -> repository.findCalendarBackfillCandidates(1L, 0L, Pageable.ofSize(50))),
+                query("linkGoogleCalendarEvent", repository -> repository.linkGoogleCalendarEvent(5L, "evt-1")),
+                query("findDetailById", repository -> repository.findDetailById(5L)),
+                query("findDueNotifications", repository -> repository.findDueNotifications(NOW,
+                        NOW.plusMinutes(15), 0L, Pageable.ofSize(500))),
+                query("findPendingStartReminders", repository -> repository.findPendingStartReminders(TASK_IDS)),
+                query("findUpcomingStartReminders", repository -> repository.findUpcomingStartReminders(
+                        List.of(1L, 2L), NOW.plusMinutes(15), NOW.plusMinutes(30))),
+                query("findReminderTargets", repository -> repository.findReminderTargets(TASK_IDS)),
+                query("findRemindersBetween", repository -> repository.findRemindersBetween(NOW, NOW.plusHours(2))),
+                query("claimNotifications", repository -> repository.claimNotifications(TASK_IDS, "node-a", NOW,
+                        NOW.plusMinutes(2))),
+                query("findClaimedNotifications",
+                        repository -> repository.findClaimedNotifications(TASK_IDS, "node-a", NOW)),
+                query("markNotificationsSent", repository -> repository.markNotificationsSent(TASK_IDS, "node-a")),
+                query("releaseNotificationClaims",
+                        repository -> repository.releaseNotificationClaims(TASK_IDS, "node-a")),
+                query("claimReminders", repository -> repository.claimReminders(TASK_IDS, NOW, "node-a")),
+                query("findClaimedReminders", repository -> repository.findClaimedReminders(TASK_IDS, NOW, "node-a")),
+                query("findRecentTasksByUserId", repository -> repository.findRecentTasksByUserId(1L)),
+                query("findPotentialTasksForUser", repository -> repository.findPotentialTasksForUser(1L)),
+                query("findRelatedTasks", repository -> repository.findRelatedTasks(5L, 1L, "report", "report")),
+                query("findPopularTasks", repository -> repository.findPopularTasks(3)),
+                query("fetchTags", repository -> repository.fetchTags(TASK_IDS)),
+                query("fetchSubtasks", repository -> repository.fetchSubtasks(TASK_IDS)),
+                query("fetchAttachments", repository -> repository.fetchAttachments(TASK_IDS)),
+                query("fetchComments", repository -> repository.fetchComments(TASK_IDS)),
+                query("findEmbeddingsByUserId", repository -> repository.findEmbeddingsByUserId(1L, 5L)),
+                query("findEmbeddingBackfillCandidates",
+                        repository -> repository.findEmbeddingBackfillCandidates(1L, false)),
+                query("updateEmbedding", repository -> repository.updateEmbedding(5L, "[0.1]")),
+                query("existsByUserId", repository -> repository.existsByUserId(1L)),
+                query("clearGroupIdByGroupId", repository -> repository.clearGroupIdByGroupId(7L))
+        );
+    }
+
+    private static Arguments query(String repositoryMethod, Consumer<TaskRepository> call) {
+        return Arguments.of(repositoryMethod, call);
+    }
+
+    // Committed once for the class, so every test sees the same seed however the tests are ordered; each test's
+    // own transaction (and whatever the modifying queries change) is still rolled back
+    @BeforeAll
+    static void seedTasks(@Autowired UserRepository userRepository, @Autowired TaskRepository taskRepository,
+                          @Autowired JdbcTemplate jdbcTemplate, @Autowired PlatformTransactionManager transactionManager) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>();
+            for (long userId = 1; userId <= 20; userId++) {
+                User user = new User();
+                user.setUsername("user" + userId + "@example.com");
+                user.setPassword("secret");
+                user.setToken("fcm-" + userId);
+                user.setEmailVerified(true);
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+
+            List<Task> tasks = new ArrayList<>();
+            for (User user : users) {
+                for (int i = 0; i < 25; i++) {
+                    Task task = new Task();
+                    task.setUserId(user.getId());
+                    task.setTitle("Task " + i);
+                    task.setDescription("Seeded task " + i);
+                    task.setPriority(TaskPriority.MEDIUM);
+                    task.setStatus(i % 3 == 0 ? Task.STATUS_COMPLETED : (i % 3 == 1 ? "In Progress" : "Pending"));
+                    task.setScheduledStart(NOW.plusMinutes(i * 10L));
+                    task.setLastModifiedDate(NOW.minusDays(i));
+                    task.setRecommendationScore((i % 10) / 10f);
+                    task.setReminders(new ArrayList<>(List.of(NOW.plusMinutes(i * 10L - 5))));
+                    tasks.add(task);
+                }
+            }
+            taskRepository.saveAll(tasks);
+        });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void everyRepositoryQueryUsesAnIndex(String repositoryMethod, Consumer<TaskRepository> call) {
+        CAPTURED_SQL.clear();
+        call.accept(taskRepository);
+        assertFalse(CAPTURED_SQL.isEmpty(), repositoryMethod + " sent no SQL");
+        // The repository query itself; anything after it loads collections of the returned tasks
+        String sql = CAPTURED_SQL.get(0);
+
+        String plan = explain(sql).toLowerCase(Locale.ROOT);
+
+        assertFalse(plan.contains("tablescan"), repositoryMethod + " scans a table:\n" + sql + "\n" + plan);
+        // Foreign key columns get an index of their own (fk..._index_n in H2; InnoDB does the same)
+        assertTrue(plan.contains("idx_") || plan.contains("primary_key") || plan.matches("(?s).*fk\\w*_index_.*"),
+                repositoryMethod + " does not use an index:\n" + sql + "\n" + plan);
+    }
+
+    // Bind parameters are left NULL: H2 picks the plan when the statement is prepared, not from the values
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    explain.setNull(i, Types.NULL);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+}
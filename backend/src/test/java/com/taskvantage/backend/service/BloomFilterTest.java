@@ -0,0 +1,42 @@
+package com.taskvantage.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void everyInsertedValueIsFound() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearItsTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Target 1%; allow for hashing not being ideal
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
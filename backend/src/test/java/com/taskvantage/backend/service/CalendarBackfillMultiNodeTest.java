@@ -0,0 +1,166 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.CalendarBackfill;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarBackfillRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two backfill services, standing in for two backend instances, run the backfill job against the same H2 table;
+ * the lease must let exactly one of them call Google for a user's backfill, a backfill of a worker that went away
+ * must be picked up once its lease expires, and a stale page must not overwrite the progress of a restart.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:backfillclaims;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+// Every repository call commits on its own, as it would for two separate nodes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CalendarBackfillMultiNodeTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+    private static final Set<CalendarBackfill.Status> ACTIVE =
+            Set.of(CalendarBackfill.Status.PENDING, CalendarBackfill.Status.RUNNING);
+
+    @Autowired
+    private CalendarBackfillRepository backfillRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private GoogleCalendarService googleCalendarService;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        googleCalendarService = Mockito.mock(GoogleCalendarService.class);
+        User user = new User();
+        user.setUsername("backfill@example.com");
+        user.setPassword("secret");
+        user.setGoogleAccessToken("access-token");
+        user.setTaskSyncEnabled(true);
+        userId = userRepository.save(user).getId();
+
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task();
+            task.setUserId(userId);
+            task.setTitle("Task " + i);
+            task.setPriority(TaskPriority.MEDIUM);
+            task.setStatus("Pending");
+            task.setScheduledStart(START.plusDays(i));
+            task.setDueDate(START.plusDays(i).plusHours(1));
+            taskRepository.save(task);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        backfillRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private CalendarBackfillService node() {
+        return new CalendarBackfillService(backfillRepository, taskRepository, userRepository,
+                googleCalendarService, 60, () -> 0L);
+    }
+
+    private void answerCalendarBatches(Runnable whileInFlight) throws Exception {
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger events = new AtomicInteger();
+        when(googleCalendarService.executeBatch(any(), anyList())).thenAnswer(invocation -> {
+            if (batches.getAndIncrement() == 0) {
+                whileInFlight.run();
+            }
+            List<GoogleCalendarService.EventRequest> requests = invocation.getArgument(1);
+            return requests.stream()
+                    .map(request -> new GoogleCalendarService.EventResult("evt-" + events.incrementAndGet(), 200, null))
+                    .toList();
+        });
+    }
+
+    @Test
+    void backfillInFlightOnOneNodeIsNotAdvancedByAnother() throws Exception {
+        CalendarBackfillService nodeA = node();
+        CalendarBackfillService nodeB = node();
+        nodeA.requestBackfill(userId);
+        // Node A's page is still waiting on Google when node B polls
+        answerCalendarBatches(nodeB::runBackfills);
+
+        nodeA.runBackfills();
+
+        verify(googleCalendarService).executeBatch(any(), anyList());
+        verify(googleCalendarService, never()).deleteCalendarEvent(any(), any());
+        CalendarBackfill backfill = backfillRepository.findById(userId).orElseThrow();
+        assertEquals(CalendarBackfill.Status.COMPLETED, backfill.getStatus());
+        assertEquals(3, backfill.getSyncedTasks());
+        assertNull(backfill.getClaimedBy());
+    }
+
+    @Test
+    void backfillLeaseOfANodeThatWentAwayIsTakenOverAfterItExpires() throws Exception {
+        node().requestBackfill(userId);
+        answerCalendarBatches(() -> { });
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        backfillRepository.claimBackfills(ACTIVE, "node-c", now, now.plus(CalendarBackfillService.CLAIM_LEASE));
+
+        node().runBackfills();
+        verify(googleCalendarService, never()).executeBatch(any(), anyList());
+
+        // Node C never reported back; once its lease has run out the backfill moves on
+        backfillRepository.claimBackfills(ACTIVE, "node-c", now.plus(CalendarBackfillService.CLAIM_LEASE),
+                now.minusSeconds(1));
+        node().runBackfills();
+
+        verify(googleCalendarService).executeBatch(any(), anyList());
+        assertEquals(3, backfillRepository.findById(userId).orElseThrow().getSyncedTasks());
+    }
+
+    @Test
+    void pageInFlightDuringARestartDoesNotOverwriteTheRestartedProgress() throws Exception {
+        CalendarBackfillService nodeA = node();
+        nodeA.requestBackfill(userId);
+        // Sync is switched off and on again while node A's page is waiting on Google
+        answerCalendarBatches(() -> nodeA.requestBackfill(userId));
+
+        nodeA.runBackfills();
+
+        CalendarBackfill backfill = backfillRepository.findById(userId).orElseThrow();
+        assertEquals(CalendarBackfill.Status.PENDING, backfill.getStatus());
+        assertEquals(0, backfill.getSyncedTasks());
+        assertEquals(0, backfill.getLastTaskId());
+    }
+}
@@ -0,0 +1,143 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.CalendarBackfill;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarBackfillRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CalendarBackfillServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private CalendarBackfillRepository backfillRepository;
+    private TaskRepository taskRepository;
+    private GoogleCalendarService googleCalendarService;
+    private final AtomicLong clock = new AtomicLong();
+    private CalendarBackfillService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        backfillRepository = Mockito.mock(CalendarBackfillRepository.class);
+        taskRepository = Mockito.mock(TaskRepository.class);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        googleCalendarService = Mockito.mock(GoogleCalendarService.class);
+        // 60 events per minute: one permit per second, bursting to a full page
+        service = new CalendarBackfillService(backfillRepository, taskRepository, userRepository,
+                googleCalendarService, 60, clock::get);
+
+        user = new User();
+        user.setId(USER_ID);
+        user.setGoogleAccessToken("access-token");
+        user.setTaskSyncEnabled(true);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(taskRepository.linkGoogleCalendarEvent(any(), any())).thenReturn(1);
+    }
+
+    private static List<Task> tasks(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            Task task = new Task(id, "Task " + id, null);
+            task.setUserId(USER_ID);
+            task.setScheduledStart(START);
+            task.setDueDate(START.plusHours(1));
+            return task;
+        }).toList();
+    }
+
+    private static List<GoogleCalendarService.EventResult> created(List<Task> tasks) {
+        return tasks.stream().map(task -> new GoogleCalendarService.EventResult("evt-" + task.getId(), 200, null)).toList();
+    }
+
+    @Test
+    void lastPageIsSentAsOneBatchAndCompletesTheBackfill() throws Exception {
+        CalendarBackfill backfill = new CalendarBackfill(USER_ID, 3);
+        List<Task> page = tasks(1, 3);
+        when(taskRepository.findCalendarBackfillCandidates(eq(USER_ID), eq(0L), any())).thenReturn(page);
+        when(googleCalendarService.executeBatch(eq(user), anyList())).thenReturn(created(page));
+
+        assertEquals(3, service.processPage(backfill));
+
+        verify(googleCalendarService, times(1)).executeBatch(eq(user), argThat(requests -> requests.size() == 3));
+        verify(taskRepository).linkGoogleCalendarEvent(3L, "evt-3");
+        assertEquals(CalendarBackfill.Status.COMPLETED, backfill.getStatus());
+        assertEquals(3, backfill.getSyncedTasks());
+        assertEquals(3, backfill.getLastTaskId());
+        // Progress is written with a targeted update under the lease, never by saving the whole row
+        verify(backfillRepository).finishBackfill(eq(USER_ID), anyString(), eq(backfill.getStartedAt()),
+                eq(CalendarBackfill.Status.COMPLETED), eq(3L), eq(0L), eq(3L), eq(0), isNull(), any());
+        verify(backfillRepository, never()).save(any());
+    }
+
+    @Test
+    void rateLimiterBoundsEachPage() throws Exception {
+        CalendarBackfill backfill = new CalendarBackfill(USER_ID, 200);
+        List<Task> firstPage = tasks(1, CalendarBackfillService.PAGE_SIZE);
+        when(taskRepository.findCalendarBackfillCandidates(eq(USER_ID), eq(0L), any())).thenReturn(firstPage);
+        when(googleCalendarService.executeBatch(eq(user), anyList())).thenReturn(created(firstPage));
+        assertEquals(CalendarBackfillService.PAGE_SIZE, service.processPage(backfill));
+
+        // The burst is spent: nothing is fetched until permits have accumulated again
+        assertEquals(0, service.processPage(backfill));
+        verify(taskRepository, times(1)).findCalendarBackfillCandidates(any(), any(), any());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        List<Task> secondPage = tasks(51, 60);
+        when(taskRepository.findCalendarBackfillCandidates(eq(USER_ID), eq(50L), any())).thenReturn(secondPage);
+        when(googleCalendarService.executeBatch(eq(user), anyList())).thenReturn(created(secondPage));
+
+        assertEquals(10, service.processPage(backfill));
+        verify(taskRepository).findCalendarBackfillCandidates(USER_ID, 50L, Pageable.ofSize(10));
+        assertEquals(CalendarBackfill.Status.RUNNING, backfill.getStatus());
+        assertEquals(60, backfill.getSyncedTasks());
+    }
+
+    @Test
+    void failedBatchIsRetriedFromTheSamePositionThenGivesUp() throws Exception {
+        CalendarBackfill backfill = new CalendarBackfill(USER_ID, 3);
+        when(taskRepository.findCalendarBackfillCandidates(eq(USER_ID), eq(0L), any())).thenReturn(tasks(1, 3));
+        when(googleCalendarService.executeBatch(eq(user), anyList())).thenThrow(new IOException("Connection reset"));
+
+        for (int attempt = 1; attempt <= CalendarBackfillService.MAX_CONSECUTIVE_FAILURES; attempt++) {
+            service.processPage(backfill);
+            assertEquals(0, backfill.getLastTaskId());
+        }
+
+        assertEquals(CalendarBackfill.Status.FAILED, backfill.getStatus());
+        assertEquals("Connection reset", backfill.getLastError());
+        verify(taskRepository, never()).linkGoogleCalendarEvent(any(), any());
+    }
+
+    @Test
+    void eventForTaskLinkedMeanwhileIsDeleted() throws Exception {
+        CalendarBackfill backfill = new CalendarBackfill(USER_ID, 1);
+        List<Task> page = tasks(7, 7);
+        when(taskRepository.findCalendarBackfillCandidates(eq(USER_ID), eq(0L), any())).thenReturn(page);
+        when(googleCalendarService.executeBatch(eq(user), anyList())).thenReturn(created(page));
+        when(taskRepository.linkGoogleCalendarEvent(7L, "evt-7")).thenReturn(0);
+
+        service.processPage(backfill);
+
+        verify(googleCalendarService).deleteCalendarEvent(user, "evt-7");
+        assertEquals(0, backfill.getSyncedTasks());
+    }
+}
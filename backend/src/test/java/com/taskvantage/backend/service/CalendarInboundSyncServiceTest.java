@@ -0,0 +1,179 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the inbound sync against a real Calendar client pointed at FakeGoogleCalendarServer.
+ */
+class CalendarInboundSyncServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private FakeGoogleCalendarServer calendar;
+    private TaskRepository taskRepository;
+    private UserRepository userRepository;
+    private CalendarSyncOperationRepository outboxRepository;
+    private CalendarInboundSyncService service;
+    private final List<Task> tasks = new ArrayList<>();
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        calendar = new FakeGoogleCalendarServer();
+        GoogleCalendarService googleCalendarService = new GoogleCalendarService();
+        ReflectionTestUtils.setField(googleCalendarService, "rootUrl", calendar.rootUrl());
+
+        taskRepository = Mockito.mock(TaskRepository.class);
+        userRepository = Mockito.mock(UserRepository.class);
+        outboxRepository = Mockito.mock(CalendarSyncOperationRepository.class);
+        service = new CalendarInboundSyncService(userRepository, taskRepository, outboxRepository, googleCalendarService,
+                Mockito.mock(ReminderScheduler.class));
+
+        when(taskRepository.findByUserIdAndGoogleCalendarEventIdIn(eq(USER_ID), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> eventIds = invocation.getArgument(1);
+            return tasks.stream().filter(task -> eventIds.contains(task.getGoogleCalendarEventId())).toList();
+        });
+        when(taskRepository.applyCalendarEventChange(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(taskRepository.updateGoogleCalendarEventId(any(), any(), any())).thenReturn(1);
+
+        user = new User();
+        user.setId(USER_ID);
+        user.setGoogleAccessToken("access-token");
+        user.setTaskSyncEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        calendar.close();
+    }
+
+    private Task linkedTask(Long id, String eventId) {
+        Task task = new Task(id, "Task " + id, null);
+        task.setUserId(USER_ID);
+        task.setScheduledStart(START);
+        task.setDueDate(START.plusHours(1));
+        task.setGoogleCalendarEventId(eventId);
+        tasks.add(task);
+        return task;
+    }
+
+    @Test
+    void firstSyncPagesThroughCalendarAndStoresToken() throws Exception {
+        linkedTask(10L, "evt-1");
+        calendar.putEvent("evt-1", "Renamed in Google", START.plusDays(1), START.plusDays(1).plusHours(2));
+        calendar.putEvent("evt-2", "Not a task", START, START.plusHours(1));
+        calendar.putEvent("evt-3", "Also not a task", START, START.plusHours(1));
+        calendar.setPageSize(2);
+
+        assertEquals(1, service.syncUser(user));
+
+        verify(taskRepository).applyCalendarEventChange(eq(10L), eq("evt-1"), eq("Renamed in Google"),
+                eq(START.plusDays(1)), eq(START.plusDays(1).plusHours(2)), eq(false), any());
+        verify(userRepository).updateGoogleCalendarSyncToken(USER_ID, calendar.currentSyncToken());
+        assertEquals(2, calendar.requests().size());
+        assertFalse(calendar.requests().stream().anyMatch(params -> params.containsKey("syncToken")));
+    }
+
+    @Test
+    void incrementalSyncPullsOnlyChangedEvents() throws Exception {
+        linkedTask(10L, "evt-1");
+        linkedTask(11L, "evt-2");
+        calendar.putEvent("evt-1", "Task 10", START, START.plusHours(1));
+        calendar.putEvent("evt-2", "Task 11", START, START.plusHours(1));
+        user.setGoogleCalendarSyncToken(calendar.currentSyncToken());
+        calendar.cancelEvent("evt-2");
+
+        assertEquals(1, service.syncUser(user));
+
+        Map<String, String> request = calendar.requests().get(0);
+        assertEquals("sync-0-2", request.get("syncToken"));
+        verify(taskRepository).findByUserIdAndGoogleCalendarEventIdIn(eq(USER_ID),
+                argThat(eventIds -> eventIds.size() == 1 && eventIds.contains("evt-2")));
+        verify(taskRepository).updateGoogleCalendarEventId(11L, "evt-2", null);
+        verify(taskRepository, never()).applyCalendarEventChange(any(), any(), any(), any(), any(), any(), any());
+        assertEquals(calendar.currentSyncToken(), user.getGoogleCalendarSyncToken());
+    }
+
+    @Test
+    void invalidatedTokenFallsBackToFullSync() throws Exception {
+        linkedTask(10L, "evt-1");
+        calendar.putEvent("evt-1", "Moved in Google", START.plusHours(3), START.plusHours(4));
+        user.setGoogleCalendarSyncToken(calendar.currentSyncToken());
+        calendar.invalidateSyncTokens();
+
+        assertEquals(1, service.syncUser(user));
+
+        List<Map<String, String>> requests = calendar.requests();
+        assertEquals(2, requests.size());
+        assertEquals("sync-0-1", requests.get(0).get("syncToken"));
+        assertNull(requests.get(1).get("syncToken"));
+        verify(userRepository).updateGoogleCalendarSyncToken(USER_ID, "sync-1-1");
+    }
+
+    @Test
+    void echoesAndTasksWithPendingLocalEditsAreLeftAlone() throws Exception {
+        linkedTask(10L, "evt-1");
+        linkedTask(11L, "evt-2");
+        // evt-1 matches the task exactly (our own write coming back); task 11 has an unpushed local edit
+        calendar.putEvent("evt-1", "Task 10", START, START.plusHours(1));
+        calendar.putEvent("evt-2", "Changed in Google", START, START.plusHours(1));
+        when(outboxRepository.findTaskIdsWithPendingOperations(eq(USER_ID), anyCollection())).thenReturn(List.of(11L));
+
+        assertEquals(0, service.syncUser(user));
+
+        verify(taskRepository, never()).applyCalendarEventChange(any(), any(), any(), any(), any(), any(), any());
+        verify(taskRepository, never()).updateGoogleCalendarEventId(any(), any(), any());
+    }
+
+    @Test
+    void fullSyncAfterAnInvalidatedTokenUnlinksEventsDeletedMeanwhile() throws Exception {
+        linkedTask(10L, "evt-1");
+        calendar.putEvent("evt-1", "Task 10", START, START.plusHours(1));
+        user.setGoogleCalendarSyncToken(calendar.currentSyncToken());
+        calendar.cancelEvent("evt-1");
+        calendar.invalidateSyncTokens();
+
+        assertEquals(1, service.syncUser(user));
+
+        assertEquals("true", calendar.requests().get(1).get("showDeleted"));
+        verify(taskRepository).updateGoogleCalendarEventId(10L, "evt-1", null);
+    }
+
+    @Test
+    void allDayEchoKeepsTheTaskTimesAndDateMovesKeepTheTimeOfDay() throws Exception {
+        // The task is all-day but keeps 09:00-10:00; Google only holds its date
+        linkedTask(10L, "evt-1").setIsAllDay(true);
+        calendar.putAllDayEvent("evt-1", "Task 10", START.toLocalDate(), START.toLocalDate());
+        linkedTask(11L, "evt-2").setIsAllDay(true);
+        calendar.putAllDayEvent("evt-2", "Task 11", START.toLocalDate().plusDays(2), START.toLocalDate().plusDays(2));
+
+        assertEquals(1, service.syncUser(user));
+
+        verify(taskRepository).applyCalendarEventChange(eq(11L), eq("evt-2"), eq("Task 11"),
+                eq(START.plusDays(2)), eq(START.plusDays(2).plusHours(1)), eq(true), any());
+        verify(taskRepository, never()).applyCalendarEventChange(eq(10L), any(), any(), any(), any(), any(), any());
+    }
+}
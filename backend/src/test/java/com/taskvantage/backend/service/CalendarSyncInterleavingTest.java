@@ -0,0 +1,155 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.CalendarBackfill;
+import com.taskvantage.backend.model.CalendarSyncOperation;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarBackfillRepository;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The outbox worker and the backfill both create an event for a task that has none. Whichever links its event
+ * second must find the task already linked and delete its own event, so the task ends up with exactly one.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:calendarinterleaving;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+// Every repository call commits on its own, as it does for the two background jobs
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CalendarSyncInterleavingTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CalendarSyncOperationRepository outboxRepository;
+
+    @Autowired
+    private CalendarBackfillRepository backfillRepository;
+
+    private GoogleCalendarService googleCalendarService;
+    private CalendarSyncWorker worker;
+    private CalendarBackfillService backfillService;
+    private Long userId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        googleCalendarService = Mockito.mock(GoogleCalendarService.class);
+        worker = new CalendarSyncWorker(outboxRepository, taskRepository, userRepository, googleCalendarService);
+        backfillService = new CalendarBackfillService(backfillRepository, taskRepository, userRepository,
+                googleCalendarService, 60, () -> 0L);
+
+        User user = new User();
+        user.setUsername("calendar@example.com");
+        user.setPassword("secret");
+        user.setGoogleAccessToken("access-token");
+        user.setTaskSyncEnabled(true);
+        userId = userRepository.save(user).getId();
+
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle("Quarterly review");
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setStatus("Pending");
+        task.setScheduledStart(START);
+        task.setDueDate(START.plusHours(1));
+        taskId = taskRepository.save(task).getId();
+        outboxRepository.save(new CalendarSyncOperation(userId, taskId, CalendarSyncOperation.Type.CREATE, null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+        backfillRepository.deleteAll();
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void backfillLinkingWhileTheQueuedCreateIsInFlightKeepsTheBackfilledEvent() throws Exception {
+        backfillService.requestBackfill(userId);
+        AtomicInteger batches = new AtomicInteger();
+        when(googleCalendarService.executeBatch(any(), anyList())).thenAnswer(invocation -> {
+            if (batches.getAndIncrement() == 0) {
+                // The worker's create is still waiting on Google when the backfill runs its page
+                backfillService.runBackfills();
+                return List.of(new GoogleCalendarService.EventResult("evt-outbox", 200, null));
+            }
+            return List.of(new GoogleCalendarService.EventResult("evt-backfill", 200, null));
+        });
+
+        worker.drainOutbox();
+
+        assertEquals("evt-backfill", taskRepository.findById(taskId).orElseThrow().getGoogleCalendarEventId());
+        verify(googleCalendarService).deleteCalendarEvent(any(), eq("evt-outbox"));
+        verify(googleCalendarService, never()).deleteCalendarEvent(any(), eq("evt-backfill"));
+        assertEquals(0, outboxRepository.count());
+        assertBackfillCompleted(1);
+    }
+
+    @Test
+    void queuedCreateLinkingWhileTheBackfillIsInFlightKeepsTheOutboxEvent() throws Exception {
+        backfillService.requestBackfill(userId);
+        AtomicInteger batches = new AtomicInteger();
+        when(googleCalendarService.executeBatch(any(), anyList())).thenAnswer(invocation -> {
+            if (batches.getAndIncrement() == 0) {
+                // The backfill's page is still waiting on Google when the worker drains the outbox
+                worker.drainOutbox();
+                return List.of(new GoogleCalendarService.EventResult("evt-backfill", 200, null));
+            }
+            return List.of(new GoogleCalendarService.EventResult("evt-outbox", 200, null));
+        });
+
+        backfillService.runBackfills();
+
+        assertEquals("evt-outbox", taskRepository.findById(taskId).orElseThrow().getGoogleCalendarEventId());
+        verify(googleCalendarService).deleteCalendarEvent(any(), eq("evt-backfill"));
+        verify(googleCalendarService, never()).deleteCalendarEvent(any(), eq("evt-outbox"));
+        assertEquals(0, outboxRepository.count());
+        assertBackfillCompleted(0);
+    }
+
+    private void assertBackfillCompleted(long syncedTasks) {
+        CalendarBackfill backfill = backfillService.getProgress(userId).orElseThrow();
+        assertEquals(CalendarBackfill.Status.COMPLETED, backfill.getStatus());
+        assertEquals(syncedTasks, backfill.getSyncedTasks());
+        assertNull(backfill.getClaimedBy());
+    }
+}
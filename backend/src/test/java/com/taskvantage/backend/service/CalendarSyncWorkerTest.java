@@ -0,0 +1,168 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.CalendarSyncOperation;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CalendarSyncWorkerTest {
+
+    private static final Long USER_ID = 1L;
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private CalendarSyncOperationRepository outboxRepository;
+    private TaskRepository taskRepository;
+    private GoogleCalendarService googleCalendarService;
+    private CalendarSyncWorker worker;
+    private long nextOperationId = 1;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = Mockito.mock(CalendarSyncOperationRepository.class);
+        taskRepository = Mockito.mock(TaskRepository.class);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        googleCalendarService = Mockito.mock(GoogleCalendarService.class);
+        worker = new CalendarSyncWorker(outboxRepository, taskRepository, userRepository, googleCalendarService);
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setGoogleAccessToken("access-token");
+        user.setTaskSyncEnabled(true);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    }
+
+    private CalendarSyncOperation operation(Long taskId, CalendarSyncOperation.Type type, String eventId) {
+        CalendarSyncOperation operation = new CalendarSyncOperation(USER_ID, taskId, type, eventId);
+        operation.setId(nextOperationId++);
+        return operation;
+    }
+
+    private Task task(Long id, String eventId) {
+        Task task = new Task(id, "Task " + id, null);
+        task.setUserId(USER_ID);
+        task.setScheduledStart(START);
+        task.setDueDate(START.plusHours(1));
+        task.setGoogleCalendarEventId(eventId);
+        return task;
+    }
+
+    private void givenDue(CalendarSyncOperation... operations) {
+        List<Long> ids = Stream.of(operations).map(CalendarSyncOperation::getId).toList();
+        when(outboxRepository.findClaimableOperationIds(any(), any())).thenReturn(ids);
+        when(outboxRepository.findClaimedOperations(eq(ids), anyString(), any())).thenReturn(List.of(operations));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<GoogleCalendarService.EventRequest> capturedBatch() throws Exception {
+        ArgumentCaptor<List<GoogleCalendarService.EventRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(googleCalendarService).executeBatch(any(), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void repeatedUpdatesToOneTaskBecomeOneCalendarCall() throws Exception {
+        givenDue(operation(10L, CalendarSyncOperation.Type.UPDATE, null),
+                operation(10L, CalendarSyncOperation.Type.UPDATE, null),
+                operation(10L, CalendarSyncOperation.Type.UPDATE, null));
+        when(taskRepository.findByUserIdAndIdIn(eq(USER_ID), anyCollection())).thenReturn(List.of(task(10L, "evt-10")));
+        when(googleCalendarService.executeBatch(any(), anyList()))
+                .thenReturn(List.of(new GoogleCalendarService.EventResult("evt-10", 200, null)));
+
+        worker.drainOutbox();
+
+        List<GoogleCalendarService.EventRequest> batch = capturedBatch();
+        assertEquals(1, batch.size());
+        assertEquals(GoogleCalendarService.EventRequest.Action.UPDATE, batch.get(0).getAction());
+        assertEquals("evt-10", batch.get(0).getEventId());
+        verify(outboxRepository).deleteByIdIn(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void operationsForDifferentTasksShareOneBatch() throws Exception {
+        givenDue(operation(11L, CalendarSyncOperation.Type.CREATE, null),
+                operation(12L, CalendarSyncOperation.Type.UPDATE, null),
+                operation(12L, CalendarSyncOperation.Type.DELETE, "evt-12"));
+        when(taskRepository.findByUserIdAndIdIn(eq(USER_ID), anyCollection())).thenReturn(List.of(task(11L, null)));
+        when(googleCalendarService.executeBatch(any(), anyList())).thenReturn(List.of(
+                new GoogleCalendarService.EventResult("evt-new", 200, null),
+                new GoogleCalendarService.EventResult("evt-12", 200, null)));
+        when(taskRepository.updateGoogleCalendarEventId(11L, null, "evt-new")).thenReturn(1);
+
+        worker.drainOutbox();
+
+        List<GoogleCalendarService.EventRequest> batch = capturedBatch();
+        assertEquals(List.of(GoogleCalendarService.EventRequest.Action.CREATE, GoogleCalendarService.EventRequest.Action.DELETE),
+                batch.stream().map(GoogleCalendarService.EventRequest::getAction).toList());
+        // The created event id is written back; the delete supersedes the earlier update
+        verify(taskRepository).updateGoogleCalendarEventId(11L, null, "evt-new");
+        verify(outboxRepository).deleteByIdIn(List.of(1L));
+        verify(outboxRepository).deleteByIdIn(List.of(2L, 3L));
+    }
+
+    @Test
+    void failedCallIsRescheduledWithBackoff() throws Exception {
+        givenDue(operation(13L, CalendarSyncOperation.Type.UPDATE, null));
+        when(taskRepository.findByUserIdAndIdIn(eq(USER_ID), anyCollection())).thenReturn(List.of(task(13L, "evt-13")));
+        when(googleCalendarService.executeBatch(any(), anyList()))
+                .thenReturn(List.of(new GoogleCalendarService.EventResult(null, 429, "Rate limit exceeded")));
+
+        worker.drainOutbox();
+
+        verify(outboxRepository).scheduleRetry(eq(List.of(1L)), eq(1), any(ZonedDateTime.class),
+                eq("Google Calendar returned 429: Rate limit exceeded"));
+        verify(outboxRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void eventDeletedOnGoogleSideIsRecreated() throws Exception {
+        givenDue(operation(14L, CalendarSyncOperation.Type.UPDATE, null));
+        when(taskRepository.findByUserIdAndIdIn(eq(USER_ID), anyCollection())).thenReturn(List.of(task(14L, "evt-gone")));
+        when(googleCalendarService.executeBatch(any(), anyList()))
+                .thenReturn(List.of(new GoogleCalendarService.EventResult(null, 404, "Not Found")));
+        when(googleCalendarService.createCalendarEvent(any(), eq("Task 14"), any(), any(), anyBoolean())).thenReturn("evt-14");
+        when(taskRepository.updateGoogleCalendarEventId(14L, "evt-gone", "evt-14")).thenReturn(1);
+
+        worker.drainOutbox();
+
+        verify(taskRepository).updateGoogleCalendarEventId(14L, "evt-gone", "evt-14");
+        verify(outboxRepository).deleteByIdIn(List.of(1L));
+    }
+
+    @Test
+    void createdEventIsDeletedWhenTheTaskWasLinkedMeanwhile() throws Exception {
+        givenDue(operation(15L, CalendarSyncOperation.Type.CREATE, null));
+        when(taskRepository.findByUserIdAndIdIn(eq(USER_ID), anyCollection())).thenReturn(List.of(task(15L, null)));
+        when(googleCalendarService.executeBatch(any(), anyList()))
+                .thenReturn(List.of(new GoogleCalendarService.EventResult("evt-late", 200, null)));
+        when(taskRepository.updateGoogleCalendarEventId(15L, null, "evt-late")).thenReturn(0);
+
+        worker.drainOutbox();
+
+        verify(googleCalendarService).deleteCalendarEvent(any(), eq("evt-late"));
+        verify(outboxRepository).deleteByIdIn(List.of(1L));
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(Duration.ofSeconds(30), CalendarSyncWorker.backoff(1));
+        assertEquals(Duration.ofMinutes(2), CalendarSyncWorker.backoff(3));
+        assertEquals(CalendarSyncWorker.MAX_BACKOFF, CalendarSyncWorker.backoff(30));
+    }
+}
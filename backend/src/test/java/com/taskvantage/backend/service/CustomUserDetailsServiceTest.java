@@ -61,4 +61,22 @@ class CustomUserDetailsServiceTest {
             customUserDetailsService.updateUserToken(username, token);
         });
     }
+
+    @Test
+    void testLoadUserByUsername_CachedUntilUserIsSaved() {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("testuser");
+        Mockito.when(userRepository.findByUsername("testuser")).thenReturn(user);
+        Mockito.when(userRepository.save(user)).thenReturn(user);
+
+        customUserDetailsService.loadUserByUsername("testuser");
+        customUserDetailsService.loadUserByUsername("testuser");
+        Mockito.verify(userRepository, Mockito.times(1)).findByUsername("testuser");
+
+        // A password change (or any other save) must be seen by the next request
+        customUserDetailsService.saveUser(user);
+        customUserDetailsService.loadUserByUsername("testuser");
+        Mockito.verify(userRepository, Mockito.times(2)).findByUsername("testuser");
+    }
 }
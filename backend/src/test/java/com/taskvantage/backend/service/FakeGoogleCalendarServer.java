@@ -0,0 +1,173 @@
+package com.taskvantage.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local stand-in for the Calendar v3 events.list endpoint, with Google's sync-token semantics, so the inbound
+ * sync can be tested offline. Every change bumps a version and a sync token remembers the version it was issued
+ * at; invalidating the tokens makes every outstanding one answer 410 Gone.
+ */
+class FakeGoogleCalendarServer implements AutoCloseable {
+
+    private static final String EVENTS_PATH = "/calendar/v3/calendars/primary/events";
+    private static final String GONE_BODY = "{\"error\":{\"code\":410,\"message\":\"Sync token is no longer valid, "
+            + "a full sync is required.\",\"errors\":[{\"domain\":\"global\",\"reason\":\"fullSyncRequired\"}]}}";
+
+    private record StoredEvent(String id, String status, String summary, ZonedDateTime start, ZonedDateTime end,
+                               boolean allDay, int version) {}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final Map<String, StoredEvent> events = new LinkedHashMap<>();
+    private final List<Map<String, String>> requests = new ArrayList<>();
+    private int version;
+    private int generation;
+    private int pageSize = Integer.MAX_VALUE;
+
+    FakeGoogleCalendarServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(EVENTS_PATH, this::handleList);
+        server.start();
+    }
+
+    String rootUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    synchronized void putEvent(String id, String summary, ZonedDateTime start, ZonedDateTime end) {
+        events.put(id, new StoredEvent(id, "confirmed", summary, start, end, false, ++version));
+    }
+
+    // Stored as dates only, the way Google returns all-day events
+    synchronized void putAllDayEvent(String id, String summary, LocalDate start, LocalDate end) {
+        events.put(id, new StoredEvent(id, "confirmed", summary, start.atStartOfDay(ZoneOffset.UTC),
+                end.atStartOfDay(ZoneOffset.UTC), true, ++version));
+    }
+
+    synchronized void cancelEvent(String id) {
+        events.put(id, new StoredEvent(id, CalendarInboundSyncService.CANCELLED, null, null, null, false, ++version));
+    }
+
+    synchronized String currentSyncToken() {
+        return "sync-" + generation + "-" + version;
+    }
+
+    synchronized void invalidateSyncTokens() {
+        generation++;
+    }
+
+    // Caps the page size below what the client asks for, to exercise pagination
+    synchronized void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    // Query parameters of every events.list call received, in order
+    synchronized List<Map<String, String>> requests() {
+        return List.copyOf(requests);
+    }
+
+    private synchronized void handleList(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        requests.add(params);
+
+        String syncToken = params.get("syncToken");
+        List<StoredEvent> matching;
+        if (syncToken == null) {
+            // A full listing leaves out deleted events unless showDeleted is set, like Google does
+            boolean showDeleted = Boolean.parseBoolean(params.get("showDeleted"));
+            matching = events.values().stream()
+                    .filter(event -> showDeleted || !CalendarInboundSyncService.CANCELLED.equals(event.status()))
+                    .toList();
+        } else {
+            Integer since = issuedAtVersion(syncToken);
+            if (since == null) {
+                send(exchange, 410, GONE_BODY.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            matching = events.values().stream().filter(event -> event.version() > since).toList();
+        }
+
+        int offset = params.containsKey("pageToken") ? Integer.parseInt(params.get("pageToken")) : 0;
+        int limit = Math.min(pageSize, Integer.parseInt(params.getOrDefault("maxResults", "250")));
+        int to = Math.min(offset + limit, matching.size());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("kind", "calendar#events");
+        body.put("items", matching.subList(offset, to).stream().map(FakeGoogleCalendarServer::toJson).toList());
+        if (to < matching.size()) {
+            body.put("nextPageToken", String.valueOf(to));
+        } else {
+            body.put("nextSyncToken", currentSyncToken());
+        }
+        send(exchange, 200, objectMapper.writeValueAsBytes(body));
+    }
+
+    private Integer issuedAtVersion(String syncToken) {
+        String[] parts = syncToken.split("-");
+        if (parts.length != 3 || !parts[0].equals("sync") || Integer.parseInt(parts[1]) != generation) {
+            return null;
+        }
+        return Integer.parseInt(parts[2]);
+    }
+
+    private static Map<String, Object> toJson(StoredEvent event) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", event.id());
+        json.put("status", event.status());
+        if (event.summary() != null) {
+            json.put("summary", event.summary());
+        }
+        if (event.start() != null && event.allDay()) {
+            json.put("start", Map.of("date", DateTimeFormatter.ISO_LOCAL_DATE.format(event.start())));
+            json.put("end", Map.of("date", DateTimeFormatter.ISO_LOCAL_DATE.format(event.end())));
+        } else if (event.start() != null) {
+            json.put("start", Map.of("dateTime", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(event.start())));
+            json.put("end", Map.of("dateTime", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(event.end())));
+        }
+        return json;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.taskvantage.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for FCM. Each batch completes after a configurable latency (plus up to 50% jitter), and a
+ * configurable share of messages fails transiently or with an invalid token. Outcomes come from a seeded Random
+ * so runs are repeatable.
+ */
+class FakePushTransport implements PushTransport, AutoCloseable {
+
+    private final Duration latency;
+    private final double retryRate;
+    private final double invalidTokenRate;
+    private final Random random;
+    private final ScheduledExecutorService completions = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "fake-fcm");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+
+    FakePushTransport(Duration latency, double retryRate, double invalidTokenRate, long seed) {
+        this.latency = latency;
+        this.retryRate = retryRate;
+        this.invalidTokenRate = invalidTokenRate;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public CompletableFuture<List<Outcome>> send(List<PushMessage> batch) {
+        batches.increment();
+        messages.add(batch.size());
+
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            double roll = random.nextDouble();
+            if (roll < invalidTokenRate) {
+                outcomes.add(Outcome.INVALID_TOKEN);
+            } else if (roll < invalidTokenRate + retryRate) {
+                outcomes.add(Outcome.RETRY);
+            } else {
+                outcomes.add(Outcome.SENT);
+            }
+        }
+
+        long delayMillis = latency.toMillis() + (latency.toMillis() > 1 ? random.nextLong(latency.toMillis() / 2) : 0);
+        CompletableFuture<List<Outcome>> result = new CompletableFuture<>();
+        completions.schedule(() -> result.complete(outcomes), delayMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    long batchCount() {
+        return batches.sum();
+    }
+
+    long messageCount() {
+        return messages.sum();
+    }
+
+    @Override
+    public void close() {
+        completions.shutdownNow();
+    }
+}
@@ -0,0 +1,165 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.repository.UserRepository;
+import com.taskvantage.backend.service.PushTransport.Outcome;
+import com.taskvantage.backend.service.PushTransport.PushMessage;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class FirebaseNotificationServiceTest {
+
+    private UserRepository userRepository;
+    private FirebaseNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = Mockito.mock(UserRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private void start(Duration linger, PushTransport transport) {
+        service = new FirebaseNotificationService(userRepository, transport, linger, Duration.ofMillis(10));
+    }
+
+    private static CompletableFuture<List<Outcome>> allOf(List<PushMessage> messages, Outcome outcome) {
+        return CompletableFuture.completedFuture(Collections.nCopies(messages.size(), outcome));
+    }
+
+    private static boolean await(CompletableFuture<Boolean> result) throws Exception {
+        return result.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void messagesQueuedTogetherAreSentInBatchesOfAtMost500() throws Exception {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        start(Duration.ofMillis(200), messages -> {
+            batchSizes.add(messages.size());
+            return allOf(messages, Outcome.SENT);
+        });
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            results.add(service.sendAsync("token-" + i, "Title", "Body"));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(await(result));
+        }
+
+        assertEquals(List.of(500, 100), batchSizes);
+        FirebaseNotificationService.DeliveryStats stats = service.getDeliveryStats();
+        assertEquals(600, stats.sent());
+        assertEquals(0, stats.queueDepth());
+    }
+
+    @Test
+    void transientFailuresAreRetriedWithoutBlockingTheCaller() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        start(Duration.ZERO, messages -> allOf(messages, calls.incrementAndGet() == 1 ? Outcome.RETRY : Outcome.SENT));
+
+        assertTrue(await(service.sendAsync("token-1", "Title", "Body")));
+        assertEquals(2, calls.get());
+        assertEquals(1, service.getDeliveryStats().retried());
+    }
+
+    @Test
+    void batchErrorsAreGivenUpOnAfterMaxAttempts() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        start(Duration.ZERO, messages -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("FCM unavailable"));
+        });
+
+        assertFalse(await(service.sendAsync("token-1", "Title", "Body")));
+        assertEquals(FirebaseNotificationService.MAX_ATTEMPTS, calls.get());
+        assertEquals(1, service.getDeliveryStats().failed());
+    }
+
+    @Test
+    void invalidTokensInABatchAreClearedWithOneUpdate() throws Exception {
+        start(Duration.ofMillis(100), messages -> CompletableFuture.completedFuture(
+                List.of(Outcome.INVALID_TOKEN, Outcome.SENT, Outcome.INVALID_TOKEN)));
+
+        CompletableFuture<Boolean> first = service.sendAsync("stale-1", "Title", "Body");
+        CompletableFuture<Boolean> second = service.sendAsync("live", "Title", "Body");
+        CompletableFuture<Boolean> third = service.sendAsync("stale-2", "Title", "Body");
+
+        assertFalse(await(first));
+        assertTrue(await(second));
+        assertFalse(await(third));
+        verify(userRepository, timeout(1000).times(1))
+                .clearTokens(argThat(tokens -> Set.copyOf(tokens).equals(Set.of("stale-1", "stale-2"))));
+        assertEquals(2, service.getDeliveryStats().invalidTokens());
+    }
+
+    @Test
+    void everyMessageSettlesUnderInjectedLatencyAndErrors() throws Exception {
+        try (FakePushTransport transport = new FakePushTransport(Duration.ofMillis(5), 0.2, 0.05, 7)) {
+            start(Duration.ofMillis(5), transport);
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(service.sendAsync("token-" + i, "Title", "Body"));
+            }
+            for (CompletableFuture<Boolean> result : results) {
+                await(result);
+            }
+
+            FirebaseNotificationService.DeliveryStats stats = service.getDeliveryStats();
+            assertEquals(200, stats.sent() + stats.failed());
+            assertTrue(stats.retried() > 0);
+            assertTrue(transport.messageCount() > 200);
+        }
+    }
+
+    @Test
+    void outcomesAndLatencyAreExposedForPrometheus() throws Exception {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        service = new FirebaseNotificationService(userRepository,
+                messages -> allOf(messages, messages.get(0).token().startsWith("stale") ? Outcome.INVALID_TOKEN : Outcome.SENT),
+                registry);
+
+        assertTrue(await(service.sendAsync("live", "Title", "Body")));
+        assertFalse(await(service.sendAsync("stale", "Title", "Body")));
+
+        verify(userRepository, timeout(1000)).clearTokens(any());
+        assertEquals(1, registry.get("taskvantage.push.outcomes").tag("outcome", "sent").functionCounter().count());
+        assertEquals(1, registry.get("taskvantage.push.outcomes").tag("outcome", "invalid_token").functionCounter().count());
+        assertEquals(1, registry.get("taskvantage.push.latency").tag("outcome", "failed").timer().count());
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("taskvantage_push_outcomes_total"));
+        assertTrue(scrape.contains("taskvantage_push_latency_seconds_bucket"));
+        assertTrue(scrape.contains("taskvantage_push_queue_depth"));
+    }
+
+    @Test
+    void blankTokenFailsImmediately() throws Exception {
+        start(Duration.ZERO, messages -> allOf(messages, Outcome.SENT));
+
+        assertFalse(await(service.sendAsync(" ", "Title", "Body")));
+        verifyNoInteractions(userRepository);
+    }
+}
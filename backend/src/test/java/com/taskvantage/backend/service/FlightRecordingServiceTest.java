@@ -0,0 +1,58 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.repository.TaskRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingServiceTest {
+
+    private final FlightRecordingService service = new FlightRecordingService(5, 16);
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void dumpContainsApplicationEventsWithTheirFields() throws Exception {
+        assertTrue(service.start().running());
+        // Starting again keeps the running recording
+        assertTrue(service.start().running());
+
+        RecommendationService recommendations = new RecommendationService(Mockito.mock(TaskRepository.class));
+        recommendations.getRecommendationsForUser(42L, 5);
+
+        Path dump = service.dump();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> event.getEventType().getName().equals("taskvantage.Recommendation"))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals(42L, events.get(0).getLong("userId"));
+            assertTrue(events.get(0).getBoolean("usedDefaults"));
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    @Test
+    void dumpWithoutARunningRecordingFails() {
+        assertFalse(service.getStatus().running());
+        assertThrows(IllegalStateException.class, service::dump);
+
+        service.stop();
+        assertFalse(service.getStatus().running());
+    }
+}
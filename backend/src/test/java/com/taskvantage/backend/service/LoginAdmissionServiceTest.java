@@ -0,0 +1,50 @@
+package com.taskvantage.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoginAdmissionServiceTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final LoginAdmissionService admission = new LoginAdmissionService(6, 3, nanos::get);
+
+    @Test
+    void accountIsLimitedAcrossAddressesAndRefillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(LoginAdmissionService.Decision.ADMITTED, admission.admit("10.0.0." + i, "alice@example.com"));
+        }
+        // Same account from yet another address, differently cased
+        assertEquals(LoginAdmissionService.Decision.ACCOUNT_LIMITED, admission.admit("10.0.0.9", "Alice@Example.com "));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertEquals(LoginAdmissionService.Decision.ADMITTED, admission.admit("10.0.0.9", "alice@example.com"));
+    }
+
+    @Test
+    void addressIsLimitedAcrossAccounts() {
+        for (int i = 0; i < 6; i++) {
+            assertEquals(LoginAdmissionService.Decision.ADMITTED, admission.admit("10.0.0.1", "user" + i + "@example.com"));
+        }
+
+        assertEquals(LoginAdmissionService.Decision.IP_LIMITED, admission.admit("10.0.0.1", "fresh@example.com"));
+        assertEquals(1, admission.getStats().rejectedByIp());
+        assertEquals(10, admission.retryAfterSeconds(LoginAdmissionService.Decision.IP_LIMITED));
+    }
+
+    @Test
+    void refilledBucketsAreEvicted() {
+        admission.admit("10.0.0.1", "alice@example.com");
+        admission.admit("10.0.0.2", "bob@example.com");
+        assertEquals(2, admission.getStats().trackedIps());
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        admission.evictIdleBuckets();
+
+        assertEquals(0, admission.getStats().trackedIps());
+        assertEquals(0, admission.getStats().trackedAccounts());
+    }
+}
@@ -0,0 +1,120 @@
+package com.taskvantage.backend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.taskvantage.backend.model.MailOutboxMessage;
+import com.taskvantage.backend.repository.MailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mockito;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sends through a real SMTP conversation against a local GreenMail server.
+ */
+class MailOutboxWorkerTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailOutboxRepository outboxRepository;
+    private JavaMailSenderImpl mailSender;
+    private MailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = Mockito.mock(MailOutboxRepository.class);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "admin@taskvantage.net");
+        worker = new MailOutboxWorker(outboxRepository, mailSender);
+    }
+
+    private static MailOutboxMessage queued(long id, String recipient, int attempts) {
+        MailOutboxMessage message = new MailOutboxMessage(recipient, "Subject " + id, "<p>Body " + id + "</p>", true);
+        message.setId(id);
+        message.setAttempts(attempts);
+        return message;
+    }
+
+    @Test
+    void batchIsDeliveredAndRemovedFromTheOutbox() throws Exception {
+        List<MailOutboxMessage> batch = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            batch.add(queued(id, "user" + id + "@example.com", 0));
+        }
+
+        worker.sendBatch(batch, NOW);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(5, received.length);
+        assertEquals("Subject 1", received[0].getSubject());
+        verify(outboxRepository).deleteByIdIn(List.of(1L, 2L, 3L, 4L, 5L));
+        verify(outboxRepository, never()).scheduleRetry(anyCollection(), anyInt(), any(), any());
+    }
+
+    @Test
+    void drainSendsEverythingDueAcrossBatches() {
+        List<MailOutboxMessage> first = new ArrayList<>();
+        for (long id = 1; id <= MailOutboxWorker.BATCH_SIZE; id++) {
+            first.add(queued(id, "user" + id + "@example.com", 0));
+        }
+        when(outboxRepository.findClaimableMessageIds(any(), any()))
+                .thenReturn(first.stream().map(MailOutboxMessage::getId).toList())
+                .thenReturn(List.of(1000L));
+        when(outboxRepository.findClaimedMessages(anyCollection(), anyString(), any()))
+                .thenReturn(first)
+                .thenReturn(List.of(queued(1000, "late@example.com", 0)));
+
+        worker.drainOutbox();
+
+        assertEquals(MailOutboxWorker.BATCH_SIZE + 1, greenMail.getReceivedMessages().length);
+        verify(outboxRepository, times(2)).claimMessages(anyCollection(), anyString(), any(), any());
+        verify(outboxRepository).deleteByIdIn(List.of(1000L));
+    }
+
+    @Test
+    void unreachableServerSchedulesRetryWithBackoff() {
+        mailSender.setPort(1);
+
+        worker.sendBatch(List.of(queued(1, "a@example.com", 0), queued(2, "b@example.com", 0),
+                queued(3, "c@example.com", 2)), NOW);
+
+        verify(outboxRepository).scheduleRetry(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))),
+                eq(1), eq(NOW.plus(MailOutboxWorker.BASE_BACKOFF)), anyString());
+        verify(outboxRepository).scheduleRetry(eq(List.of(3L)), eq(3), eq(NOW.plus(MailOutboxWorker.backoff(3))), anyString());
+        verify(outboxRepository, never()).deleteByIdIn(anyCollection());
+    }
+
+    @Test
+    void messagesAreDroppedAfterTheLastAttempt() {
+        mailSender.setPort(1);
+
+        worker.sendBatch(List.of(queued(7, "a@example.com", MailOutboxWorker.MAX_ATTEMPTS - 1)), NOW);
+
+        verify(outboxRepository).deleteByIdIn(List.of(7L));
+        verify(outboxRepository, never()).scheduleRetry(anyCollection(), anyInt(), any(), any());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(Duration.ofSeconds(30), MailOutboxWorker.backoff(1));
+        assertEquals(Duration.ofMinutes(2), MailOutboxWorker.backoff(3));
+        assertEquals(MailOutboxWorker.MAX_BACKOFF, MailOutboxWorker.backoff(12));
+    }
+}
@@ -0,0 +1,130 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.DueNotification;
+import com.taskvantage.backend.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private TaskRepository taskRepository;
+    private FirebaseNotificationService firebaseNotificationService;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        firebaseNotificationService = Mockito.mock(FirebaseNotificationService.class);
+        notificationService = new NotificationService(taskRepository, firebaseNotificationService, "node-a", 0);
+    }
+
+    private static DueNotification due(long taskId, long userId) {
+        return new DueNotification(taskId, userId, "user" + userId, "fcm-" + userId, "Task " + taskId, NOW.plusMinutes(10));
+    }
+
+    @Test
+    void claimReturnsOnlyTheRemindersThisNodeWon() {
+        DueNotification won = due(101, 1);
+        DueNotification lost = due(102, 1);
+        DueNotification ownReminder = due(103, 1).withRemindAt(NOW);
+        when(taskRepository.findClaimedNotifications(anyCollection(), eq("node-a"), eq(NOW))).thenReturn(List.of(101L));
+        when(taskRepository.findClaimedReminders(anyCollection(), eq(NOW), eq("node-a"))).thenReturn(List.of(103L));
+
+        List<DueNotification> claimed = notificationService.claim(List.of(won, lost, ownReminder), NOW);
+
+        assertEquals(List.of(won, ownReminder), claimed);
+        verify(taskRepository).claimNotifications(Set.of(101L, 102L), "node-a", NOW,
+                NOW.plus(NotificationService.CLAIM_LEASE));
+        verify(taskRepository).claimReminders(Set.of(103L), NOW, "node-a");
+    }
+
+    @Test
+    void deliveredStartRemindersAreMarkedSentAndFailuresReleasedAsSets() {
+        DueNotification failing = due(102, 2);
+        when(firebaseNotificationService.sendAsync(eq("fcm-1"), anyString(), anyString())).thenReturn(completedFuture(true));
+        when(firebaseNotificationService.sendAsync(eq("fcm-2"), anyString(), anyString())).thenReturn(completedFuture(false));
+
+        List<DueNotification> failed = notificationService.deliver(List.of(due(101, 1), failing, due(103, 1)), NOW).join();
+
+        assertEquals(List.of(failing), failed);
+        verify(taskRepository).markNotificationsSent(List.of(101L, 103L), "node-a");
+        verify(taskRepository).releaseNotificationClaims(List.of(102L), "node-a");
+        verify(firebaseNotificationService, times(3)).sendAsync(anyString(), anyString(), anyString());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void claimsAreSettledOnlyOnceDeliveryCompletes() {
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+        when(firebaseNotificationService.sendAsync(anyString(), anyString(), anyString())).thenReturn(pending);
+
+        CompletableFuture<List<DueNotification>> failed = notificationService.deliver(List.of(due(301, 1)), NOW);
+
+        verify(taskRepository, never()).markNotificationsSent(anyCollection(), anyString());
+        verify(taskRepository, never()).releaseNotificationClaims(anyCollection(), anyString());
+
+        pending.complete(false);
+        assertEquals(1, failed.join().size());
+        verify(taskRepository).releaseNotificationClaims(List.of(301L), "node-a");
+    }
+
+    @Test
+    void ownRemindersDoNotTouchTheStartReminderFlag() {
+        when(firebaseNotificationService.sendAsync(anyString(), anyString(), anyString())).thenReturn(completedFuture(false));
+
+        notificationService.deliver(List.of(due(201, 1).withRemindAt(NOW)), NOW).join();
+
+        verify(taskRepository, never()).markNotificationsSent(anyCollection(), anyString());
+        verify(taskRepository, never()).releaseNotificationClaims(anyCollection(), anyString());
+    }
+
+    @Test
+    void digestModeSendsOnePushPerUserAndSettlesAllItsTasks() {
+        NotificationService digests = new NotificationService(taskRepository, firebaseNotificationService, "node-a", 15);
+        when(firebaseNotificationService.sendAsync(anyString(), anyString(), anyString())).thenReturn(completedFuture(true));
+        List<DueNotification> batch = List.of(due(401, 1), due(402, 1), due(403, 2), due(404, 1),
+                due(402, 1).withRemindAt(NOW));
+
+        List<DueNotification> failed = digests.deliver(batch, NOW).join();
+
+        assertTrue(failed.isEmpty());
+        verify(firebaseNotificationService).sendAsync(eq("fcm-1"), eq("3 tasks coming up"), anyString());
+        verify(firebaseNotificationService).sendAsync(eq("fcm-2"), eq("Task 403"), anyString());
+        verify(firebaseNotificationService, times(2)).sendAsync(anyString(), anyString(), anyString());
+        verify(taskRepository).markNotificationsSent(List.of(401L, 402L, 403L, 404L), "node-a");
+    }
+
+    @Test
+    void digestListsTheEarliestTasksAndCountsTheRest() {
+        List<DueNotification> batch = new ArrayList<>();
+        for (int i = 7; i >= 1; i--) {
+            batch.add(new DueNotification((long) i, 1L, "user1", "fcm-1", "Task " + i, NOW.plusMinutes(i)));
+        }
+
+        assertEquals("'Task 1' in 1 min, 'Task 2' in 2 min, 'Task 3' in 3 min, 'Task 4' in 4 min, " +
+                "'Task 5' in 5 min and 2 more", NotificationService.buildDigestMessage(batch, NOW));
+    }
+
+    @Test
+    void messageReflectsTimeUntilStart() {
+        assertEquals("Your task 'Task 1' starts in 10 minutes", NotificationService.buildMessage(due(1, 1), NOW));
+        assertEquals("Reminder: your task 'Task 1'",
+                NotificationService.buildMessage(due(1, 1), NOW.plusMinutes(30)));
+    }
+}
@@ -0,0 +1,173 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.CalendarSyncOperation;
+import com.taskvantage.backend.model.MailOutboxMessage;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.MailOutboxRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two outbox workers, standing in for two backend instances, drain the same H2 outboxes; the leases must let
+ * exactly one of them send each row, and rows of a worker that went away must be picked up once its lease expires.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxclaims;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+// Every repository call commits on its own, as it would for two separate nodes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxClaimMultiNodeTest {
+
+    @Autowired
+    private CalendarSyncOperationRepository calendarOutbox;
+
+    @Autowired
+    private MailOutboxRepository mailOutbox;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private GoogleCalendarService googleCalendarService;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        googleCalendarService = Mockito.mock(GoogleCalendarService.class);
+        User user = new User();
+        user.setUsername("outbox@example.com");
+        user.setPassword("secret");
+        user.setGoogleAccessToken("access-token");
+        user.setTaskSyncEnabled(true);
+        userId = userRepository.save(user).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        calendarOutbox.deleteAll();
+        mailOutbox.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private CalendarSyncWorker calendarNode() {
+        return new CalendarSyncWorker(calendarOutbox, taskRepository, userRepository, googleCalendarService);
+    }
+
+    // Deletes need no task row, so the batch can be built from the outbox alone
+    private List<Long> queueCalendarDeletes(int count) {
+        List<CalendarSyncOperation> operations = new ArrayList<>();
+        for (long taskId = 1; taskId <= count; taskId++) {
+            operations.add(new CalendarSyncOperation(userId, taskId, CalendarSyncOperation.Type.DELETE, "evt-" + taskId));
+        }
+        return calendarOutbox.saveAll(operations).stream().map(CalendarSyncOperation::getId).toList();
+    }
+
+    private void answerCalendarBatches(Runnable whileInFlight) throws Exception {
+        AtomicInteger batches = new AtomicInteger();
+        when(googleCalendarService.executeBatch(any(), anyList())).thenAnswer(invocation -> {
+            if (batches.getAndIncrement() == 0) {
+                whileInFlight.run();
+            }
+            List<GoogleCalendarService.EventRequest> requests = invocation.getArgument(1);
+            return requests.stream()
+                    .map(request -> new GoogleCalendarService.EventResult(request.getEventId(), 200, null))
+                    .toList();
+        });
+    }
+
+    @Test
+    void calendarOperationsInFlightOnOneNodeAreNotSentByAnother() throws Exception {
+        queueCalendarDeletes(5);
+        CalendarSyncWorker nodeB = calendarNode();
+        // Node A's batch is still waiting on Google when node B polls
+        answerCalendarBatches(nodeB::drainOutbox);
+
+        calendarNode().drainOutbox();
+
+        verify(googleCalendarService).executeBatch(any(), anyList());
+        assertEquals(0, calendarOutbox.count());
+    }
+
+    @Test
+    void calendarLeaseOfANodeThatWentAwayIsTakenOverAfterItExpires() throws Exception {
+        List<Long> ids = queueCalendarDeletes(5);
+        answerCalendarBatches(() -> { });
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        // Node A is still working on the first three; node C leased the last two and never reported back
+        calendarOutbox.claimOperations(ids.subList(0, 3), "node-a", now, now.plus(CalendarSyncWorker.CLAIM_LEASE));
+        calendarOutbox.claimOperations(ids.subList(3, 5), "node-c", now.minus(CalendarSyncWorker.CLAIM_LEASE),
+                now.minusSeconds(1));
+
+        calendarNode().drainOutbox();
+
+        verify(googleCalendarService).executeBatch(any(), argThat(requests -> requests.size() == 2));
+        assertEquals(ids.subList(0, 3), calendarOutbox.findAll().stream().map(CalendarSyncOperation::getId).sorted().toList());
+    }
+
+    @Test
+    void queuedEmailIsSentByExactlyOneNode() {
+        for (int i = 0; i < 5; i++) {
+            mailOutbox.save(new MailOutboxMessage("user" + i + "@example.com", "Subject " + i, "Body " + i, false));
+        }
+        JavaMailSender mailSender = Mockito.mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+        MailOutboxWorker nodeA = new MailOutboxWorker(mailOutbox, mailSender);
+        MailOutboxWorker nodeB = new MailOutboxWorker(mailOutbox, mailSender);
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger batches = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (batches.getAndIncrement() == 0) {
+                // Node A's SMTP conversation is still running when node B polls
+                nodeB.drainOutbox();
+            }
+            sent.addAndGet(invocation.getArguments().length);
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        try {
+            nodeA.drainOutbox();
+        } finally {
+            nodeA.shutdown();
+            nodeB.shutdown();
+        }
+
+        assertEquals(1, batches.get());
+        assertEquals(5, sent.get());
+        assertEquals(0, mailOutbox.count());
+    }
+}
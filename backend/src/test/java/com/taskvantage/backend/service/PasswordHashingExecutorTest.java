@@ -0,0 +1,64 @@
+package com.taskvantage.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void workBeyondThePoolAndQueueIsRejectedImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> running = executor.submit(() -> {
+            started.countDown();
+            release.await();
+            return "hashed";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit(() -> "queued");
+        assertEquals(1, meterRegistry.get("taskvantage.auth.hashing.queue.depth").gauge().value());
+
+        CompletableFuture<String> rejected = executor.submit(() -> "rejected");
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        release.countDown();
+        assertEquals("hashed", running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+
+        assertEquals(2, meterRegistry.get("taskvantage.auth.hashing.duration").timer().count());
+        assertEquals(2, meterRegistry.get("taskvantage.auth.hashing.queue.wait").timer().count());
+        assertEquals(1, meterRegistry.get("taskvantage.auth.hashing.rejected").counter().count());
+        assertEquals(0, meterRegistry.get("taskvantage.auth.hashing.queue.depth").gauge().value());
+    }
+
+    @Test
+    void failuresAreReportedThroughTheFuture() {
+        CompletableFuture<String> result = executor.submit(() -> {
+            throw new IllegalStateException("Bad credentials");
+        });
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+}
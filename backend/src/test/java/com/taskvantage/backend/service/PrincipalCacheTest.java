@@ -0,0 +1,109 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrincipalCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-05-04T09:00:00Z"));
+    private final PrincipalCache cache = new PrincipalCache(clock);
+    private int loads;
+
+    private CustomUserDetails load(String name) {
+        loads++;
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("alice@example.com");
+        return new CustomUserDetails(user);
+    }
+
+    @Test
+    void principalIsLoadedOnceWithinTheTtl() {
+        CustomUserDetails first = cache.getByName("alice@example.com", this::load);
+        clock.advance(PrincipalCache.TTL.minusSeconds(1));
+
+        assertSame(first, cache.getByName("alice@example.com", this::load));
+        assertEquals(1, loads);
+
+        clock.advance(Duration.ofSeconds(1));
+        cache.getByName("alice@example.com", this::load);
+        assertEquals(2, loads);
+    }
+
+    @Test
+    void lookupByNameAlsoServesLookupsById() {
+        CustomUserDetails details = cache.getByName("alice@example.com", this::load);
+
+        assertSame(details, cache.getById(42L, id -> {
+            throw new AssertionError("should be cached");
+        }));
+    }
+
+    @Test
+    void invalidationDropsEveryNameTheUserWasCachedUnder() {
+        cache.getByName("alice@example.com", this::load);
+        cache.getByName("alice@gmail.com", this::load);
+
+        cache.invalidate(42L);
+
+        assertEquals(0, cache.size());
+        cache.getById(42L, id -> load("alice@example.com"));
+        assertEquals(3, loads);
+    }
+
+    @Test
+    void loadThatRacedWithAnInvalidationIsNotCached() {
+        cache.getByName("alice@example.com", name -> {
+            // The user row changes while the old version is being read
+            cache.invalidate(42L);
+            return load(name);
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void failedLoadsAreNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.getByName("ghost", name -> {
+            throw new IllegalStateException("User not found");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
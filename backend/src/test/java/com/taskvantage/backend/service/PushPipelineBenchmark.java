@@ -0,0 +1,110 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.DueNotification;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput harness for the reminder push pipeline. It drives users x tasksPerUser due reminders through
+ * NotificationService and FirebaseNotificationService over FakePushTransport. Reminders are handed over tick by
+ * tick as ReminderScheduler would. It reports sends per second and the p99 lateness from each reminder's due
+ * time until its delivery completed.
+ * <p>
+ * Skipped in normal builds. Run with:
+ * {@code mvn test -Dtest=PushPipelineBenchmark -Dbenchmark=true -Dbenchmark.users=2000 -Dbenchmark.tasksPerUser=10}
+ * Other knobs: benchmark.spreadSeconds, benchmark.latencyMs, benchmark.retryRate, benchmark.invalidTokenRate,
+ * benchmark.digestWindowMinutes.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PushPipelineBenchmark {
+
+    @Test
+    void reminderPipelineThroughput() throws Exception {
+        int users = Integer.getInteger("benchmark.users", 1000);
+        int tasksPerUser = Integer.getInteger("benchmark.tasksPerUser", 10);
+        Duration spread = Duration.ofSeconds(Long.getLong("benchmark.spreadSeconds", 5));
+        Duration latency = Duration.ofMillis(Long.getLong("benchmark.latencyMs", 50));
+        double retryRate = Double.parseDouble(System.getProperty("benchmark.retryRate", "0.01"));
+        double invalidTokenRate = Double.parseDouble(System.getProperty("benchmark.invalidTokenRate", "0.001"));
+        long digestWindowMinutes = Long.getLong("benchmark.digestWindowMinutes", 0);
+
+        int total = users * tasksPerUser;
+        Instant firstDue = Instant.now().plusMillis(500);
+        List<DueNotification> due = new ArrayList<>(total);
+        Instant[] dueAt = new Instant[total];
+        for (int i = 0; i < total; i++) {
+            long userId = i % users;
+            dueAt[i] = firstDue.plusNanos(spread.toNanos() * i / total);
+            due.add(new DueNotification((long) i, userId, "user" + userId, "token-" + userId, "Task " + i,
+                    dueAt[i].plus(NotificationService.START_REMINDER_LEAD).atZone(ZoneOffset.UTC)));
+        }
+
+        try (FakePushTransport transport = new FakePushTransport(latency, retryRate, invalidTokenRate, 42)) {
+            FirebaseNotificationService push = new FirebaseNotificationService(Mockito.mock(UserRepository.class),
+                    transport, Duration.ofMillis(20), Duration.ofMillis(200));
+            NotificationService notifications = new NotificationService(Mockito.mock(TaskRepository.class), push,
+                    "benchmark", digestWindowMinutes);
+
+            long[] latenessMillis = new long[total];
+            List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+            int next = 0;
+            while (next < total) {
+                Instant now = Instant.now();
+                int end = next;
+                while (end < total && !dueAt[end].isAfter(now)) {
+                    end++;
+                }
+                if (end > next) {
+                    int from = next;
+                    int to = end;
+                    deliveries.add(notifications.deliver(due.subList(from, to), now.atZone(ZoneOffset.UTC))
+                            .thenRun(() -> {
+                                Instant done = Instant.now();
+                                for (int k = from; k < to; k++) {
+                                    latenessMillis[k] = Duration.between(dueAt[k], done).toMillis();
+                                }
+                            }));
+                    next = end;
+                }
+                Thread.sleep(ReminderScheduler.TICK.toMillis());
+            }
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+            Duration elapsed = Duration.between(firstDue, Instant.now());
+
+            FirebaseNotificationService.DeliveryStats stats = push.getDeliveryStats();
+            Arrays.sort(latenessMillis);
+            double seconds = Math.max(1, elapsed.toMillis()) / 1000.0;
+            System.out.printf("Push pipeline: %d users x %d tasks over %ds, FCM stand-in latency %dms%n",
+                    users, tasksPerUser, spread.toSeconds(), latency.toMillis());
+            System.out.printf("  pushes sent %d, failed %d, retried %d, batches %d%n",
+                    stats.sent(), stats.failed(), stats.retried(), transport.batchCount());
+            System.out.printf("  throughput %.0f sends/s over %.1fs%n", stats.sent() / seconds, seconds);
+            System.out.printf("  lateness p50 %dms, p99 %dms, max %dms%n",
+                    percentile(latenessMillis, 0.50), percentile(latenessMillis, 0.99),
+                    latenessMillis[latenessMillis.length - 1]);
+
+            assertEquals(0, stats.queueDepth());
+            assertEquals(0, stats.inFlightBatches());
+            push.shutdown();
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,325 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.RecommendationResponse;
+import com.taskvantage.backend.dto.SimilarTaskDTO;
+import com.taskvantage.backend.model.Comment;
+import com.taskvantage.backend.model.Subtask;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.TaskGroupRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the SQL statements (Hibernate statistics) behind the API calls and scheduled jobs that walk a user's
+ * tasks, once for a user with a handful of tasks and once for a user with hundreds. A count that differs between
+ * the two is an N+1 (a lookup per row, or lazy collections loaded a task at a time) and fails the build, as does a
+ * count over the operation's budget.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class QueryCountRegressionTest {
+
+    private static final int SMALL_TASKS = 10;
+    private static final int LARGE_TASKS = 400;
+    // The last few tasks of each user have no embedding yet, the same number for both users
+    private static final int WITHOUT_EMBEDDING = 3;
+    private static final int LIMIT = 5;
+    private static final Instant NOW = Instant.parse("2026-05-04T09:00:00Z");
+    private static final List<String> TITLES = List.of("Write report", "Review pull requests", "Plan sprint",
+            "Team standup", "Update roadmap");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskGroupRepository taskGroupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CalendarSyncOperationRepository calendarSyncOperationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private EmbeddingService embeddingService;
+    private User smallUser;
+    private User largeUser;
+    private List<Long> smallUserTaskIds;
+    private List<Long> largeUserTaskIds;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        embeddingService = Mockito.spy(new EmbeddingService(new SimpleMeterRegistry()));
+        doReturn(unitVector()).when(embeddingService).generateEmbedding(anyString(), anyString());
+
+        // Each user's reminders fall on a different day, so a reminder cycle only sees one of them
+        smallUser = seedUser("small@example.com");
+        smallUserTaskIds = seedTasks(smallUser, SMALL_TASKS, NOW);
+        largeUser = seedUser("large@example.com");
+        largeUserTaskIds = seedTasks(largeUser, LARGE_TASKS, NOW.plus(Duration.ofDays(1)));
+    }
+
+    @Test
+    void similarTaskSearchDoesNotLoadCandidatesOneByOne() {
+        TaskServiceImpl taskService = taskService();
+        List<List<SimilarTaskDTO>> results = new ArrayList<>();
+
+        // Includes one select per collection of the returned tasks, which are built into TaskDetails
+        assertConstantStatements("findSimilarTasks", 10,
+                () -> results.add(taskService.findSimilarTasks(smallUserTaskIds.get(0), smallUser.getId(), LIMIT)),
+                () -> results.add(taskService.findSimilarTasks(largeUserTaskIds.get(0), largeUser.getId(), LIMIT)));
+        assertEquals(LIMIT, results.get(0).size());
+        assertEquals(LIMIT, results.get(1).size());
+    }
+
+    @Test
+    void embeddingBackfillOnlyWritesTheTasksWithoutAnEmbedding() {
+        TaskServiceImpl taskService = taskService();
+
+        // One select, then one update per missing embedding
+        assertConstantStatements("backfillEmbeddingsForUser", 1 + WITHOUT_EMBEDDING,
+                () -> assertEquals(WITHOUT_EMBEDDING, taskService.backfillEmbeddingsForUser(smallUser.getId(), false)),
+                () -> assertEquals(WITHOUT_EMBEDDING, taskService.backfillEmbeddingsForUser(largeUser.getId(), false)));
+
+        assertEquals(1, statementsFor(() -> taskService.backfillEmbeddingsForUser(largeUser.getId(), false)));
+    }
+
+    @Test
+    void weekdayRecommendationsLoadEachCollectionOnce() {
+        RecommendationService recommendationService = new RecommendationService(taskRepository);
+
+        assertConstantStatements("getRecommendedTasksByWeekday", 8,
+                () -> readOnly(() -> assertRecommended(recommendationService.getRecommendedTasksByWeekday(
+                        smallUser.getId(), LIMIT))),
+                () -> readOnly(() -> assertRecommended(recommendationService.getRecommendedTasksByWeekday(
+                        largeUser.getId(), LIMIT))));
+    }
+
+    @Test
+    void taskBasedRecommendationsLoadEachCollectionOnce() {
+        RecommendationService recommendationService = new RecommendationService(taskRepository);
+
+        assertConstantStatements("getRecommendedTasks", 10,
+                () -> readOnly(() -> assertRecommended(recommendationService.getRecommendedTasks(
+                        smallUser.getId(), smallUserTaskIds.get(0), LIMIT))),
+                () -> readOnly(() -> assertRecommended(recommendationService.getRecommendedTasks(
+                        largeUser.getId(), largeUserTaskIds.get(0), LIMIT))));
+    }
+
+    @Test
+    void reminderCycleQueriesPerBatchNotPerTaskOrUser() {
+        FirebaseNotificationService push = Mockito.mock(FirebaseNotificationService.class);
+        when(push.sendAsync(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(true));
+        NotificationService notificationService = new NotificationService(taskRepository, push, "node-a", 0);
+
+        // Horizon load (2 selects), then one cycle: 2 selects for the due reminders and
+        // 2 claims, 2 re-reads and 1 sent-flag update
+        assertConstantStatements("reminder cycle", 9,
+                () -> reminderCycle(notificationService, NOW),
+                () -> reminderCycle(notificationService, NOW.plus(Duration.ofDays(1))));
+    }
+
+    private void reminderCycle(NotificationService notificationService, Instant start) {
+        MutableClock clock = new MutableClock(start);
+        ReminderScheduler scheduler = new ReminderScheduler(taskRepository, notificationService, clock,
+                Duration.ofHours(2));
+        scheduler.loadHorizon();
+        assertTrue(scheduler.scheduledCount() > 0);
+
+        // Past the tasks' own reminder (3 minutes in) and their start reminder (5 minutes in)
+        clock.advance(Duration.ofMinutes(5).plus(ReminderScheduler.TICK));
+        scheduler.tick();
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    private void assertRecommended(RecommendationResponse response) {
+        assertEquals("success", response.getStatus());
+        assertFalse(response.getRecommendations().isEmpty());
+    }
+
+    /**
+     * Runs the operation for the small and the large user and fails if the large one needs more statements, or if
+     * either exceeds the budget.
+     */
+    private void assertConstantStatements(String operation, long budget, Runnable forSmallUser,
+                                          Runnable forLargeUser) {
+        long small = statementsFor(forSmallUser);
+        long large = statementsFor(forLargeUser);
+
+        assertEquals(small, large, operation + " sent " + small + " statements for " + SMALL_TASKS + " tasks but "
+                + large + " for " + LARGE_TASKS + "; something is queried per row");
+        assertTrue(large <= budget, operation + " sent " + large + " statements, over its budget of " + budget);
+    }
+
+    // Statements sent by the operation alone: earlier writes are flushed first and nothing is served from the session
+    private long statementsFor(Runnable operation) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        operation.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // What a read-only transaction does: no dirty checking, so scores set for the response are never flushed
+    private void readOnly(Runnable operation) {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        session.setDefaultReadOnly(true);
+        try {
+            operation.run();
+        } finally {
+            session.setDefaultReadOnly(false);
+            session.setHibernateFlushMode(FlushMode.AUTO);
+        }
+    }
+
+    private TaskServiceImpl taskService() {
+        return new TaskServiceImpl(taskRepository, taskGroupRepository, Mockito.mock(CustomUserDetailsService.class),
+                Mockito.mock(CustomUserDetailsService.class), embeddingService, calendarSyncOperationRepository,
+                Mockito.mock(TransactionTemplate.class), Mockito.mock(ReminderScheduler.class),
+                new SimpleMeterRegistry());
+    }
+
+    private User seedUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setToken("fcm-" + username);
+        user.setEmailVerified(true);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Tasks with every collection populated, starting 20 minutes after {@code base} with an own reminder 3 minutes
+     * after it. The first one is the similarity target; the others are 80% similar to it and spread around it, so
+     * the diversity filter always has enough of them to fill the limit.
+     */
+    private List<Long> seedTasks(User user, int count, Instant base) {
+        ZonedDateTime start = base.atZone(ZoneOffset.UTC);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String title = TITLES.get(i % TITLES.size());
+            Task task = new Task();
+            task.setUserId(user.getId());
+            task.setTitle(title);
+            task.setDescription("Weekly " + title.toLowerCase());
+            task.setPriority(TaskPriority.MEDIUM);
+            task.setStatus(i % 3 == 2 ? Task.STATUS_COMPLETED : (i % 3 == 1 ? "In Progress" : "Pending"));
+            task.setCreationDate(start.minusDays(i % 30 + 1));
+            task.setLastModifiedDate(start.minusHours(i));
+            task.setScheduledStart(start.plusMinutes(20));
+            task.setDueDate(start.plusMinutes(80));
+            task.setReminders(new ArrayList<>(List.of(start.plusMinutes(3))));
+            task.setTags(new ArrayList<>(List.of("work", "tag-" + (i % 7))));
+            task.setAttachments(new ArrayList<>(List.of("notes-" + i + ".txt")));
+            task.getSubtasks().add(subtask(task, i));
+            task.getComments().add(comment(i));
+            if (i == 0) {
+                task.setEmbedding(embeddingService.embeddingToJson(unitVector()));
+            } else if (i < count - WITHOUT_EMBEDDING) {
+                task.setEmbedding(embeddingService.embeddingToJson(similarVector(i * 50)));
+            }
+            tasks.add(task);
+        }
+        return taskRepository.saveAllAndFlush(tasks).stream().map(Task::getId).toList();
+    }
+
+    private static Subtask subtask(Task task, int i) {
+        Subtask subtask = new Subtask();
+        subtask.setTitle("Step " + i);
+        subtask.setStatus("Pending");
+        subtask.setTask(task);
+        return subtask;
+    }
+
+    private static Comment comment(int i) {
+        Comment comment = new Comment();
+        comment.setAuthor("author");
+        comment.setContent("Comment " + i);
+        comment.setCreatedAt(LocalDateTime.of(2026, 5, 1, 12, 0));
+        return comment;
+    }
+
+    private static List<Double> unitVector() {
+        return List.of(1.0, 0.0, 0.0, 0.0);
+    }
+
+    // Cosine similarity 0.8 to the unit vector; two of these are under 90% similar once ~44 degrees apart
+    private static List<Double> similarVector(int degrees) {
+        double angle = Math.toRadians(degrees % 360);
+        return List.of(0.8, 0.6 * Math.cos(angle), 0.6 * Math.sin(angle), 0.0);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.DueNotification;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two reminder schedulers, standing in for two backend instances, share one H2 database and fire the same
+ * reminders; the database claims must let exactly one of them push each reminder.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reminderclaims;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+// Every repository call commits on its own, as it would for two separate nodes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReminderSchedulerMultiNodeTest {
+
+    private static final Instant NOW = Instant.parse("2026-05-04T09:00:00Z");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MutableClock clock;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        clock = new MutableClock(NOW);
+        User user = new User();
+        user.setUsername("claims@example.com");
+        user.setPassword("secret");
+        user.setToken("fcm-token");
+        user.setEmailVerified(true);
+        userId = userRepository.save(user).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private List<Long> seedTasks(int count, Duration startsIn, Duration remindIn) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setUserId(userId);
+            task.setTitle("Task " + i);
+            task.setPriority(TaskPriority.MEDIUM);
+            task.setStatus("Pending");
+            task.setScheduledStart(NOW.plus(startsIn).atZone(ZoneOffset.UTC));
+            if (remindIn != null) {
+                task.setReminders(new ArrayList<>(List.of(NOW.plus(remindIn).atZone(ZoneOffset.UTC))));
+            }
+            tasks.add(task);
+        }
+        return taskRepository.saveAllAndFlush(tasks).stream().map(Task::getId).toList();
+    }
+
+    private NotificationService node(String nodeId, FirebaseNotificationService push) {
+        return new NotificationService(taskRepository, push, nodeId, 0);
+    }
+
+    private static FirebaseNotificationService recordingPush(Queue<String> sent, CompletableFuture<Boolean> result) {
+        FirebaseNotificationService push = Mockito.mock(FirebaseNotificationService.class);
+        when(push.sendAsync(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(1) + "|" + invocation.getArgument(2));
+            return result;
+        });
+        return push;
+    }
+
+    @Test
+    void eachDueReminderIsPushedByExactlyOneNode() {
+        seedTasks(20, Duration.ofMinutes(20), Duration.ofMinutes(3));
+        Queue<String> sentByA = new ConcurrentLinkedQueue<>();
+        Queue<String> sentByB = new ConcurrentLinkedQueue<>();
+        // Node A's pushes stay in flight while node B fires, so only the leases keep B from sending
+        CompletableFuture<Boolean> inFlight = new CompletableFuture<>();
+        ReminderScheduler nodeA = new ReminderScheduler(taskRepository,
+                node("node-a", recordingPush(sentByA, inFlight)), clock, Duration.ofHours(2));
+        ReminderScheduler nodeB = new ReminderScheduler(taskRepository,
+                node("node-b", recordingPush(sentByB, CompletableFuture.completedFuture(true))), clock, Duration.ofHours(2));
+        nodeA.loadHorizon();
+        nodeB.loadHorizon();
+        assertEquals(40, nodeA.scheduledCount());
+        assertEquals(40, nodeB.scheduledCount());
+
+        clock.advance(Duration.ofMinutes(5).plus(ReminderScheduler.TICK));
+        nodeA.tick();
+        nodeB.tick();
+        inFlight.complete(true);
+
+        assertEquals(40, sentByA.size());
+        assertTrue(sentByB.isEmpty());
+
+        // Node B looks again once A's lease would have expired, and finds the reminders already sent
+        clock.advance(NotificationService.CLAIM_LEASE.plus(ReminderScheduler.TICK));
+        nodeB.tick();
+        assertTrue(sentByB.isEmpty());
+        assertEquals(0, nodeB.scheduledCount());
+    }
+
+    @Test
+    void reminderRemovedOnOneNodeIsNotSentByAnother() {
+        List<Long> taskIds = seedTasks(2, Duration.ofHours(1), Duration.ofMinutes(3));
+        Queue<String> sentByA = new ConcurrentLinkedQueue<>();
+        Queue<String> sentByB = new ConcurrentLinkedQueue<>();
+        ReminderScheduler nodeA = new ReminderScheduler(taskRepository,
+                node("node-a", recordingPush(sentByA, CompletableFuture.completedFuture(true))), clock, Duration.ofHours(2));
+        ReminderScheduler nodeB = new ReminderScheduler(taskRepository,
+                node("node-b", recordingPush(sentByB, CompletableFuture.completedFuture(true))), clock, Duration.ofHours(2));
+        nodeA.loadHorizon();
+        nodeB.loadHorizon();
+
+        // The user edits the first task through node A and drops its reminder; node B's wheel still holds it
+        Task edited = taskRepository.findById(taskIds.get(0)).orElseThrow();
+        edited.setReminders(new ArrayList<>());
+        nodeA.taskChanged(taskRepository.saveAndFlush(edited));
+
+        clock.advance(Duration.ofMinutes(3).plus(ReminderScheduler.TICK));
+        nodeB.tick();
+        nodeA.tick();
+
+        assertEquals(1, sentByA.size() + sentByB.size());
+        assertTrue(union(sentByA, sentByB).stream().allMatch(sent -> sent.startsWith("Task 1|")));
+    }
+
+    @Test
+    void nodesClaimingTheSameBatchGetDisjointSlices() {
+        List<Long> taskIds = seedTasks(20, Duration.ofMinutes(10), null);
+        Queue<String> unused = new ConcurrentLinkedQueue<>();
+        NotificationService nodeA = node("node-a", recordingPush(unused, CompletableFuture.completedFuture(true)));
+        NotificationService nodeB = node("node-b", recordingPush(unused, CompletableFuture.completedFuture(true)));
+        ZonedDateTime now = NOW.atZone(ZoneOffset.UTC);
+        List<DueNotification> due = taskRepository.findPendingStartReminders(taskIds);
+
+        List<DueNotification> claimedByA = nodeA.claim(due.subList(0, 8), now);
+        List<DueNotification> claimedByB = nodeB.claim(due, now);
+
+        Set<Long> idsA = new HashSet<>(claimedByA.stream().map(DueNotification::getTaskId).toList());
+        Set<Long> idsB = new HashSet<>(claimedByB.stream().map(DueNotification::getTaskId).toList());
+        assertEquals(8, idsA.size());
+        assertEquals(12, idsB.size());
+        assertTrue(idsA.stream().noneMatch(idsB::contains));
+        assertEquals(new HashSet<>(taskIds), union(idsA, idsB));
+    }
+
+    @Test
+    void leaseOfANodeThatWentAwayIsTakenOverAfterItExpires() {
+        List<Long> taskIds = seedTasks(5, Duration.ofMinutes(10), null);
+        Queue<String> unused = new ConcurrentLinkedQueue<>();
+        NotificationService nodeA = node("node-a", recordingPush(unused, new CompletableFuture<>()));
+        NotificationService nodeB = node("node-b", recordingPush(unused, CompletableFuture.completedFuture(true)));
+        ZonedDateTime now = NOW.atZone(ZoneOffset.UTC);
+        List<DueNotification> due = taskRepository.findPendingStartReminders(taskIds);
+
+        assertEquals(5, nodeA.claim(due, now).size());
+        // Node A never reports back
+        assertTrue(nodeB.claim(due, now.plusSeconds(60)).isEmpty());
+
+        List<DueNotification> takenOver = nodeB.claim(due, now.plus(NotificationService.CLAIM_LEASE).plusSeconds(1));
+        assertEquals(5, takenOver.size());
+        nodeB.deliver(takenOver, now).join();
+        assertTrue(taskRepository.findPendingStartReminders(taskIds).isEmpty());
+    }
+
+    private static <T> Set<T> union(Collection<T> a, Collection<T> b) {
+        Set<T> union = new HashSet<>(a);
+        union.addAll(b);
+        return union;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
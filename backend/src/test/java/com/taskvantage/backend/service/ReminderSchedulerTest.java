@@ -0,0 +1,187 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.DueNotification;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReminderSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2026-05-04T09:00:00Z");
+
+    private TaskRepository taskRepository;
+    private NotificationService notificationService;
+    private MutableClock clock;
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        notificationService = Mockito.mock(NotificationService.class);
+        clock = new MutableClock(NOW);
+        scheduler = new ReminderScheduler(taskRepository, notificationService, clock, Duration.ofHours(2));
+        when(notificationService.claim(anyList(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationService.getDigestWindow()).thenReturn(Duration.ZERO);
+    }
+
+    private static Task task(long id, Duration startsIn, Duration... reminders) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setStatus("Pending");
+        task.setScheduledStart(NOW.plus(startsIn).atZone(ZoneOffset.UTC));
+        task.setReminders(List.of(reminders).stream().map(d -> NOW.plus(d).atZone(ZoneOffset.UTC)).toList());
+        return task;
+    }
+
+    private static DueNotification due(long taskId, Duration startsIn) {
+        return new DueNotification(taskId, 1L, "user", "fcm-1", "Task " + taskId,
+                NOW.plus(startsIn).atZone(ZoneOffset.UTC));
+    }
+
+    @Test
+    void taskChangedSchedulesStartAndOwnRemindersWithinHorizon() {
+        scheduler.taskChanged(task(1, Duration.ofMinutes(30), Duration.ofMinutes(5), Duration.ofHours(3)));
+
+        assertEquals(2, scheduler.scheduledCount());
+        assertTrue(scheduler.isScheduled(new ReminderScheduler.ReminderKey(1L, null)));
+        assertTrue(scheduler.isScheduled(new ReminderScheduler.ReminderKey(1L, NOW.plus(Duration.ofMinutes(5)))));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void completingOrDeletingATaskCancelsItsReminders() {
+        Task task = task(1, Duration.ofMinutes(30), Duration.ofMinutes(5));
+        scheduler.taskChanged(task);
+        scheduler.taskChanged(task(2, Duration.ofMinutes(40)));
+
+        task.setStatus(Task.STATUS_COMPLETED);
+        scheduler.taskChanged(task);
+        assertEquals(1, scheduler.scheduledCount());
+
+        scheduler.taskRemoved(2L);
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    void dueStartReminderIsDeliveredOnTheTickAfterItsTime() {
+        scheduler.taskChanged(task(1, Duration.ofMinutes(20)));
+        when(taskRepository.findPendingStartReminders(anyCollection()))
+                .thenReturn(List.of(due(1, Duration.ofMinutes(20))));
+        when(notificationService.deliver(anyList(), any())).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        clock.advance(Duration.ofMinutes(4));
+        scheduler.tick();
+        verifyNoInteractions(notificationService);
+
+        clock.advance(Duration.ofMinutes(1).plus(ReminderScheduler.TICK));
+        scheduler.tick();
+
+        verify(notificationService).deliver(argThat(batch -> batch.size() == 1 && batch.get(0).getTaskId() == 1L), any());
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    void failedDeliveryIsRetriedLater() {
+        Task task = task(1, Duration.ofHours(1), Duration.ofMinutes(1));
+        scheduler.taskChanged(task);
+        DueNotification target = due(1, Duration.ofHours(1));
+        when(taskRepository.findReminderTargets(anyCollection())).thenReturn(List.of(target));
+        when(notificationService.deliver(anyList(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        clock.advance(Duration.ofMinutes(1).plus(ReminderScheduler.TICK));
+        scheduler.tick();
+
+        ReminderScheduler.ReminderKey key = new ReminderScheduler.ReminderKey(1L, NOW.plus(Duration.ofMinutes(1)));
+        assertTrue(scheduler.isScheduled(key));
+
+        clock.advance(ReminderScheduler.RETRY_DELAY.plus(ReminderScheduler.TICK));
+        scheduler.tick();
+        assertTrue(scheduler.isScheduled(key));
+
+        // Third failure: MAX_ATTEMPTS reached
+        clock.advance(ReminderScheduler.RETRY_DELAY.plus(ReminderScheduler.TICK));
+        scheduler.tick();
+        assertFalse(scheduler.isScheduled(key));
+        verify(notificationService, times(ReminderScheduler.MAX_ATTEMPTS)).deliver(anyList(), any());
+    }
+
+    @Test
+    void startReminderClaimedByAnotherNodeIsCheckedAgainAfterTheLease() {
+        scheduler.taskChanged(task(1, Duration.ofMinutes(20)));
+        when(taskRepository.findPendingStartReminders(anyCollection()))
+                .thenReturn(List.of(due(1, Duration.ofMinutes(20))));
+        when(notificationService.claim(anyList(), any())).thenReturn(List.of());
+        when(notificationService.deliver(anyList(), any())).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        clock.advance(Duration.ofMinutes(5).plus(ReminderScheduler.TICK));
+        scheduler.tick();
+
+        verify(notificationService).deliver(eq(List.of()), any());
+        assertTrue(scheduler.isScheduled(new ReminderScheduler.ReminderKey(1L, null)));
+    }
+
+    @Test
+    void digestPullsTheUsersUpcomingStartRemindersForward() {
+        scheduler.taskChanged(task(1, Duration.ofMinutes(20)));
+        scheduler.taskChanged(task(2, Duration.ofMinutes(28)));
+        when(notificationService.getDigestWindow()).thenReturn(Duration.ofMinutes(15));
+        when(taskRepository.findPendingStartReminders(anyCollection()))
+                .thenReturn(List.of(due(1, Duration.ofMinutes(20))));
+        when(taskRepository.findUpcomingStartReminders(anyCollection(), any(), any()))
+                .thenReturn(List.of(due(1, Duration.ofMinutes(20)), due(2, Duration.ofMinutes(28))));
+        when(notificationService.deliver(anyList(), any())).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        clock.advance(Duration.ofMinutes(5).plus(ReminderScheduler.TICK));
+        scheduler.tick();
+
+        verify(notificationService).deliver(argThat(batch -> batch.stream().map(DueNotification::getTaskId).toList()
+                .equals(List.of(1L, 2L))), any());
+        assertFalse(scheduler.isScheduled(new ReminderScheduler.ReminderKey(2L, null)));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
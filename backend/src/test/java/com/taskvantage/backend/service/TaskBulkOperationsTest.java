@@ -0,0 +1,367 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.BulkTaskOperation;
+import com.taskvantage.backend.dto.BulkTaskResult;
+import com.taskvantage.backend.model.CalendarSyncOperation;
+import com.taskvantage.backend.model.Comment;
+import com.taskvantage.backend.model.Subtask;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskGroup;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.model.User;
+import com.taskvantage.backend.repository.CalendarSyncOperationRepository;
+import com.taskvantage.backend.repository.TaskGroupRepository;
+import com.taskvantage.backend.repository.TaskRepository;
+import com.taskvantage.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs TaskServiceImpl.applyBulkOperations against H2: the set-based complete, move and delete, the ownership
+ * checks, the operation cap, and the embedding calls and reminder wheel updates happening outside the transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkoperations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+// applyBulkOperations opens its own transaction, so the test must not wrap it in one
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskBulkOperationsTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2026, 5, 4, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskGroupRepository taskGroupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CalendarSyncOperationRepository calendarSyncOperationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CustomUserDetailsService customUserDetailsService;
+    private EmbeddingService embeddingService;
+    private ReminderScheduler reminderScheduler;
+    private TaskServiceImpl taskService;
+    private User owner;
+    private User otherUser;
+    private TaskGroup ownerGroup;
+    private TaskGroup otherGroup;
+
+    @BeforeEach
+    void setUp() {
+        owner = seedUser("owner@example.com");
+        otherUser = seedUser("other@example.com");
+        ownerGroup = taskGroupRepository.save(new TaskGroup(owner.getId(), "Work"));
+        otherGroup = taskGroupRepository.save(new TaskGroup(otherUser.getId(), "Private"));
+
+        embeddingService = Mockito.mock(EmbeddingService.class);
+        when(embeddingService.generateEmbedding(anyString(), any())).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive(),
+                    "embedding requested inside the bulk transaction");
+            return List.of(0.1, 0.2);
+        });
+        when(embeddingService.embeddingToJson(any())).thenReturn("[0.1,0.2]");
+
+        reminderScheduler = Mockito.mock(ReminderScheduler.class);
+        // Another thread reads through its own connection, so it only sees what the bulk transaction committed
+        doAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+            assertTrue(committed(() -> taskRepository.existsById(task.getId())),
+                    "reminder wheel updated before the created task was committed");
+            return null;
+        }).when(reminderScheduler).taskChanged(any());
+        doAnswer(invocation -> {
+            Collection<Long> taskIds = invocation.getArgument(0);
+            committed(() -> taskRepository.findAllById(taskIds)).forEach(task -> assertEquals(
+                    Task.STATUS_COMPLETED, task.getStatus(), "reminder wheel updated before the removal was committed"));
+            return null;
+        }).when(reminderScheduler).tasksRemoved(any());
+
+        customUserDetailsService = Mockito.mock(CustomUserDetailsService.class);
+        taskService = new TaskServiceImpl(taskRepository, taskGroupRepository,
+                Mockito.mock(CustomUserDetailsService.class), customUserDetailsService,
+                embeddingService, calendarSyncOperationRepository, new TransactionTemplate(transactionManager),
+                reminderScheduler, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        calendarSyncOperationRepository.deleteAll();
+        taskRepository.deleteAll();
+        taskGroupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void appliesEveryOperationTypeInOneRequest() {
+        List<Long> ids = seedTasks(owner, 5);
+
+        BulkTaskResult result = taskService.applyBulkOperations(owner.getId(), List.of(
+                create("Write report", null),
+                create("Review report", ownerGroup.getId()),
+                operation(BulkTaskOperation.Type.COMPLETE, ids.get(0), null),
+                operation(BulkTaskOperation.Type.COMPLETE, ids.get(1), null),
+                operation(BulkTaskOperation.Type.MOVE, ids.get(2), ownerGroup.getId()),
+                operation(BulkTaskOperation.Type.MOVE, ids.get(3), ownerGroup.getId()),
+                operation(BulkTaskOperation.Type.DELETE, ids.get(4), null)));
+
+        assertEquals(2, result.getCreated().size());
+        assertEquals(2, result.getCompleted());
+        assertEquals(2, result.getMoved());
+        assertEquals(1, result.getDeleted());
+
+        Map<Long, Task> tasks = tasksById();
+        assertEquals(Task.STATUS_COMPLETED, tasks.get(ids.get(0)).getStatus());
+        assertEquals(Task.STATUS_COMPLETED, tasks.get(ids.get(1)).getStatus());
+        assertEquals(ownerGroup.getId(), tasks.get(ids.get(2)).getGroupId());
+        assertEquals(ownerGroup.getId(), tasks.get(ids.get(3)).getGroupId());
+        assertFalse(tasks.containsKey(ids.get(4)));
+        result.getCreated().forEach(created -> {
+            Task task = tasks.get(created.getId());
+            assertEquals(owner.getId(), task.getUserId());
+            assertEquals("[0.1,0.2]", task.getEmbedding());
+        });
+        verify(reminderScheduler, times(2)).taskChanged(any());
+        verify(reminderScheduler).tasksRemoved(argThat(removed -> Set.copyOf(removed).equals(Set.of(ids.get(0), ids.get(1)))));
+        verify(reminderScheduler).tasksRemoved(List.of(ids.get(4)));
+    }
+
+    @Test
+    void completingSetsTheDurationAndQueuesTheCalendarUpdate() {
+        syncToCalendar(owner);
+        Task linked = task(owner, "Linked");
+        linked.setStartDate(START);
+        linked.setScheduledStart(START);
+        linked.setDueDate(START.plusHours(1));
+        linked.setGoogleCalendarEventId("evt-1");
+        Task unscheduled = task(owner, "Unscheduled");
+        List<Long> ids = taskRepository.saveAll(List.of(linked, unscheduled)).stream().map(Task::getId).toList();
+
+        taskService.applyBulkOperations(owner.getId(), List.of(
+                operation(BulkTaskOperation.Type.COMPLETE, ids.get(0), null),
+                operation(BulkTaskOperation.Type.COMPLETE, ids.get(1), null)));
+
+        Map<Long, Task> tasks = tasksById();
+        Task completed = tasks.get(ids.get(0));
+        assertEquals(Duration.between(START, completed.getCompletionDateTime()).toSeconds(),
+                completed.getDuration().toSeconds());
+        assertNull(tasks.get(ids.get(1)).getDuration());
+        List<CalendarSyncOperation> queued = calendarSyncOperationRepository.findAll();
+        assertEquals(1, queued.size());
+        assertEquals(ids.get(0), queued.get(0).getTaskId());
+        assertEquals(CalendarSyncOperation.Type.UPDATE, queued.get(0).getOperation());
+    }
+
+    @Test
+    void deletesTasksWithTheirChildrenAndQueuesTheCalendarDelete() {
+        syncToCalendar(owner);
+        Task linked = task(owner, "Linked");
+        linked.setGoogleCalendarEventId("evt-1");
+        linked.setTags(new ArrayList<>(List.of("work")));
+        linked.setAttachments(new ArrayList<>(List.of("report.pdf")));
+        linked.setReminders(new ArrayList<>(List.of(START)));
+        Subtask subtask = new Subtask();
+        subtask.setTitle("Draft");
+        subtask.setStatus("Pending");
+        subtask.setTask(linked);
+        linked.setSubtasks(new ArrayList<>(List.of(subtask)));
+        Comment comment = new Comment();
+        comment.setAuthor("owner");
+        comment.setContent("Looks good");
+        comment.setCreatedAt(LocalDateTime.now());
+        linked.setComments(new ArrayList<>(List.of(comment)));
+        Task kept = task(owner, "Kept");
+        List<Long> ids = taskRepository.saveAll(List.of(linked, kept)).stream().map(Task::getId).toList();
+
+        BulkTaskResult result = taskService.applyBulkOperations(owner.getId(),
+                List.of(operation(BulkTaskOperation.Type.DELETE, ids.get(0), null)));
+
+        assertEquals(1, result.getDeleted());
+        assertEquals(Set.of(ids.get(1)), tasksById().keySet());
+        for (String table : List.of("subtasks", "comments", "task_tags", "task_attachments", "task_reminders")) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class), table);
+        }
+        List<CalendarSyncOperation> queued = calendarSyncOperationRepository.findAll();
+        assertEquals(1, queued.size());
+        assertEquals(CalendarSyncOperation.Type.DELETE, queued.get(0).getOperation());
+        assertEquals("evt-1", queued.get(0).getEventId());
+        verify(reminderScheduler).tasksRemoved(List.of(ids.get(0)));
+    }
+
+    @Test
+    void leavesTasksOfOtherUsersUntouched() {
+        List<Long> foreign = seedTasks(otherUser, 3);
+
+        BulkTaskResult result = taskService.applyBulkOperations(owner.getId(), List.of(
+                operation(BulkTaskOperation.Type.COMPLETE, foreign.get(0), null),
+                operation(BulkTaskOperation.Type.MOVE, foreign.get(1), ownerGroup.getId()),
+                operation(BulkTaskOperation.Type.DELETE, foreign.get(2), null)));
+
+        assertEquals(0, result.getCompleted());
+        assertEquals(0, result.getMoved());
+        assertEquals(0, result.getDeleted());
+        Map<Long, Task> tasks = tasksById();
+        assertEquals("Pending", tasks.get(foreign.get(0)).getStatus());
+        assertNull(tasks.get(foreign.get(1)).getGroupId());
+        assertTrue(tasks.containsKey(foreign.get(2)));
+        verifyNoInteractions(reminderScheduler);
+    }
+
+    @Test
+    void rejectedMoveRollsBackTheWholeRequest() {
+        List<Long> ids = seedTasks(owner, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.applyBulkOperations(owner.getId(), List.of(
+                create("Write report", null),
+                operation(BulkTaskOperation.Type.COMPLETE, ids.get(0), null),
+                operation(BulkTaskOperation.Type.MOVE, ids.get(1), otherGroup.getId()))));
+
+        Map<Long, Task> tasks = tasksById();
+        assertEquals(2, tasks.size());
+        assertEquals("Pending", tasks.get(ids.get(0)).getStatus());
+        assertNull(tasks.get(ids.get(1)).getGroupId());
+        verifyNoInteractions(reminderScheduler);
+    }
+
+    @Test
+    void rejectsCreatesForAnotherUserOrGroupBeforeAnyEmbeddingCall() {
+        Task foreignTask = task(otherUser, "Not mine");
+        assertThrows(IllegalArgumentException.class, () -> taskService.applyBulkOperations(owner.getId(), List.of(
+                create("Write report", null),
+                new BulkTaskOperation(BulkTaskOperation.Type.CREATE, null, null, foreignTask))));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.applyBulkOperations(owner.getId(), List.of(
+                create("Write report", null),
+                create("Into someone else's group", otherGroup.getId()))));
+
+        verify(embeddingService, never()).generateEmbedding(anyString(), any());
+        assertEquals(0, taskRepository.count());
+    }
+
+    @Test
+    void rejectsOperationsWithoutATaskId() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.applyBulkOperations(owner.getId(),
+                List.of(operation(BulkTaskOperation.Type.DELETE, null, null))));
+    }
+
+    @Test
+    void capsTheNumberOfOperations() {
+        List<Long> ids = seedTasks(owner, 1);
+        List<BulkTaskOperation> operations = new ArrayList<>();
+        for (int i = 0; i <= TaskServiceImpl.MAX_BULK_OPERATIONS; i++) {
+            operations.add(operation(BulkTaskOperation.Type.COMPLETE, ids.get(0), null));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.applyBulkOperations(owner.getId(), operations));
+        assertEquals("Pending", tasksById().get(ids.get(0)).getStatus());
+
+        BulkTaskResult result = taskService.applyBulkOperations(owner.getId(),
+                operations.subList(0, TaskServiceImpl.MAX_BULK_OPERATIONS));
+        assertEquals(1, result.getCompleted());
+    }
+
+    private static <T> T committed(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query).join();
+    }
+
+    private Map<Long, Task> tasksById() {
+        return taskRepository.findAll().stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private static BulkTaskOperation create(String title, Long groupId) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setGroupId(groupId);
+        return new BulkTaskOperation(BulkTaskOperation.Type.CREATE, null, null, task);
+    }
+
+    private static BulkTaskOperation operation(BulkTaskOperation.Type type, Long taskId, Long groupId) {
+        return new BulkTaskOperation(type, taskId, groupId, null);
+    }
+
+    private List<Long> seedTasks(User user, int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(task(user, "Task " + i));
+        }
+        return taskRepository.saveAll(tasks).stream().map(Task::getId).toList();
+    }
+
+    private static Task task(User user, String title) {
+        Task task = new Task();
+        task.setUserId(user.getId());
+        task.setTitle(title);
+        task.setStatus("Pending");
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setLastModifiedDate(ZonedDateTime.now(ZoneOffset.UTC));
+        return task;
+    }
+
+    private void syncToCalendar(User user) {
+        user.setGoogleAccessToken("access-token");
+        user.setTaskSyncEnabled(true);
+        when(customUserDetailsService.findUserById(user.getId())).thenReturn(user);
+    }
+
+    private User seedUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+}
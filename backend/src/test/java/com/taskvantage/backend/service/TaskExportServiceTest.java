@@ -0,0 +1,110 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.TaskImportResult;
+import com.taskvantage.backend.dto.TaskSummary;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+class TaskExportServiceTest {
+
+    private static final ZonedDateTime DUE = ZonedDateTime.of(2026, 3, 1, 17, 0, 0, 0, ZoneOffset.UTC);
+
+    private TaskRepository taskRepository;
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        taskExportService = new TaskExportService(taskRepository);
+    }
+
+    private static TaskSummary summary(long id, String title) {
+        return new TaskSummary(0, 0, 0, 0, id, 42L, null, title, "Line one, \"quoted\"\nline two", TaskPriority.HIGH,
+                "In Progress", DUE, DUE.minusDays(7), DUE.minusDays(1), null, null, Duration.ofMinutes(90), 2, null, null);
+    }
+
+    private void givenTasks(int count) {
+        when(taskRepository.streamTaskSummariesByUserId(42L)).thenAnswer(invocation ->
+                IntStream.range(0, count).mapToObj(i -> summary(i + 1, "Task " + i)));
+    }
+
+    @Test
+    void csvExportCanBeReimported() throws Exception {
+        givenTasks(TaskExportService.FLUSH_EVERY + 3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = taskExportService.exportTasks(42L, TaskImportService.Format.CSV, false, out);
+
+        assertEquals(TaskExportService.FLUSH_EVERY + 3, rows);
+        List<Task> imported = new ArrayList<>();
+        TaskRepository importRepository = Mockito.mock(TaskRepository.class);
+        when(importRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> batch = invocation.getArgument(0);
+            imported.addAll(batch);
+            return batch;
+        });
+        TaskImportService importer = new TaskImportService(importRepository,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                Mockito.mock(ReminderScheduler.class));
+
+        TaskImportResult result = importer.importCsv(new StringReader(out.toString(StandardCharsets.UTF_8)), 7L);
+
+        assertEquals(rows, result.getImported());
+        assertEquals(0, result.getFailed());
+        Task first = imported.get(0);
+        assertEquals("Task 0", first.getTitle());
+        assertEquals("Line one, \"quoted\"\nline two", first.getDescription());
+        assertEquals(TaskPriority.HIGH, first.getPriority());
+        assertEquals("In Progress", first.getStatus());
+        assertEquals(DUE.toInstant(), first.getDueDate().toInstant());
+    }
+
+    @Test
+    void gzipNdjsonExportWritesOneObjectPerLine() throws Exception {
+        givenTasks(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.exportTasks(42L, TaskImportService.Format.NDJSON, true, out);
+
+        String ndjson;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = ndjson.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"groupId\":null,\"title\":\"Task 0\""), lines[0]);
+        assertTrue(lines[2].contains("\"duration\":\"PT1H30M\""), lines[2]);
+    }
+
+    @Test
+    void emptyExportStillWritesCsvHeader() throws Exception {
+        when(taskRepository.streamTaskSummariesByUserId(42L)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, taskExportService.exportTasks(42L, TaskImportService.Format.CSV, false, out));
+        assertEquals(String.join(",", TaskExportService.COLUMNS) + "\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
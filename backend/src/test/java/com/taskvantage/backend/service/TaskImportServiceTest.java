@@ -0,0 +1,93 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.dto.TaskImportResult;
+import com.taskvantage.backend.model.Task;
+import com.taskvantage.backend.model.TaskPriority;
+import com.taskvantage.backend.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TaskImportServiceTest {
+
+    private static final String CSV_HEADER = "title,description,priority,status,due_date,scheduledStart\n";
+
+    private TaskRepository taskRepository;
+    private TaskImportService taskImportService;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<Task> savedTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = Mockito.mock(TaskRepository.class);
+        // saveAll receives the writer's reusable buffer, so record its size at call time
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            savedTasks.addAll(batch);
+            return batch;
+        });
+        TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        taskImportService = new TaskImportService(taskRepository, transactionTemplate,
+                Mockito.mock(ReminderScheduler.class));
+    }
+
+    @Test
+    void csvRowsAreWrittenInFixedSizeBatches() throws Exception {
+        int rows = TaskImportService.BATCH_SIZE * 2 + 7;
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 0; i < rows; i++) {
+            csv.append("Task ").append(i).append(",Imported,HIGH,Complete,2026-01-28T17:00:00,2026-01-22T09:00:00Z\n");
+        }
+
+        TaskImportResult result = taskImportService.importCsv(new StringReader(csv.toString()), 42L);
+
+        assertEquals(rows, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(TaskImportService.BATCH_SIZE, TaskImportService.BATCH_SIZE, 7), batchSizes);
+    }
+
+    @Test
+    void invalidRowsAreReportedWithoutAbortingTheImport() throws Exception {
+        String csv = CSV_HEADER
+                + "Valid task,ok,LOW,Pending,2026-01-28T17:00:00,\n"
+                + ",missing title,LOW,Pending,,\n"
+                + "Bad priority,x,URGENT,Pending,,\n"
+                + "Bad date,x,LOW,Pending,not-a-date,\n";
+
+        TaskImportResult result = taskImportService.importCsv(new StringReader(csv), 42L);
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(3L, 4L, 5L), result.getErrors().stream().map(TaskImportResult.RowError::getRow).toList());
+    }
+
+    @Test
+    void ndjsonRecordsUseTaskPropertyNames() throws Exception {
+        String ndjson = "{\"title\":\"Write report\",\"priority\":\"high\",\"status\":\"In Progress\",\"dueDate\":\"2026-02-01T10:00:00Z\"}\n"
+                + "\n"
+                + "{not json}\n";
+
+        TaskImportResult result = taskImportService.importNdjson(new StringReader(ndjson), 7L);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3L, result.getErrors().get(0).getRow());
+
+        Task saved = savedTasks.get(0);
+        assertEquals(7L, saved.getUserId());
+        assertEquals(TaskPriority.HIGH, saved.getPriority());
+        assertEquals("In Progress", saved.getStatus());
+        assertNotNull(saved.getDueDate());
+    }
+}
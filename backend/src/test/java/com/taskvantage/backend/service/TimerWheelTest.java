@@ -0,0 +1,70 @@
+package com.taskvantage.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    private static final Instant START = Instant.parse("2026-05-04T09:00:00Z");
+
+    private final TimerWheel<String> wheel = new TimerWheel<>(8, Duration.ofSeconds(1), START);
+
+    @Test
+    void timerExpiresOnItsTickAndNotBefore() {
+        wheel.schedule("a", START.plusMillis(2500));
+
+        assertEquals(List.of(), wheel.advance(START.plusSeconds(2)));
+        assertEquals(List.of("a"), wheel.advance(START.plusSeconds(3)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersSeveralRevolutionsOutShareSlotsWithoutFiringEarly() {
+        wheel.schedule("near", START.plusSeconds(3));
+        wheel.schedule("far", START.plusSeconds(3 + 8 * 2));
+
+        assertEquals(List.of("near"), wheel.advance(START.plusSeconds(3)));
+        assertEquals(List.of(), wheel.advance(START.plusSeconds(11)));
+        assertEquals(List.of("far"), wheel.advance(START.plusSeconds(19)));
+    }
+
+    @Test
+    void longPauseExpiresEverythingDueInOneSweep() {
+        wheel.schedule("a", START.plusSeconds(1));
+        wheel.schedule("b", START.plusSeconds(20));
+        wheel.schedule("c", START.plusSeconds(100));
+
+        List<String> expired = wheel.advance(START.plusSeconds(50));
+
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b")));
+        assertTrue(wheel.contains("c"));
+    }
+
+    @Test
+    void cancelledAndRescheduledTimersFireOnlyAtTheirLatestTime() {
+        wheel.schedule("a", START.plusSeconds(2));
+        wheel.schedule("b", START.plusSeconds(2));
+        assertTrue(wheel.cancel("b"));
+        wheel.schedule("a", START.plusSeconds(5));
+
+        assertEquals(List.of(), wheel.advance(START.plusSeconds(4)));
+        assertEquals(List.of("a"), wheel.advance(START.plusSeconds(5)));
+        assertFalse(wheel.cancel("b"));
+    }
+
+    @Test
+    void pastDueTimeFiresOnTheNextTick() {
+        wheel.advance(START.plusSeconds(10));
+        wheel.schedule("late", START);
+
+        assertEquals(List.of("late"), wheel.advance(START.plusSeconds(11)));
+    }
+}
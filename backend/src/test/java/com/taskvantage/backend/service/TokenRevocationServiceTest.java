@@ -0,0 +1,83 @@
+package com.taskvantage.backend.service;
+
+import com.taskvantage.backend.Security.VerifiedJwt;
+import com.taskvantage.backend.model.RevokedToken;
+import com.taskvantage.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-05-04T09:00:00Z");
+
+    private RevokedTokenRepository repository;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(RevokedTokenRepository.class);
+        when(repository.findUnexpiredTokenIds(any())).thenReturn(List.of("revoked-elsewhere"));
+        service = new TokenRevocationService(repository, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static VerifiedJwt jwt(String tokenId) {
+        return new VerifiedJwt("token", tokenId, "alice@example.com", 42L, "ACCESS", "WEB",
+                Date.from(NOW.plusSeconds(3600)));
+    }
+
+    @Test
+    void tokensThatWereNeverRevokedAreAnsweredWithoutALookup() {
+        for (int i = 0; i < 100; i++) {
+            assertFalse(service.isRevoked("never-revoked-" + i));
+        }
+
+        // Allow for the odd Bloom false positive; each costs one primary-key lookup
+        verify(repository, atMost(5)).existsById(anyString());
+        verify(repository, times(1)).findUnexpiredTokenIds(any());
+    }
+
+    @Test
+    void revokedTokenIsRefusedUntilItExpires() {
+        when(repository.existsById("jti-1")).thenReturn(true);
+
+        service.revoke(jwt("jti-1"));
+
+        assertTrue(service.isRevoked("jti-1"));
+        verify(repository).save(argThat((RevokedToken token) -> token.getTokenId().equals("jti-1")
+                && token.getExpiresAt().equals(ZonedDateTime.ofInstant(NOW.plusSeconds(3600), ZoneOffset.UTC))));
+    }
+
+    @Test
+    void refreshPurgesExpiredRowsAndLoadsRevocationsFromOtherInstances() {
+        when(repository.existsById("revoked-elsewhere")).thenReturn(true);
+        when(repository.findUnexpiredTokenIds(any())).thenReturn(List.of()).thenReturn(List.of("revoked-elsewhere"));
+
+        assertFalse(service.isRevoked("revoked-elsewhere"));
+        service.refresh();
+
+        assertTrue(service.isRevoked("revoked-elsewhere"));
+        verify(repository).deleteExpired(ZonedDateTime.ofInstant(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void tokensWithoutAnIdCannotBeRevoked() {
+        service.revoke(jwt(null));
+
+        verify(repository, never()).save(any());
+        assertFalse(service.isRevoked(null));
+        verify(repository, never()).existsById(any());
+    }
+}
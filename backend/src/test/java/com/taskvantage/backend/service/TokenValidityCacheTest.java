@@ -0,0 +1,132 @@
+package com.taskvantage.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenValidityCacheTest {
+
+    private static final String TOKEN = "ya29.access-token";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-05-04T09:00:00Z"));
+    private final Deque<Object> answers = new ArrayDeque<>();
+    private int checks;
+    // Background refreshes run inline, so their effect is visible as soon as isValid returns
+    private final TokenValidityCache cache = new TokenValidityCache(this::check, clock, Runnable::run);
+
+    private TokenValidityCache.TokenStatus check(String token) throws IOException {
+        checks++;
+        Object answer = answers.isEmpty() ? TokenValidityCache.TokenStatus.valid(Duration.ofHours(1)) : answers.poll();
+        if (answer instanceof IOException e) {
+            throw e;
+        }
+        return (TokenValidityCache.TokenStatus) answer;
+    }
+
+    @Test
+    void validTokenIsCheckedOnceWithinItsTtl() {
+        assertTrue(cache.isValid(TOKEN));
+        clock.advance(Duration.ofMinutes(5));
+        assertTrue(cache.isValid(TOKEN));
+
+        assertEquals(1, checks);
+    }
+
+    @Test
+    void invalidTokenIsCachedForTheNegativeTtl() {
+        answers.add(TokenValidityCache.TokenStatus.invalid());
+        answers.add(TokenValidityCache.TokenStatus.invalid());
+
+        assertFalse(cache.isValid(TOKEN));
+        assertFalse(cache.isValid(TOKEN));
+        assertEquals(1, checks);
+
+        clock.advance(TokenValidityCache.NEGATIVE_TTL);
+        assertFalse(cache.isValid(TOKEN));
+        assertEquals(2, checks);
+    }
+
+    @Test
+    void tokenExpiringSoonerThanTheMaxTtlIsReportedExpiredWithoutACall() {
+        answers.add(TokenValidityCache.TokenStatus.valid(Duration.ofMinutes(3)));
+
+        assertTrue(cache.isValid(TOKEN));
+        // expires_in of 3 minutes minus the safety margin
+        clock.advance(Duration.ofMinutes(2));
+        assertFalse(cache.isValid(TOKEN));
+
+        assertEquals(1, checks);
+    }
+
+    @Test
+    void entryIsRefreshedAheadOfGoingStale() {
+        assertTrue(cache.isValid(TOKEN));
+
+        // Inside the refresh-ahead window: the cached answer is served and a re-check runs in the background
+        clock.advance(Duration.ofMinutes(13));
+        assertTrue(cache.isValid(TOKEN));
+        assertEquals(2, checks);
+
+        // Past the original entry's TTL, but the refreshed entry is still fresh
+        clock.advance(Duration.ofMinutes(5));
+        assertTrue(cache.isValid(TOKEN));
+        assertEquals(2, checks);
+    }
+
+    @Test
+    void failedCheckKeepsAPositiveAnswerUntilTheTokenExpires() {
+        assertTrue(cache.isValid(TOKEN));
+        clock.advance(TokenValidityCache.MAX_VALID_TTL);
+        answers.add(new IOException("Connection reset"));
+
+        assertTrue(cache.isValid(TOKEN));
+        assertEquals(2, checks);
+    }
+
+    @Test
+    void invalidatedTokenIsReportedInvalid() {
+        assertTrue(cache.isValid(TOKEN));
+        cache.invalidate(TOKEN);
+
+        assertFalse(cache.isValid(TOKEN));
+        assertEquals(1, checks);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}